@@ -0,0 +1,49 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Benchmarks entry point. Accepts the usual JMH command line and always adds the GC profiler, so
+ * every result reports allocation rate ('gc.alloc.rate.norm' is bytes per operation) next to ops/s.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {}
+
+    /**
+     * Run the benchmarks.
+     *
+     * @param args JMH command line arguments, i.e. a benchmark name regexp.
+     * @throws CommandLineOptionException If the arguments are invalid.
+     * @throws RunnerException If the benchmarks fail.
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        final Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
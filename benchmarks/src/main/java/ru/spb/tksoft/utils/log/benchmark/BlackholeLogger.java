@@ -0,0 +1,91 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log.benchmark;
+
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.LegacyAbstractLogger;
+import org.slf4j.helpers.NOPLogger;
+
+/**
+ * No-op loggers for benchmarks: one with all levels disabled, one with all levels enabled that
+ * hands the message to a JMH blackhole, so the message building cannot be optimized away.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+final class BlackholeLogger extends LegacyAbstractLogger {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Logger with all levels disabled. */
+    static final Logger DISABLED = NOPLogger.NOP_LOGGER;
+
+    private final transient Blackhole blackhole;
+
+    private BlackholeLogger(Blackhole blackhole) {
+        this.name = "blackhole";
+        this.blackhole = blackhole;
+    }
+
+    /**
+     * Get the logger for the benchmark state.
+     *
+     * @param enabled Whether all levels are enabled.
+     * @param blackhole The blackhole to consume messages.
+     * @return The logger.
+     */
+    static Logger of(boolean enabled, Blackhole blackhole) {
+        return enabled ? new BlackholeLogger(blackhole) : DISABLED;
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return true;
+    }
+
+    @Override
+    protected String getFullyQualifiedCallerName() {
+        return null;
+    }
+
+    @Override
+    protected void handleNormalizedLoggingCall(Level level, Marker marker, String messagePattern,
+            Object[] arguments, Throwable throwable) {
+        blackhole.consume(messagePattern);
+        blackhole.consume(arguments);
+    }
+}
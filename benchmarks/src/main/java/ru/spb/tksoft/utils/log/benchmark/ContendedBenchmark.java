@@ -0,0 +1,86 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+import ru.spb.tksoft.utils.log.BufferStrategy;
+import ru.spb.tksoft.utils.log.LogEx;
+import ru.spb.tksoft.utils.log.LogFx;
+
+/**
+ * Shared state paths under contention: method name cache, message buffers, shared logger.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class ContendedBenchmark {
+
+    @Param({"THREAD_LOCAL", "POOLED"})
+    public BufferStrategy strategy;
+
+    private Logger logger;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        logger = BlackholeLogger.of(true, blackhole);
+        LogEx.setBufferStrategy(strategy);
+    }
+
+    @Benchmark
+    public String meQualified() {
+        return LogEx.meQualified();
+    }
+
+    @Benchmark
+    public void logEx() {
+        LogEx.info(logger, "contended", "message", 42);
+    }
+
+    @Benchmark
+    public void logParts() {
+        LogEx.parts(logger, Level.INFO).add("contended").add(42L).log();
+    }
+
+    @Benchmark
+    public void infoHere() {
+        LogEx.infoHere(logger, LogEx.STOPPED);
+    }
+
+    @Benchmark
+    public void logFx() {
+        LogFx.info(logger, "contended {} {}", "message", 42);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+import ru.spb.tksoft.utils.log.LogEx;
+
+/**
+ * LogEx message building with enabled and disabled levels and 1 to 8 parts.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LogExBenchmark {
+
+    @Param({"true", "false"})
+    public boolean enabled;
+
+    @Param({"1", "2", "4", "8"})
+    public int parts;
+
+    private Logger logger;
+
+    private String p1 = "part1";
+    private String p2 = "part2";
+    private String p3 = "part3";
+    private String p4 = "part4";
+    private Integer p5 = 1_000;
+    private Long p6 = 2_000_000L;
+    private Double p7 = 0.25;
+    private Boolean p8 = Boolean.TRUE;
+
+    private long counter;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        logger = BlackholeLogger.of(enabled, blackhole);
+    }
+
+    /** Call shape a caller would write: fixed-arity overloads up to 4 parts, varargs above. */
+    @Benchmark
+    public void natural() {
+        switch (parts) {
+            case 1 -> LogEx.info(logger, p1);
+            case 2 -> LogEx.info(logger, p1, p2);
+            case 4 -> LogEx.info(logger, p1, p2, p3, p4);
+            default -> LogEx.info(logger, p1, p2, p3, p4, p5, p6, p7, p8);
+        }
+    }
+
+    /** Always through the varargs path with an array per call. */
+    @Benchmark
+    public void varargs() {
+        switch (parts) {
+            case 1 -> LogEx.log(logger, Level.INFO, new Object[] {p1});
+            case 2 -> LogEx.log(logger, Level.INFO, new Object[] {p1, p2});
+            case 4 -> LogEx.log(logger, Level.INFO, new Object[] {p1, p2, p3, p4});
+            default -> LogEx.log(logger, Level.INFO,
+                    new Object[] {p1, p2, p3, p4, p5, p6, p7, p8});
+        }
+    }
+
+    /** Primitives passed as parts: autoboxed, then String.valueOf(). */
+    @Benchmark
+    public void boxedPrimitives() {
+        final long value = counter++;
+        LogEx.debug(logger, p1, value, value * 0.5, (int) value);
+    }
+
+    /** Primitives appended by LogParts without boxing. */
+    @Benchmark
+    public void primitiveParts() {
+        final long value = counter++;
+        LogEx.parts(logger, Level.DEBUG).add(p1).add(value).add(value * 0.5).add((int) value)
+                .log();
+    }
+
+    /** The README pattern: me() is evaluated even when the level is disabled. */
+    @Benchmark
+    public void eagerMe() {
+        LogEx.trace(logger, LogEx.me(), LogEx.STARTING);
+    }
+
+    /** Caller captured only when the level is enabled. */
+    @Benchmark
+    public void traceHere() {
+        LogEx.traceHere(logger, LogEx.STARTING);
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.Logger;
+import ru.spb.tksoft.utils.log.LogFx;
+
+/**
+ * LogFx against direct SLF4J parameterized calls.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LogFxBenchmark {
+
+    @Param({"true", "false"})
+    public boolean enabled;
+
+    private Logger logger;
+
+    private String a1 = "order-1";
+    private Integer a2 = 1_000;
+    private String a3 = "warehouse";
+    private Long a4 = 2_000_000L;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        logger = BlackholeLogger.of(enabled, blackhole);
+    }
+
+    @Benchmark
+    public void logFx1Arg() {
+        LogFx.info(logger, "order {}", a1);
+    }
+
+    @Benchmark
+    public void direct1Arg() {
+        logger.info("order {}", a1);
+    }
+
+    @Benchmark
+    public void logFx2Args() {
+        LogFx.info(logger, "order {} shipped in {} ms", a1, a2);
+    }
+
+    @Benchmark
+    public void direct2Args() {
+        logger.info("order {} shipped in {} ms", a1, a2);
+    }
+
+    @Benchmark
+    public void logFx4Args() {
+        LogFx.info(logger, "order {} shipped in {} ms from {} ({})", a1, a2, a3, a4);
+    }
+
+    @Benchmark
+    public void direct4Args() {
+        logger.info("order {} shipped in {} ms from {} ({})", a1, a2, a3, a4);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.spb.tksoft.utils.log.LogEx;
+
+/**
+ * LogEx.me() and its variants at varying stack depths, against the full stack trace approach.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MeBenchmark {
+
+    private static final int ME = 0;
+    private static final int ME_QUALIFIED = 1;
+    private static final int ME_LINE = 2;
+    private static final int STACK_TRACE = 3;
+
+    /** Number of frames below the benchmark method. */
+    @Param({"1", "50", "200"})
+    public int depth;
+
+    /**
+     * Descend to the requested depth, then get the method name.
+     */
+    private static Object at(int remaining, int kind) {
+        if (remaining > 1) {
+            return at(remaining - 1, kind);
+        }
+        return switch (kind) {
+            case ME -> LogEx.me();
+            case ME_QUALIFIED -> LogEx.meQualified();
+            case ME_LINE -> LogEx.meLine();
+            default -> Thread.currentThread().getStackTrace()[1].getMethodName();
+        };
+    }
+
+    @Benchmark
+    public Object me() {
+        return at(depth, ME);
+    }
+
+    @Benchmark
+    public Object meQualified() {
+        return at(depth, ME_QUALIFIED);
+    }
+
+    @Benchmark
+    public Object meLine() {
+        return at(depth, ME_LINE);
+    }
+
+    /** Baseline: the full stack trace, as LogEx.me() used to do. */
+    @Benchmark
+    public Object stackTrace() {
+        return at(depth, STACK_TRACE);
+    }
+}
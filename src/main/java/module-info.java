@@ -8,6 +8,9 @@
  */
 module ru.spb.tksoft.utils.log {
     requires transitive org.slf4j;
+    requires java.management;
+    // Optional, needed only for LogEx.setJfrEvents(true)
+    requires static jdk.jfr;
 
     exports ru.spb.tksoft.utils.log;
 }
@@ -0,0 +1,579 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+/**
+ * Asynchronous logging front-end: a bounded lock-free multi-producer single-consumer ring buffer
+ * drained by one background thread.
+ *
+ * A producer claims a slot with a CAS on the tail sequence, stores the logger, level and raw parts
+ * into the preallocated slot and publishes it by writing the slot sequence. The drainer consumes
+ * slots strictly in sequence order, formats the message and hands it to SLF4J. Since a producer's
+ * events get increasing sequences, events of one thread are emitted in the order they were logged.
+ *
+ * Parts are captured by reference and formatted later on the drainer thread, so they must not be
+ * modified after the logging call.
+ *
+ * When the buffer is full, the {@link OverflowPolicy} decides whether the producer waits or the
+ * event is dropped. Dropped events are counted per level, in total and per logger; the drainer
+ * periodically reports the per-logger counts with a summary line through that logger. At the same
+ * interval it reports the suppressed counts of rate-limited call sites whose window has closed.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+final class AsyncDispatcher {
+
+    /** Longest drainer sleep when idle; producers wake it up earlier. */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /** Producer wait while the buffer is full. */
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /** claim() result: the dispatcher is stopped. */
+    private static final long STOPPED = -1;
+
+    /** claim() result: the event was dropped by the overflow policy. */
+    private static final long DROPPED = -2;
+
+    /** Levels in the order they appear in the drop summary. */
+    private static final Level[] SUMMARY_LEVELS =
+            {Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR};
+
+    /** Preallocated event slot. */
+    private static final class Slot {
+
+        /** Slot sequence: equals the position when free, position + 1 when published. */
+        volatile long sequence;
+
+        Logger logger;
+        Level level;
+
+        /** Preformatted message, or null when the message is built from the parts below. */
+        String message;
+
+        /** Throwable logged with the preformatted message or null. */
+        Throwable throwable;
+
+        /** Leading part (method name) or null. */
+        String head;
+
+        /** Number of fixed parts used, 0 when parts array is used. */
+        int count;
+        Object part1;
+        Object part2;
+        Object part3;
+        Object part4;
+        Object[] parts;
+
+        Slot(long sequence) {
+            this.sequence = sequence;
+        }
+
+        void clear() {
+            logger = null;
+            level = null;
+            message = null;
+            throwable = null;
+            head = null;
+            count = 0;
+            part1 = null;
+            part2 = null;
+            part3 = null;
+            part4 = null;
+            parts = null;
+        }
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+
+    /** Next position to claim by producers. */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** Next position to consume. Written by the drainer only. */
+    private volatile long head;
+
+    private volatile boolean running = true;
+
+    /** Set by the drainer before parking, so producers know to unpark it. */
+    private volatile boolean sleeping;
+
+    private final Thread drainer;
+
+    private final Thread shutdownHook;
+
+    /** Drainer's own message buffer. */
+    private StringBuilder builder = new StringBuilder(MessageBuffers.INITIAL_CAPACITY);
+
+    private volatile OverflowPolicy overflowPolicy;
+
+    private volatile long summaryIntervalNanos;
+
+    /** Time of the last drop summary, drainer only. */
+    private long lastSummaryNanos = System.nanoTime();
+
+    /** Dropped events since start, indexed by level ordinal. */
+    private final LongAdder[] dropped = newCounters();
+
+    /** Dropped events not yet reported, per logger. */
+    private final Map<Logger, LongAdder[]> unreported = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor. Starts the drainer thread and registers the shutdown hook.
+     *
+     * @param capacity The number of slots; rounded up to a power of two.
+     * @param overflowPolicy What to do with events when the buffer is full.
+     * @param summaryInterval How often to report dropped events.
+     * @param shutdownTimeout The maximum time to flush the queue on JVM shutdown.
+     */
+    AsyncDispatcher(int capacity, OverflowPolicy overflowPolicy, Duration summaryInterval,
+            Duration shutdownTimeout) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Async capacity must be positive: " + capacity);
+        }
+        setOverflowPolicy(overflowPolicy);
+        setSummaryInterval(summaryInterval);
+
+        final int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot(i);
+        }
+        this.mask = size - 1;
+
+        this.drainer = new Thread(this::drainLoop, "tk-log-utils-async");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+
+        this.shutdownHook = new Thread(() -> stop(shutdownTimeout), "tk-log-utils-async-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * @return The number of slots.
+     */
+    int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * @return The number of events waiting to be emitted.
+     */
+    int size() {
+        return (int) (tail.get() - head);
+    }
+
+    /**
+     * @param policy What to do with events when the buffer is full.
+     */
+    void setOverflowPolicy(OverflowPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Overflow policy must not be null");
+        }
+        this.overflowPolicy = policy;
+    }
+
+    /**
+     * @param interval How often to report dropped events, positive.
+     */
+    void setSummaryInterval(Duration interval) {
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Invalid drop summary interval: " + interval);
+        }
+        this.summaryIntervalNanos = interval.toNanos();
+    }
+
+    /**
+     * @param level The level.
+     * @return The number of events of the level dropped since start.
+     */
+    long droppedCount(Level level) {
+        return dropped[level.ordinal()].sum();
+    }
+
+    private static LongAdder[] newCounters() {
+        final LongAdder[] counters = new LongAdder[Level.values().length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    /**
+     * Account for the dropped event.
+     */
+    private void drop(Logger logger, Level level) {
+        dropped[level.ordinal()].increment();
+        unreported.computeIfAbsent(logger, k -> newCounters())[level.ordinal()].increment();
+    }
+
+    /**
+     * @return true until {@link #stop(Duration)} is called.
+     */
+    boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Claim the next slot, applying the overflow policy while the buffer is full.
+     *
+     * @param logger The event logger.
+     * @param level The event level.
+     * @return The claimed position, {@link #STOPPED} or {@link #DROPPED}.
+     */
+    private long claim(Logger logger, Level level) {
+        if (Thread.currentThread() == drainer) {
+            // Logging from a part or the backend while draining: waiting for a slot on the drainer
+            // would wait for itself, so the caller logs synchronously
+            return STOPPED;
+        }
+        long waitNanos = -1;
+        long deadline = 0;
+        long position = tail.get();
+        while (true) {
+            if (!running) {
+                return STOPPED;
+            }
+            final Slot slot = slots[(int) position & mask];
+            final long difference = slot.sequence - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    if (!running) {
+                        // Stop began after the check: publish the slot empty, so the final drain
+                        // does not wait for it, and let the caller log synchronously
+                        commit(slot, position);
+                        return STOPPED;
+                    }
+                    return position;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // Full: the slot still holds the event from the previous lap
+                if (waitNanos < 0) {
+                    waitNanos = overflowPolicy.onOverflow(level);
+                    deadline = System.nanoTime() + waitNanos;
+                }
+                if (waitNanos != OverflowPolicy.WAIT_FOREVER
+                        && deadline - System.nanoTime() <= 0) {
+                    drop(logger, level);
+                    return DROPPED;
+                }
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+                position = tail.get();
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Publish the filled slot and wake up the drainer if it sleeps.
+     */
+    private void commit(Slot slot, long position) {
+        slot.sequence = position + 1;
+        if (sleeping) {
+            LockSupport.unpark(drainer);
+        }
+    }
+
+    /**
+     * Enqueue a preformatted message.
+     *
+     * @return false if the dispatcher is stopped and the caller must log synchronously; true if
+     *         the event was queued or dropped.
+     */
+    boolean publish(Logger logger, Level level, String message) {
+        return publish(logger, level, message, (Throwable) null);
+    }
+
+    /**
+     * Enqueue a preformatted message with a throwable.
+     *
+     * @return false if the dispatcher is stopped and the caller must log synchronously; true if
+     *         the event was queued or dropped.
+     */
+    boolean publish(Logger logger, Level level, String message, Throwable throwable) {
+        final long position = claim(logger, level);
+        if (position == DROPPED) {
+            return true;
+        }
+        if (position == STOPPED) {
+            return false;
+        }
+        final Slot slot = slots[(int) position & mask];
+        slot.logger = logger;
+        slot.level = level;
+        slot.message = message;
+        slot.throwable = throwable;
+        commit(slot, position);
+        return true;
+    }
+
+    /**
+     * Enqueue an optional head and parts array, formatted on the drainer.
+     *
+     * @return false if the dispatcher is stopped and the caller must log synchronously; true if
+     *         the event was queued or dropped.
+     */
+    boolean publish(Logger logger, Level level, String head, Object[] parts) {
+        final long position = claim(logger, level);
+        if (position == DROPPED) {
+            return true;
+        }
+        if (position == STOPPED) {
+            return false;
+        }
+        final Slot slot = slots[(int) position & mask];
+        slot.logger = logger;
+        slot.level = level;
+        slot.head = head;
+        slot.parts = parts;
+        commit(slot, position);
+        return true;
+    }
+
+    /**
+     * Enqueue up to four parts without an array, formatted on the drainer.
+     *
+     * @return false if the dispatcher is stopped and the caller must log synchronously; true if
+     *         the event was queued or dropped.
+     */
+    boolean publish(Logger logger, Level level, int count,
+            Object part1, Object part2, Object part3, Object part4) {
+        final long position = claim(logger, level);
+        if (position == DROPPED) {
+            return true;
+        }
+        if (position == STOPPED) {
+            return false;
+        }
+        final Slot slot = slots[(int) position & mask];
+        slot.logger = logger;
+        slot.level = level;
+        slot.count = count;
+        slot.part1 = part1;
+        slot.part2 = part2;
+        slot.part3 = part3;
+        slot.part4 = part4;
+        commit(slot, position);
+        return true;
+    }
+
+    /**
+     * Drainer thread body.
+     */
+    private void drainLoop() {
+        while (running) {
+            if (drainAvailable() == 0) {
+                sleeping = true;
+                if (running && !hasPublished()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                sleeping = false;
+            }
+            final long now = System.nanoTime();
+            if (now - lastSummaryNanos >= summaryIntervalNanos) {
+                lastSummaryNanos = now;
+                reportDropped();
+                LogEx.flushSuppressed(true);
+            }
+        }
+        // Flush what was accepted before the stop, including slots claimed but not yet filled:
+        // a producer that claims after this point sees the stop and publishes its slot empty
+        while (head != tail.get()) {
+            if (drainAvailable() == 0) {
+                Thread.onSpinWait();
+            }
+        }
+        reportDropped();
+    }
+
+    /**
+     * Emit a summary line for every logger that lost events since the last report.
+     */
+    private void reportDropped() {
+        for (Map.Entry<Logger, LongAdder[]> entry : unreported.entrySet()) {
+            final String summary = dropSummary(entry.getValue());
+            if (summary != null) {
+                try {
+                    LogEx.emit(entry.getKey(), Level.WARN, summary);
+                } catch (RuntimeException e) {
+                    LogMetrics.internalError("drop summary failed", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Build the summary and reset the counters.
+     *
+     * @return The summary or null if nothing was dropped.
+     */
+    private static String dropSummary(LongAdder[] counters) {
+        final StringBuilder sb = new StringBuilder();
+        long total = 0;
+        for (Level level : SUMMARY_LEVELS) {
+            final long count = counters[level.ordinal()].sumThenReset();
+            if (count > 0) {
+                sb.append(sb.isEmpty() ? "" : ", ").append(level).append('=').append(count);
+                total += count;
+            }
+        }
+        if (total == 0) {
+            return null;
+        }
+        return "Async log queue overflow: " + total + " events dropped (" + sb + ")";
+    }
+
+    /**
+     * @return true if the next slot is published.
+     */
+    private boolean hasPublished() {
+        final long position = head;
+        return slots[(int) position & mask].sequence == position + 1;
+    }
+
+    /**
+     * Emit all published events. Called by the single consumer only.
+     *
+     * @return The number of emitted events.
+     */
+    private int drainAvailable() {
+        int drained = 0;
+        long position = head;
+        while (true) {
+            final Slot slot = slots[(int) position & mask];
+            if (slot.sequence != position + 1) {
+                break;
+            }
+
+            emit(slot);
+            slot.clear();
+            slot.sequence = position + slots.length;
+
+            position++;
+            head = position;
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Format and emit the event; an empty slot was given up by its producer. Backend failures must
+     * not kill the drainer, they are counted as internal errors.
+     */
+    private void emit(Slot slot) {
+        if (slot.logger == null) {
+            return;
+        }
+        try {
+            LogEx.emit(slot.logger, slot.level, format(slot), slot.throwable);
+        } catch (RuntimeException e) {
+            LogMetrics.internalError("async event dropped", e);
+        }
+    }
+
+    /**
+     * Build the message the same way the synchronous path does.
+     */
+    private String format(Slot slot) {
+        if (slot.message != null) {
+            return slot.message;
+        }
+
+        final StringBuilder sb = builder;
+        sb.setLength(0);
+
+        boolean first = true;
+        if (slot.head != null) {
+            sb.append(slot.head);
+            first = false;
+        }
+
+        if (slot.count > 0) {
+            first = appendPart(sb, slot.part1, first);
+            if (slot.count > 1) {
+                first = appendPart(sb, slot.part2, first);
+            }
+            if (slot.count > 2) {
+                first = appendPart(sb, slot.part3, first);
+            }
+            if (slot.count > 3) {
+                appendPart(sb, slot.part4, first);
+            }
+        } else if (slot.parts != null) {
+            for (Object part : slot.parts) {
+                first = appendPart(sb, part, first);
+            }
+        }
+
+        final String message = sb.toString();
+        if (sb.capacity() > MessageBuffers.getMaxCapacity()) {
+            builder = new StringBuilder(MessageBuffers.INITIAL_CAPACITY);
+        }
+        return message;
+    }
+
+    private static boolean appendPart(StringBuilder sb, Object part, boolean first) {
+        if (!first) {
+            sb.append(": ");
+        }
+        MessageParts.append(sb, part);
+        return false;
+    }
+
+    /**
+     * Stop accepting events, flush the queue and stop the drainer.
+     *
+     * @param timeout The maximum time to wait for the flush.
+     * @return true if every accepted event was emitted.
+     */
+    boolean stop(Duration timeout) {
+        running = false;
+        LockSupport.unpark(drainer);
+
+        try {
+            drainer.join(Math.max(1, timeout.toMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (!drainer.isAlive()) {
+            // The drainer is gone: take over the consumer role for the rest
+            drainAvailable();
+            reportDropped();
+        }
+
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // JVM shutdown in progress, the hook runs anyway
+            }
+        }
+
+        return !drainer.isAlive() && size() == 0;
+    }
+}
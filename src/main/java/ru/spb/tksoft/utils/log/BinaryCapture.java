@@ -0,0 +1,495 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+/**
+ * Deferred-formatting front-end: producers write a site id and the raw arguments into a
+ * preallocated direct {@link ByteBuffer} in {@link BinaryLogFormat}; one background thread decodes
+ * the records, joins them into the 'a: b: c' message and hands it to SLF4J.
+ *
+ * The buffer is a multi-producer single-consumer byte ring. A producer reserves the record space
+ * with a CAS on the tail position, writes the record and commits it by storing the record length
+ * with release semantics. A record that does not fit before the end of the buffer is placed at the
+ * start, the rest of the buffer is marked as padding. The drainer consumes records in position
+ * order and zeroes the consumed bytes before giving them back to producers, so a zero length always
+ * means an uncommitted record.
+ *
+ * Unlike {@link AsyncDispatcher} the arguments are copied, not referenced: numbers are stored as
+ * raw primitives, strings as their characters, other objects as their string form taken at the
+ * call.
+ * The site id stands for the logger and level of the call; the call site itself is not captured,
+ * since a stack walk costs more than the formatting it would defer.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+final class BinaryCapture {
+
+    /** Minimum buffer size in bytes. */
+    static final int MIN_CAPACITY = 4096;
+
+    private static final VarHandle INT =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    /** Longest drainer sleep when idle; producers wake it up earlier. */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /** Producer wait while the buffer is full. */
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /** reserve() result: the capture is stopped. */
+    private static final long STOPPED = -1;
+
+    /** reserve() result: the record was dropped by the overflow policy. */
+    private static final long DROPPED = -2;
+
+    /** Logger and level of a site id. */
+    private record Site(Logger logger, Level level) {
+    }
+
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final int mask;
+
+    /** Largest record accepted; larger messages are logged synchronously. */
+    private final int maxRecord;
+
+    /** Next byte position to reserve by producers. */
+    private final AtomicLong tail = new AtomicLong();
+
+    /** Next byte position to consume. Written by the drainer only. */
+    private volatile long head;
+
+    private volatile boolean running = true;
+
+    /** Set by the drainer before parking, so producers know to unpark it. */
+    private volatile boolean sleeping;
+
+    private final Thread drainer;
+
+    private final Thread shutdownHook;
+
+    /** Site ids per logger, indexed by level ordinal; 0 means not assigned yet. */
+    private final Map<Logger, AtomicIntegerArray> siteIds = new ConcurrentHashMap<>();
+
+    /** Sites indexed by id, copied on write. */
+    private volatile Site[] sites = new Site[1];
+
+    /** Drainer's own message buffer. */
+    private StringBuilder builder = new StringBuilder(MessageBuffers.INITIAL_CAPACITY);
+
+    private volatile OverflowPolicy overflowPolicy;
+
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Constructor. Starts the drainer thread and registers the shutdown hook.
+     *
+     * @param capacity The buffer size in bytes; rounded up to a power of two, at least
+     *        {@link #MIN_CAPACITY}.
+     * @param overflowPolicy What to do with records when the buffer is full.
+     * @param shutdownTimeout The maximum time to flush the buffer on JVM shutdown.
+     */
+    BinaryCapture(int capacity, OverflowPolicy overflowPolicy, Duration shutdownTimeout) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capture capacity must be positive: " + capacity);
+        }
+        setOverflowPolicy(overflowPolicy);
+
+        final int size =
+                Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1);
+        this.buffer = ByteBuffer.allocateDirect(size);
+        this.capacity = size;
+        this.mask = size - 1;
+        this.maxRecord = size / 4;
+
+        this.drainer = new Thread(this::drainLoop, "tk-log-utils-capture");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+
+        this.shutdownHook =
+                new Thread(() -> stop(shutdownTimeout), "tk-log-utils-capture-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * @return The buffer size in bytes.
+     */
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return The number of bytes reserved and not yet consumed.
+     */
+    int size() {
+        return (int) (tail.get() - head);
+    }
+
+    /**
+     * @param policy What to do with records when the buffer is full.
+     */
+    void setOverflowPolicy(OverflowPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Overflow policy must not be null");
+        }
+        this.overflowPolicy = policy;
+    }
+
+    /**
+     * @return The number of records dropped since start.
+     */
+    long droppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Get the site id of the logger and level, assigning a new one on first use.
+     */
+    private int siteId(Logger logger, Level level) {
+        final AtomicIntegerArray ids = siteIds.computeIfAbsent(logger,
+                k -> new AtomicIntegerArray(Level.values().length));
+        final int id = ids.get(level.ordinal());
+        if (id != 0) {
+            return id;
+        }
+        synchronized (siteIds) {
+            if (ids.get(level.ordinal()) == 0) {
+                // Publish the site before its id, so whoever sees the id sees the site
+                final Site[] current = sites;
+                final Site[] next = Arrays.copyOf(current, current.length + 1);
+                next[current.length] = new Site(logger, level);
+                sites = next;
+                ids.set(level.ordinal(), current.length);
+            }
+            return ids.get(level.ordinal());
+        }
+    }
+
+    /**
+     * Reserve the record space, applying the overflow policy while the buffer is full.
+     *
+     * @param size The aligned record size.
+     * @param level The record level.
+     * @return The record position, {@link #STOPPED} or {@link #DROPPED}.
+     */
+    private long reserve(int size, Level level) {
+        if (Thread.currentThread() == drainer) {
+            // Logging from a part or the backend while draining: waiting for space on the drainer
+            // would wait for itself, so the caller logs synchronously
+            return STOPPED;
+        }
+        long waitNanos = -1;
+        long deadline = 0;
+        while (true) {
+            if (!running) {
+                return STOPPED;
+            }
+            final long position = tail.get();
+            final int offset = (int) position & mask;
+            final int toEnd = capacity - offset;
+            final int total = size <= toEnd ? size : toEnd + size;
+            if (position + total - head > capacity) {
+                if (waitNanos < 0) {
+                    waitNanos = overflowPolicy.onOverflow(level);
+                    deadline = System.nanoTime() + waitNanos;
+                }
+                if (waitNanos != OverflowPolicy.WAIT_FOREVER
+                        && deadline - System.nanoTime() <= 0) {
+                    dropped.increment();
+                    return DROPPED;
+                }
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            } else if (tail.compareAndSet(position, position + total)) {
+                final long start;
+                if (size > toEnd) {
+                    INT.setRelease(buffer, offset, -toEnd);
+                    start = position + toEnd;
+                } else {
+                    start = position;
+                }
+                if (!running) {
+                    // Stop began after the check: commit the space as padding, so the final
+                    // drain does not wait for it, and let the caller log synchronously
+                    commit((int) start & mask, -size);
+                    return STOPPED;
+                }
+                return start;
+            }
+        }
+    }
+
+    /**
+     * Commit the written record, or padding if the length is negative, and wake up the drainer if
+     * it sleeps.
+     */
+    private void commit(int offset, int size) {
+        INT.setRelease(buffer, offset, size);
+        if (sleeping) {
+            LockSupport.unpark(drainer);
+        }
+    }
+
+    /**
+     * Capture a preformatted message.
+     *
+     * @return false if the caller must log synchronously (capture stopped or message too long);
+     *         true if the record was captured or dropped.
+     */
+    boolean publish(Logger logger, Level level, String message) {
+        final int size = BinaryLogFormat.HEADER_SIZE + BinaryLogFormat.sizeOf(message);
+        if (size > maxRecord) {
+            return false;
+        }
+        final int aligned = BinaryLogFormat.align(size);
+        final long position = reserve(aligned, level);
+        if (position < 0) {
+            return position == DROPPED;
+        }
+        final int offset = (int) position & mask;
+        final int index = BinaryLogFormat.putHeader(buffer, offset, siteId(logger, level), 1);
+        BinaryLogFormat.put(buffer, index, message);
+        commit(offset, aligned);
+        return true;
+    }
+
+    /**
+     * Capture an optional head and the parts array.
+     *
+     * @return false if the caller must log synchronously (capture stopped, too many parts or
+     *         message too long); true if the record was captured or dropped.
+     */
+    boolean publish(Logger logger, Level level, String head, Object[] parts) {
+        final int argCount = parts.length + (head != null ? 1 : 0);
+        if (argCount > BinaryLogFormat.MAX_ARGUMENTS) {
+            return false;
+        }
+
+        Object[] values = parts;
+        int size = BinaryLogFormat.HEADER_SIZE;
+        if (head != null) {
+            size += BinaryLogFormat.sizeOf(head);
+        }
+        for (int i = 0; i < parts.length; i++) {
+            final Object value = BinaryLogFormat.normalize(parts[i]);
+            if (value != parts[i]) {
+                // Take the string form once; the caller's array is left as is
+                if (values == parts) {
+                    values = parts.clone();
+                }
+                values[i] = value;
+            }
+            size += BinaryLogFormat.sizeOf(value);
+        }
+        if (size > maxRecord) {
+            return false;
+        }
+
+        final int aligned = BinaryLogFormat.align(size);
+        final long position = reserve(aligned, level);
+        if (position < 0) {
+            return position == DROPPED;
+        }
+        final int offset = (int) position & mask;
+        int index = BinaryLogFormat.putHeader(buffer, offset, siteId(logger, level), argCount);
+        if (head != null) {
+            index = BinaryLogFormat.put(buffer, index, head);
+        }
+        for (Object value : values) {
+            index = BinaryLogFormat.put(buffer, index, value);
+        }
+        commit(offset, aligned);
+        return true;
+    }
+
+    /**
+     * Capture up to four parts without an array.
+     *
+     * @return false if the caller must log synchronously (capture stopped or message too long);
+     *         true if the record was captured or dropped.
+     */
+    boolean publish(Logger logger, Level level, int count,
+            Object part1, Object part2, Object part3, Object part4) {
+        final Object value1 = BinaryLogFormat.normalize(part1);
+        final Object value2 = count > 1 ? BinaryLogFormat.normalize(part2) : null;
+        final Object value3 = count > 2 ? BinaryLogFormat.normalize(part3) : null;
+        final Object value4 = count > 3 ? BinaryLogFormat.normalize(part4) : null;
+
+        int size = BinaryLogFormat.HEADER_SIZE + BinaryLogFormat.sizeOf(value1);
+        if (count > 1) {
+            size += BinaryLogFormat.sizeOf(value2);
+        }
+        if (count > 2) {
+            size += BinaryLogFormat.sizeOf(value3);
+        }
+        if (count > 3) {
+            size += BinaryLogFormat.sizeOf(value4);
+        }
+        if (size > maxRecord) {
+            return false;
+        }
+
+        final int aligned = BinaryLogFormat.align(size);
+        final long position = reserve(aligned, level);
+        if (position < 0) {
+            return position == DROPPED;
+        }
+        final int offset = (int) position & mask;
+        int index = BinaryLogFormat.putHeader(buffer, offset, siteId(logger, level), count);
+        index = BinaryLogFormat.put(buffer, index, value1);
+        if (count > 1) {
+            index = BinaryLogFormat.put(buffer, index, value2);
+        }
+        if (count > 2) {
+            index = BinaryLogFormat.put(buffer, index, value3);
+        }
+        if (count > 3) {
+            BinaryLogFormat.put(buffer, index, value4);
+        }
+        commit(offset, aligned);
+        return true;
+    }
+
+    /**
+     * Drainer thread body.
+     */
+    private void drainLoop() {
+        while (running) {
+            if (drainAvailable() == 0) {
+                sleeping = true;
+                if (running && !hasCommitted()) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                sleeping = false;
+            }
+        }
+        // Flush what was accepted before the stop, including records reserved but not yet
+        // committed: a producer that reserves after this point sees the stop and commits padding
+        while (head != tail.get()) {
+            if (drainAvailable() == 0) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * @return true if the next record is committed.
+     */
+    private boolean hasCommitted() {
+        return (int) INT.getAcquire(buffer, (int) head & mask) != 0;
+    }
+
+    /**
+     * Emit all committed records. Called by the single consumer only.
+     *
+     * @return The number of emitted records.
+     */
+    private int drainAvailable() {
+        int drained = 0;
+        long position = head;
+        while (true) {
+            final int offset = (int) position & mask;
+            final int length = (int) INT.getAcquire(buffer, offset);
+            if (length == 0) {
+                break;
+            }
+            if (length > 0) {
+                emit(offset);
+                drained++;
+            }
+            final int size = Math.abs(length);
+            zero(offset, size);
+            position += size;
+            head = position;
+        }
+        return drained;
+    }
+
+    /**
+     * Clear the consumed bytes, so stale data never looks like a committed record.
+     */
+    private void zero(int offset, int size) {
+        for (int i = 0; i < size; i += BinaryLogFormat.ALIGNMENT) {
+            buffer.putLong(offset + i, 0L);
+        }
+    }
+
+    /**
+     * Decode and emit the record. Backend failures must not kill the drainer, they are counted as
+     * internal errors.
+     */
+    private void emit(int offset) {
+        try {
+            final Site site = sites[BinaryLogFormat.siteId(buffer, offset)];
+            final StringBuilder sb = builder;
+            sb.setLength(0);
+            BinaryLogFormat.appendMessage(buffer, offset, sb);
+            final String message = sb.toString();
+            if (sb.capacity() > MessageBuffers.getMaxCapacity()) {
+                builder = new StringBuilder(MessageBuffers.INITIAL_CAPACITY);
+            }
+            LogEx.emit(site.logger(), site.level(), message);
+        } catch (RuntimeException e) {
+            LogMetrics.internalError("captured event dropped", e);
+        }
+    }
+
+    /**
+     * Stop accepting records, flush the buffer and stop the drainer.
+     *
+     * @param timeout The maximum time to wait for the flush.
+     * @return true if every accepted record was emitted.
+     */
+    boolean stop(Duration timeout) {
+        running = false;
+        LockSupport.unpark(drainer);
+
+        try {
+            drainer.join(Math.max(1, timeout.toMillis()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (!drainer.isAlive()) {
+            // The drainer is gone: take over the consumer role for the rest
+            drainAvailable();
+        }
+
+        if (Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // JVM shutdown in progress, the hook runs anyway
+            }
+        }
+
+        return !drainer.isAlive() && size() == 0;
+    }
+}
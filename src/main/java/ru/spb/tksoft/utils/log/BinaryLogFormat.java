@@ -0,0 +1,314 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary record format of the capture mode (see {@link LogEx#startCapture(int)}) and its decoder.
+ *
+ * All values are big-endian. Records start at 8-byte aligned offsets and are padded to a multiple
+ * of 8 bytes:
+ *
+ * <pre>
+ * record   := length:int32 siteId:int32 argCount:uint8 argument* padding
+ * length   := total record size in bytes including padding; 0 marks an uncommitted record,
+ *             a negative value marks -length bytes of padding up to the end of the buffer
+ * siteId   := id of the logger and level the record belongs to
+ * argument := tag:uint8 payload
+ *
+ * tag  payload
+ *  0   none                  null
+ *  1   int32                 Integer, Short, Byte
+ *  2   int64                 Long
+ *  3   float32               Float
+ *  4   float64               Double
+ *  5   uint8 (0 or 1)        Boolean
+ *  6   uint16                Character
+ *  7   length:int32 char*    String, UTF-16 code units; any other object is captured as
+ *                            rendered by LogEx
+ * </pre>
+ *
+ * Decoding joins the arguments with ': ' exactly like {@link LogEx#log(org.slf4j.Logger,
+ * org.slf4j.event.Level, Object[])}.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public final class BinaryLogFormat {
+
+    /** Record header size: length, site id and argument count. */
+    public static final int HEADER_SIZE = 9;
+
+    /** Record alignment. */
+    public static final int ALIGNMENT = 8;
+
+    /** Maximum number of arguments in a record. */
+    public static final int MAX_ARGUMENTS = 255;
+
+    static final byte TAG_NULL = 0;
+    static final byte TAG_INT = 1;
+    static final byte TAG_LONG = 2;
+    static final byte TAG_FLOAT = 3;
+    static final byte TAG_DOUBLE = 4;
+    static final byte TAG_BOOLEAN = 5;
+    static final byte TAG_CHAR = 6;
+    static final byte TAG_STRING = 7;
+
+    private BinaryLogFormat() {}
+
+    /**
+     * Round the size up to the record alignment.
+     *
+     * @param size The size in bytes.
+     * @return The aligned size.
+     */
+    static int align(int size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    /**
+     * Convert the part to a value that can be written: primitives wrappers, strings and null are
+     * kept as is, anything else is turned into its string form right away.
+     *
+     * @param part The message part.
+     * @return The part to write.
+     */
+    static Object normalize(Object part) {
+        if (part == null || part instanceof String || part instanceof Integer
+                || part instanceof Long || part instanceof Double || part instanceof Boolean
+                || part instanceof Character || part instanceof Float || part instanceof Short
+                || part instanceof Byte) {
+            return part;
+        }
+        return MessageParts.toString(part);
+    }
+
+    /**
+     * Get the encoded size of a normalized part.
+     *
+     * @param part The normalized part.
+     * @return The size in bytes including the tag.
+     */
+    static int sizeOf(Object part) {
+        if (part == null) {
+            return 1;
+        }
+        if (part instanceof String string) {
+            return 1 + 4 + 2 * string.length();
+        }
+        if (part instanceof Long || part instanceof Double) {
+            return 1 + 8;
+        }
+        if (part instanceof Boolean) {
+            return 1 + 1;
+        }
+        if (part instanceof Character) {
+            return 1 + 2;
+        }
+        return 1 + 4;
+    }
+
+    /**
+     * Write the record header except the length, which is written last to commit the record.
+     *
+     * @param buffer The buffer.
+     * @param offset The record offset.
+     * @param siteId The site id.
+     * @param argCount The number of arguments.
+     * @return The offset of the first argument.
+     */
+    static int putHeader(ByteBuffer buffer, int offset, int siteId, int argCount) {
+        buffer.putInt(offset + 4, siteId);
+        buffer.put(offset + 8, (byte) argCount);
+        return offset + HEADER_SIZE;
+    }
+
+    /**
+     * Write a normalized part.
+     *
+     * @param buffer The buffer.
+     * @param index The write offset.
+     * @param part The normalized part.
+     * @return The offset after the part.
+     */
+    static int put(ByteBuffer buffer, int index, Object part) {
+        if (part == null) {
+            buffer.put(index, TAG_NULL);
+            return index + 1;
+        }
+        if (part instanceof String string) {
+            final int length = string.length();
+            buffer.put(index, TAG_STRING);
+            buffer.putInt(index + 1, length);
+            int at = index + 5;
+            for (int i = 0; i < length; i++) {
+                buffer.putChar(at, string.charAt(i));
+                at += 2;
+            }
+            return at;
+        }
+        if (part instanceof Long value) {
+            buffer.put(index, TAG_LONG);
+            buffer.putLong(index + 1, value);
+            return index + 9;
+        }
+        if (part instanceof Double value) {
+            buffer.put(index, TAG_DOUBLE);
+            buffer.putDouble(index + 1, value);
+            return index + 9;
+        }
+        if (part instanceof Float value) {
+            buffer.put(index, TAG_FLOAT);
+            buffer.putFloat(index + 1, value);
+            return index + 5;
+        }
+        if (part instanceof Boolean value) {
+            buffer.put(index, TAG_BOOLEAN);
+            buffer.put(index + 1, (byte) (value ? 1 : 0));
+            return index + 2;
+        }
+        if (part instanceof Character value) {
+            buffer.put(index, TAG_CHAR);
+            buffer.putChar(index + 1, value);
+            return index + 3;
+        }
+        buffer.put(index, TAG_INT);
+        buffer.putInt(index + 1, ((Number) part).intValue());
+        return index + 5;
+    }
+
+    /**
+     * Get the record length.
+     *
+     * @param buffer The buffer.
+     * @param offset The record offset.
+     * @return The record length, 0 if the record is not committed, negative for padding.
+     */
+    public static int recordLength(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset);
+    }
+
+    /**
+     * Get the site id of the record.
+     *
+     * @param buffer The buffer.
+     * @param offset The record offset.
+     * @return The site id.
+     */
+    public static int siteId(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset + 4);
+    }
+
+    /**
+     * Append the record message, the arguments joined with ': '.
+     *
+     * @param buffer The buffer.
+     * @param offset The record offset.
+     * @param out The message buffer.
+     */
+    public static void appendMessage(ByteBuffer buffer, int offset, StringBuilder out) {
+        final int argCount = buffer.get(offset + 8) & 0xFF;
+        int index = offset + HEADER_SIZE;
+        for (int i = 0; i < argCount; i++) {
+            if (i > 0) {
+                out.append(": ");
+            }
+            index = appendArgument(buffer, index, out);
+        }
+    }
+
+    private static int appendArgument(ByteBuffer buffer, int index, StringBuilder out) {
+        final byte tag = buffer.get(index);
+        switch (tag) {
+            case TAG_NULL -> {
+                out.append("null");
+                return index + 1;
+            }
+            case TAG_INT -> {
+                out.append(buffer.getInt(index + 1));
+                return index + 5;
+            }
+            case TAG_LONG -> {
+                out.append(buffer.getLong(index + 1));
+                return index + 9;
+            }
+            case TAG_FLOAT -> {
+                out.append(buffer.getFloat(index + 1));
+                return index + 5;
+            }
+            case TAG_DOUBLE -> {
+                out.append(buffer.getDouble(index + 1));
+                return index + 9;
+            }
+            case TAG_BOOLEAN -> {
+                out.append(buffer.get(index + 1) != 0);
+                return index + 2;
+            }
+            case TAG_CHAR -> {
+                out.append(buffer.getChar(index + 1));
+                return index + 3;
+            }
+            case TAG_STRING -> {
+                final int length = buffer.getInt(index + 1);
+                int at = index + 5;
+                for (int i = 0; i < length; i++) {
+                    out.append(buffer.getChar(at));
+                    at += 2;
+                }
+                return at;
+            }
+            default -> throw new IllegalArgumentException(
+                    "Unknown argument tag " + tag + " at offset " + index);
+        }
+    }
+
+    /**
+     * Decode the record message.
+     *
+     * @param buffer The buffer.
+     * @param offset The record offset.
+     * @return The message.
+     */
+    public static String decodeMessage(ByteBuffer buffer, int offset) {
+        final StringBuilder out = new StringBuilder();
+        appendMessage(buffer, offset, out);
+        return out.toString();
+    }
+
+    /**
+     * Decode the committed records between the buffer position and limit, skipping padding and
+     * stopping at the first uncommitted record.
+     *
+     * @param buffer The buffer with consecutive records.
+     * @return The messages in record order.
+     */
+    public static List<String> decodeAll(ByteBuffer buffer) {
+        final List<String> messages = new ArrayList<>();
+        int offset = buffer.position();
+        while (offset + HEADER_SIZE <= buffer.limit()) {
+            final int length = recordLength(buffer, offset);
+            if (length == 0) {
+                break;
+            }
+            if (length > 0) {
+                messages.add(decodeMessage(buffer, offset));
+            }
+            offset += Math.abs(length);
+        }
+        return messages;
+    }
+}
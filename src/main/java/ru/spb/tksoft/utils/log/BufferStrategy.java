@@ -0,0 +1,38 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+/**
+ * Where LogEx takes message buffers from.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public enum BufferStrategy {
+
+    /**
+     * One buffer per thread. Fastest for a bounded set of platform threads; with virtual threads
+     * every thread retains its own buffer until {@link LogEx#cleanupThreadLocal()}.
+     */
+    THREAD_LOCAL,
+
+    /**
+     * Buffers are borrowed from a small lock-free pool sized by the number of processors. Nothing is
+     * retained per thread, so it is safe with any number of virtual threads.
+     */
+    POOLED,
+
+    /** Thread-local buffers for platform threads, pooled buffers for virtual threads. */
+    ADAPTIVE
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.lang.StackWalker.StackFrame;
+
+/**
+ * Resolved call site: the calling class, method and source line.
+ *
+ * @param className The fully qualified class name.
+ * @param methodName The method name.
+ * @param lineNumber The source line number or a negative value if unknown.
+ * @param qualifiedName The class-qualified method name for display, i.e. 'MyService#myMethod'.
+ * @param fullName The fully qualified method name, i.e. 'com.example.MyService#myMethod'; unique
+ *        for classes with the same simple name in different packages.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+record CallSite(String className, String methodName, int lineNumber, String qualifiedName,
+        String fullName) {
+
+    /**
+     * Compact call site key. Built from the values the stack frame already holds, so the lookup
+     * does not resolve line numbers or concatenate strings.
+     *
+     * @param className The fully qualified class name.
+     * @param methodName The method name.
+     * @param descriptor The method descriptor, telling overloads apart.
+     * @param bci The bytecode index of the call.
+     */
+    record Key(String className, String methodName, String descriptor, int bci) {
+
+        /**
+         * Create the key for the stack frame.
+         *
+         * @param frame The stack frame.
+         * @return The key.
+         */
+        static Key of(StackFrame frame) {
+            return new Key(frame.getClassName(), frame.getMethodName(), frame.getDescriptor(),
+                    frame.getByteCodeIndex());
+        }
+    }
+
+    /**
+     * Resolve the call site of the stack frame. Line number resolution is the expensive part, so
+     * the result is meant to be cached.
+     *
+     * @param frame The stack frame.
+     * @return The call site.
+     */
+    static CallSite of(StackFrame frame) {
+        final String className = frame.getClassName();
+        final String methodName = frame.getMethodName();
+        final String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        return new CallSite(className, methodName, frame.getLineNumber(),
+                simpleName + "#" + methodName, className + "#" + methodName);
+    }
+}
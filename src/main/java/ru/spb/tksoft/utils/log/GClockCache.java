@@ -0,0 +1,239 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded cache with GCLOCK eviction.
+ *
+ * Lookups are lock-free: a hit only bumps a small saturating use counter of the entry. Inserts are
+ * rare (once per call site) and take a lock. When the cache is full, the clock hand sweeps the
+ * entries, decrementing use counters, and evicts the first entry whose counter is zero - so entries
+ * that are used often or recently survive, and one-off call sites (generated proxies, lambdas) are
+ * evicted first.
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+class GClockCache<K, V> {
+
+    /** Use counter saturation value. */
+    private static final int MAX_USE_COUNT = 3;
+
+    /** Initial capacity of the clock ring. */
+    private static final int INITIAL_RING_CAPACITY = 64;
+
+    /** Cache entry. */
+    private static final class Entry<V> {
+
+        final V value;
+
+        /** Racy use counter; lost updates only make eviction slightly less precise. */
+        volatile int useCount;
+
+        Entry(V value) {
+            this.value = value;
+        }
+    }
+
+    private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final Object lock = new Object();
+
+    /** Called outside the lock with every evicted value, may be null. */
+    private final Consumer<V> onEvict;
+
+    /** Keys in clock order. Guarded by lock. */
+    private Object[] ring = new Object[INITIAL_RING_CAPACITY];
+
+    /** Number of used ring slots. Guarded by lock. */
+    private int ringSize;
+
+    /** Clock hand position. Guarded by lock. */
+    private int hand;
+
+    private volatile int maxSize;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize The maximum number of entries, 0 disables caching.
+     * @param onEvict Called with every evicted value outside the cache lock, may be null.
+     */
+    GClockCache(int maxSize, Consumer<V> onEvict) {
+        this.maxSize = checkMaxSize(maxSize);
+        this.onEvict = onEvict;
+    }
+
+    private static int checkMaxSize(int maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Cache max size must not be negative: " + maxSize);
+        }
+        return maxSize;
+    }
+
+    /**
+     * Look up the value.
+     *
+     * @param key The key.
+     * @return The cached value or null.
+     */
+    V get(K key) {
+        final Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        // Read before write: hot entries stay at the maximum without dirtying the cache line
+        final int useCount = entry.useCount;
+        if (useCount < MAX_USE_COUNT) {
+            entry.useCount = useCount + 1;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Put the value unless the key is already present, evicting an entry if the cache is full.
+     *
+     * @param key The key.
+     * @param value The value.
+     * @return The value now associated with the key.
+     */
+    V putIfAbsent(K key, V value) {
+        final V evicted;
+        synchronized (lock) {
+            final int max = maxSize;
+            if (max == 0) {
+                return value;
+            }
+
+            final Entry<V> existing = entries.get(key);
+            if (existing != null) {
+                return existing.value;
+            }
+
+            final int slot;
+            if (ringSize < max) {
+                if (ringSize == ring.length) {
+                    ring = Arrays.copyOf(ring, Math.min(max, ring.length * 2));
+                }
+                slot = ringSize++;
+                evicted = null;
+            } else {
+                slot = evictSlot();
+                evicted = entries.remove(ring[slot]).value;
+                evictions.increment();
+            }
+
+            ring[slot] = key;
+            entries.put(key, new Entry<>(value));
+        }
+
+        if (evicted != null && onEvict != null) {
+            onEvict.accept(evicted);
+        }
+        return value;
+    }
+
+    /**
+     * Sweep the clock hand until an entry with zero use count is found. Called under lock with a
+     * full ring; terminates within {@code MAX_USE_COUNT + 1} sweeps.
+     *
+     * @return The slot of the entry to evict.
+     */
+    private int evictSlot() {
+        while (true) {
+            final int slot = hand;
+            hand = (hand + 1) % ringSize;
+
+            final Entry<V> entry = entries.get(ring[slot]);
+            final int useCount = entry.useCount;
+            if (useCount > 0) {
+                entry.useCount = useCount - 1;
+            } else {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Call the action for every cached value. Does not affect the use counters.
+     *
+     * @param action The action.
+     */
+    void forEach(Consumer<V> action) {
+        for (Entry<V> entry : entries.values()) {
+            action.accept(entry.value);
+        }
+    }
+
+    /**
+     * Remove all entries. Counters are kept.
+     */
+    void clear() {
+        synchronized (lock) {
+            entries.clear();
+            ring = new Object[INITIAL_RING_CAPACITY];
+            ringSize = 0;
+            hand = 0;
+        }
+    }
+
+    /**
+     * Change the maximum number of entries. The cache is cleared.
+     *
+     * @param maxSize The maximum number of entries, 0 disables caching.
+     */
+    void setMaxSize(int maxSize) {
+        synchronized (lock) {
+            this.maxSize = checkMaxSize(maxSize);
+            clear();
+        }
+    }
+
+    /**
+     * @return The maximum number of entries.
+     */
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return The number of entries.
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The statistics snapshot.
+     */
+    MethodCacheStats stats() {
+        return new MethodCacheStats(hits.sum(), misses.sum(), evictions.sum(), size(), maxSize);
+    }
+}
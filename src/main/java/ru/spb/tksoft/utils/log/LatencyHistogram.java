@@ -0,0 +1,206 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear latency histogram of a call site.
+ *
+ * Values below {@link #SUB_BUCKETS} get exact buckets; above, every power of two is split into
+ * {@link #SUB_BUCKETS} linear buckets, so a bucket is never wider than 1/8 of its lower bound. The
+ * bucket array is fixed, recording is a single atomic increment plus striped sum and count.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+final class LatencyHistogram implements LatencyMXBean {
+
+    /** Linear buckets per power of two, as a number of bits. */
+    private static final int SUB_BITS = 3;
+
+    /** Linear buckets per power of two. */
+    static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /** Buckets for all non-negative long values. */
+    static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BITS) * SUB_BUCKETS;
+
+    private final String callSite;
+
+    private final String displayName;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /** Time of the last summary line. */
+    private final AtomicLong lastSummaryNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param callSite The fully qualified call site name.
+     * @param displayName The short call site name for summary lines.
+     * @param now The current {@link System#nanoTime()}.
+     */
+    LatencyHistogram(String callSite, String displayName, long now) {
+        this.callSite = callSite;
+        this.displayName = displayName;
+        this.lastSummaryNanos = new AtomicLong(now);
+    }
+
+    /**
+     * Get the bucket of the value.
+     *
+     * @param value The non-negative value.
+     * @return The bucket index.
+     */
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(value, 0);
+        }
+        final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        final int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + shift * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Get the largest value of the bucket.
+     *
+     * @param bucket The bucket index.
+     * @return The upper bound, inclusive.
+     */
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        final int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        final long sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        final long lower = (SUB_BUCKETS + sub) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    /**
+     * Record the value.
+     *
+     * @param nanos The latency in nanoseconds.
+     */
+    void record(long nanos) {
+        final long value = Math.max(nanos, 0);
+        buckets.getAndIncrement(bucket(value));
+        count.increment();
+        sum.add(value);
+
+        long current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Get the value at the percentile, reported as the upper bound of its bucket capped by the
+     * maximum.
+     *
+     * @param percentile The percentile, 0 to 100.
+     * @return The value or 0 if nothing was recorded.
+     */
+    long percentile(double percentile) {
+        long total = 0;
+        final long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Claim the periodic summary: only one caller per interval gets true.
+     *
+     * @param now The current {@link System#nanoTime()}.
+     * @param intervalNanos The summary interval.
+     * @return true if the caller must emit the summary.
+     */
+    boolean claimSummary(long now, long intervalNanos) {
+        final long last = lastSummaryNanos.get();
+        return now - last >= intervalNanos && lastSummaryNanos.compareAndSet(last, now);
+    }
+
+    /**
+     * Build the summary line.
+     *
+     * @return The summary.
+     */
+    String summary() {
+        return displayName + ": latency: count=" + getCount() + ", p50=" + getP50() + ", p90="
+                + getP90() + ", p99=" + getP99() + ", p999=" + getP999() + ", max=" + getMax()
+                + " ns";
+    }
+
+    @Override
+    public String getCallSite() {
+        return callSite;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public long getMean() {
+        final long n = count.sum();
+        return n == 0 ? 0 : sum.sum() / n;
+    }
+
+    @Override
+    public long getP50() {
+        return percentile(50);
+    }
+
+    @Override
+    public long getP90() {
+        return percentile(90);
+    }
+
+    @Override
+    public long getP99() {
+        return percentile(99);
+    }
+
+    @Override
+    public long getP999() {
+        return percentile(99.9);
+    }
+
+    @Override
+    public long getMax() {
+        return max.get();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+/**
+ * Latency statistics of one call site timed with {@link LogEx#span(org.slf4j.Logger,
+ * org.slf4j.event.Level)}. Registered in the platform MBean server as
+ * {@code ru.spb.tksoft.utils.log:type=Latency,name="com.example.MyService#myMethod"}.
+ *
+ * Percentiles come from a log-linear histogram and are accurate to 12.5%; values are in
+ * nanoseconds.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public interface LatencyMXBean {
+
+    /**
+     * @return The fully qualified call site, i.e. 'com.example.MyService#myMethod'.
+     */
+    String getCallSite();
+
+    /**
+     * @return The number of recorded sections.
+     */
+    long getCount();
+
+    /**
+     * @return The mean latency.
+     */
+    long getMean();
+
+    /**
+     * @return The median latency.
+     */
+    long getP50();
+
+    /**
+     * @return The 90th percentile latency.
+     */
+    long getP90();
+
+    /**
+     * @return The 99th percentile latency.
+     */
+    long getP99();
+
+    /**
+     * @return The 99.9th percentile latency.
+     */
+    long getP999();
+
+    /**
+     * @return The maximum latency.
+     */
+    long getMax();
+}
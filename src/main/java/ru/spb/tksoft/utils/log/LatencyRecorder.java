@@ -0,0 +1,145 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Latency histograms of the call sites timed with spans, registered as platform MBeans.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+final class LatencyRecorder {
+
+    /** MBean domain and type of the histograms. */
+    static final String OBJECT_NAME_PREFIX = "ru.spb.tksoft.utils.log:type=Latency,name=";
+
+    private static final Map<String, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled;
+
+    /** Summary interval in nanoseconds, 0 to log every span. */
+    private static volatile long summaryIntervalNanos;
+
+    private LatencyRecorder() {}
+
+    /**
+     * @return true if spans record latencies.
+     */
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param enable true to record latencies.
+     */
+    static void setEnabled(boolean enable) {
+        enabled = enable;
+    }
+
+    /**
+     * @return The summary interval in nanoseconds, 0 to log every span.
+     */
+    static long getSummaryIntervalNanos() {
+        return summaryIntervalNanos;
+    }
+
+    /**
+     * @param interval The summary interval or null to log every span.
+     */
+    static void setSummaryInterval(Duration interval) {
+        if (interval != null && (interval.isNegative() || interval.isZero())) {
+            throw new IllegalArgumentException("Invalid latency summary interval: " + interval);
+        }
+        summaryIntervalNanos = interval == null ? 0 : interval.toNanos();
+    }
+
+    /**
+     * Get the histogram of the call site, creating and registering it if absent.
+     *
+     * @param callSite The fully qualified call site name, the key and the MBean name.
+     * @param displayName The short call site name for summary lines.
+     * @return The histogram.
+     */
+    static LatencyHistogram histogram(String callSite, String displayName) {
+        final LatencyHistogram existing = HISTOGRAMS.get(callSite);
+        if (existing != null) {
+            return existing;
+        }
+        final LatencyHistogram created = new LatencyHistogram(callSite, displayName,
+                System.nanoTime());
+        final LatencyHistogram raced = HISTOGRAMS.putIfAbsent(callSite, created);
+        if (raced != null) {
+            return raced;
+        }
+        register(created);
+        return created;
+    }
+
+    /**
+     * Get the histogram of the call site.
+     *
+     * @param callSite The fully qualified call site name.
+     * @return The histogram or null.
+     */
+    static LatencyHistogram find(String callSite) {
+        return HISTOGRAMS.get(callSite);
+    }
+
+    /**
+     * @param callSite The fully qualified call site name.
+     * @return The MBean name of the call site histogram.
+     * @throws JMException if the name is malformed.
+     */
+    static ObjectName objectName(String callSite) throws JMException {
+        return new ObjectName(OBJECT_NAME_PREFIX + ObjectName.quote(callSite));
+    }
+
+    private static void register(LatencyHistogram histogram) {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName name = objectName(histogram.getCallSite());
+            if (!server.isRegistered(name)) {
+                server.registerMBean(histogram, name);
+            }
+        } catch (JMException e) {
+            LogMetrics.internalError("latency MBean not registered", e);
+        }
+    }
+
+    /**
+     * Drop all histograms and unregister their MBeans.
+     */
+    static void clear() {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (String callSite : HISTOGRAMS.keySet()) {
+            HISTOGRAMS.remove(callSite);
+            try {
+                final ObjectName name = objectName(callSite);
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+            } catch (JMException e) {
+                LogMetrics.internalError("latency MBean not unregistered", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+/**
+ * Message part that writes itself into the message buffer instead of building a
+ * {@code toString()} string first. LogEx, LogParts, the async and capture modes and
+ * {@link LogEncoder} detect it in place of {@code String.valueOf()}.
+ *
+ * The budget is the number of chars the part may write, see {@link LogEx#setPartBudget(int)}.
+ * Output over the budget is cut and marked with '...', but the chars are still produced, so large
+ * objects should check the budget themselves.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@FunctionalInterface
+public interface LogAppendable {
+
+    /**
+     * Append the part to the message.
+     *
+     * @param builder The message buffer.
+     * @param budget The maximum number of chars to append.
+     */
+    void appendTo(StringBuilder builder, int budget);
+}
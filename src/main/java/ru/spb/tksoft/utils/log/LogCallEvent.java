@@ -0,0 +1,57 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for a LogEx or LogFx call that passed the level check. The event duration covers
+ * building the message and handing it to SLF4J; LogFx messages are formatted by the backend, so
+ * for LogFx the format duration is 0.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Name(LogCallEvent.NAME)
+@Label("Log Call")
+@Category("tk-log-utils")
+@Description("LogEx/LogFx call with its formatting cost")
+final class LogCallEvent extends jdk.jfr.Event {
+
+    /** Event name. */
+    static final String NAME = "ru.spb.tksoft.utils.log.LogCall";
+
+    @Label("Level")
+    String level;
+
+    @Label("Logger")
+    String logger;
+
+    @Label("Call Site")
+    String callSite;
+
+    @Label("Format Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long formatDuration;
+
+    @Label("Message Length")
+    int messageLength;
+
+    /** Start of formatting, not recorded. */
+    transient long formatStart;
+}
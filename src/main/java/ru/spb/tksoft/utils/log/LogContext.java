@@ -0,0 +1,302 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+import org.slf4j.spi.LoggingEventBuilder;
+
+/**
+ * Scoped logging context, a lightweight alternative to the SLF4J MDC. A context is an immutable
+ * list of key-value pairs kept in two small arrays; adding a pair copies them. The current context
+ * is bound to the thread only while a scope is open:
+ *
+ * <pre>
+ * try (LogContext.Scope scope = LogContext.with("orderId", id)) {
+ *     LogEx.info(log, LogEx.me(), "shipped");    // "ship: shipped orderId=42"
+ * }
+ * LogContext.run("requestId", requestId, () -&gt; handle(request));
+ * </pre>
+ *
+ * The fields are rendered only when an event is actually emitted: LogEx appends them to the
+ * message as ' key=value', structured and {@link LogFx} events pass them to the backend as fluent
+ * key-values, JSON events write them as fields.
+ *
+ * The thread holds a single reference to the immutable snapshot, and closing the outermost scope
+ * removes it, so nothing is copied into new threads and nothing stays behind in pooled or virtual
+ * threads. A context is not inherited: hand it to another thread with {@link #wrap(Runnable)} or
+ * {@link #run(Runnable)} on {@link #current()}.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public final class LogContext {
+
+    /** The context without fields. */
+    public static final LogContext EMPTY = new LogContext(new String[0], new Object[0]);
+
+    /** The current context of the thread; absent when it is empty. */
+    private static final ThreadLocal<LogContext> CURRENT = new ThreadLocal<>();
+
+    private final String[] keys;
+    private final Object[] values;
+
+    private LogContext(String[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Get the context of the current thread.
+     *
+     * @return The current context, {@link #EMPTY} outside of any scope.
+     */
+    public static LogContext current() {
+        final LogContext context = CURRENT.get();
+        return context != null ? context : EMPTY;
+    }
+
+    /**
+     * Open a scope with the current context plus the pair.
+     *
+     * @param key The key.
+     * @param value The value.
+     * @return The scope to close.
+     */
+    public static Scope with(String key, Object value) {
+        return current().and(key, value).open();
+    }
+
+    /**
+     * Run the action with the current context plus the pair.
+     *
+     * @param key The key.
+     * @param value The value.
+     * @param action The action.
+     */
+    public static void run(String key, Object value, Runnable action) {
+        current().and(key, value).run(action);
+    }
+
+    /**
+     * Call the action with the current context plus the pair.
+     *
+     * @param <T> The result type.
+     * @param key The key.
+     * @param value The value.
+     * @param action The action.
+     * @return The action result.
+     */
+    public static <T> T call(String key, Object value, Supplier<T> action) {
+        return current().and(key, value).call(action);
+    }
+
+    /**
+     * Get the context with the pair added, or replaced if the key is already present. This
+     * context is not changed.
+     *
+     * @param key The key.
+     * @param value The value.
+     * @return The new context.
+     */
+    public LogContext and(String key, Object value) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].equals(key)) {
+                final Object[] replaced = values.clone();
+                replaced[i] = value;
+                return new LogContext(keys, replaced);
+            }
+        }
+        final String[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+        final Object[] newValues = Arrays.copyOf(values, values.length + 1);
+        newKeys[keys.length] = key;
+        newValues[values.length] = value;
+        return new LogContext(newKeys, newValues);
+    }
+
+    /**
+     * Make this context current until the scope is closed.
+     *
+     * @return The scope to close.
+     */
+    public Scope open() {
+        final LogContext previous = CURRENT.get();
+        set(this);
+        return new Scope(previous);
+    }
+
+    /**
+     * Run the action with this context current.
+     *
+     * @param action The action.
+     */
+    public void run(Runnable action) {
+        final Scope scope = open();
+        try {
+            action.run();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Call the action with this context current.
+     *
+     * @param <T> The result type.
+     * @param action The action.
+     * @return The action result.
+     */
+    public <T> T call(Supplier<T> action) {
+        final Scope scope = open();
+        try {
+            return action.get();
+        } finally {
+            scope.close();
+        }
+    }
+
+    /**
+     * Wrap the action to run with this context, for handing the context to another thread.
+     *
+     * @param action The action.
+     * @return The wrapped action.
+     */
+    public Runnable wrap(Runnable action) {
+        return () -> run(action);
+    }
+
+    /**
+     * @return true if the context has no fields.
+     */
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    /**
+     * @return The number of fields.
+     */
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * @param index The field index.
+     * @return The key.
+     */
+    public String key(int index) {
+        return keys[index];
+    }
+
+    /**
+     * @param index The field index.
+     * @return The value.
+     */
+    public Object value(int index) {
+        return values[index];
+    }
+
+    /**
+     * Append the fields as ' key=value'.
+     *
+     * @param builder The message buffer.
+     * @return The message buffer.
+     */
+    StringBuilder appendTo(StringBuilder builder) {
+        for (int i = 0; i < keys.length; i++) {
+            if (!builder.isEmpty()) {
+                builder.append(' ');
+            }
+            MessageParts.append(builder.append(keys[i]).append('='), values[i]);
+        }
+        return builder;
+    }
+
+    /**
+     * Append the fields to the message.
+     *
+     * @param message The message.
+     * @return The message with the fields, the same message if the context is empty.
+     */
+    String decorate(String message) {
+        if (keys.length == 0) {
+            return message;
+        }
+        final StringBuilder builder = MessageBuffers.acquire();
+        try {
+            return appendTo(builder.append(message)).toString();
+        } finally {
+            MessageBuffers.release(builder);
+        }
+    }
+
+    /**
+     * Pass the fields to the event as key-values.
+     *
+     * @param builder The event builder.
+     * @return The event builder.
+     */
+    LoggingEventBuilder addTo(LoggingEventBuilder builder) {
+        for (int i = 0; i < keys.length; i++) {
+            builder.addKeyValue(keys[i], values[i]);
+        }
+        return builder;
+    }
+
+    /**
+     * Write the fields.
+     *
+     * @param json The JSON writer with an open object.
+     * @return The JSON writer.
+     */
+    LogJson addTo(LogJson json) {
+        for (int i = 0; i < keys.length; i++) {
+            json.field(keys[i], values[i]);
+        }
+        return json;
+    }
+
+    private static void set(LogContext context) {
+        if (context == null || context.isEmpty()) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(context);
+        }
+    }
+
+    /**
+     * Open scope of a context. Closing it restores the context that was current when the scope
+     * was opened; closing it again does nothing.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final LogContext previous;
+
+        private boolean closed;
+
+        private Scope(LogContext previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                set(previous);
+            }
+        }
+    }
+}
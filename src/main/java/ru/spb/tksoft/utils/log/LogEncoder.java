@@ -0,0 +1,197 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
+/**
+ * UTF-8 encoder of message parts for byte-oriented appenders and sinks. Parts are joined with
+ * ': ' like in {@link LogEx#log(org.slf4j.Logger, org.slf4j.event.Level, Object[])}, but written
+ * straight into a byte array or {@link ByteBuffer} without building the message {@code String}
+ * first.
+ *
+ * Strings are copied in bulk while they are ASCII; {@code Integer}, {@code Long}, {@code Short} and
+ * {@code Byte} parts are written as digits without {@code toString()}. Other parts are rendered
+ * the same way LogEx renders them.
+ *
+ * The target is either supplied by the caller or borrowed from a pool with
+ * {@link #encodePooled(Object...)} and given back with {@link #release(ByteBuffer)}.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public final class LogEncoder {
+
+    /** Initial capacity of a pooled buffer. */
+    public static final int INITIAL_CAPACITY = 1024;
+
+    /** Largest pooled buffer retained by {@link #release(ByteBuffer)}. */
+    public static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final byte[] SEPARATOR = {':', ' '};
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+
+    private static final StripedPool<ByteBuffer> POOL = StripedPool.forProcessors();
+
+    private LogEncoder() {}
+
+    /**
+     * Encode the joined parts into the array.
+     *
+     * @param target The target array.
+     * @param offset The write offset.
+     * @param parts The message parts.
+     * @return The number of bytes written.
+     * @throws BufferOverflowException if the message does not fit; bytes after the offset are
+     *         unspecified then.
+     */
+    public static int encode(byte[] target, int offset, Object... parts) {
+        if (offset < 0 || offset > target.length) {
+            throw new IndexOutOfBoundsException("Offset out of bounds: " + offset);
+        }
+        final int end = encode(parts, target, offset, target.length);
+        if (end < 0) {
+            throw new BufferOverflowException();
+        }
+        return end - offset;
+    }
+
+    /**
+     * Encode the joined parts into the buffer at its position and advance the position.
+     *
+     * @param target The target buffer, heap or direct.
+     * @param parts The message parts.
+     * @return The number of bytes written.
+     * @throws BufferOverflowException if the message does not fit; the position is unchanged and
+     *         bytes after it are unspecified then.
+     */
+    public static int encode(ByteBuffer target, Object... parts) {
+        if (target.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        final int position = target.position();
+
+        if (target.hasArray()) {
+            final int base = target.arrayOffset();
+            final int end = encode(parts, target.array(), base + position, base + target.limit());
+            if (end < 0) {
+                throw new BufferOverflowException();
+            }
+            final int written = end - base - position;
+            target.position(position + written);
+            return written;
+        }
+
+        // Direct buffer: encode into a pooled array, then copy it in bulk
+        final ByteBuffer encoded = encodePooled(parts);
+        try {
+            final int written = encoded.remaining();
+            if (written > target.remaining()) {
+                throw new BufferOverflowException();
+            }
+            target.put(encoded);
+            return written;
+        } finally {
+            release(encoded);
+        }
+    }
+
+    /**
+     * Encode the joined parts into a pooled heap buffer, growing it as needed.
+     *
+     * @param parts The message parts.
+     * @return The buffer, ready to read from position 0 to the limit. Give it back with
+     *         {@link #release(ByteBuffer)} when done.
+     */
+    public static ByteBuffer encodePooled(Object... parts) {
+        ByteBuffer buffer = POOL.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+        }
+        while (true) {
+            final int end = encode(parts, buffer.array(), 0, buffer.capacity());
+            if (end >= 0) {
+                return buffer.clear().limit(end);
+            }
+            release(buffer);
+            buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+        }
+    }
+
+    /**
+     * Give a buffer obtained from {@link #encodePooled(Object...)} back to the pool. Buffers over
+     * {@link #MAX_RETAINED_CAPACITY} are dropped.
+     *
+     * @param buffer The buffer.
+     */
+    public static void release(ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0
+                && buffer.capacity() <= MAX_RETAINED_CAPACITY) {
+            POOL.offer(buffer.clear());
+        }
+    }
+
+    /**
+     * Encode the joined parts.
+     *
+     * @return The offset after the written bytes, or -1 if the message does not fit.
+     */
+    private static int encode(Object[] parts, byte[] dst, int index, int limit) {
+        if (parts == null) {
+            return index;
+        }
+        int at = index;
+        for (int i = 0; i < parts.length && at >= 0; i++) {
+            if (i > 0) {
+                at = put(SEPARATOR, dst, at, limit);
+            }
+            if (at >= 0) {
+                at = encode(parts[i], dst, at, limit);
+            }
+        }
+        return at;
+    }
+
+    /**
+     * Encode one part the way {@code String.valueOf()} prints it.
+     */
+    private static int encode(Object part, byte[] dst, int index, int limit) {
+        if (part == null) {
+            return put(NULL, dst, index, limit);
+        }
+        if (part instanceof String string) {
+            return Utf8.encode(string, dst, index, limit);
+        }
+        if (part instanceof Integer || part instanceof Long || part instanceof Short
+                || part instanceof Byte) {
+            return Utf8.encode(((Number) part).longValue(), dst, index, limit);
+        }
+        if (part instanceof Boolean value) {
+            return put(value ? TRUE : FALSE, dst, index, limit);
+        }
+        return Utf8.encode(MessageParts.toString(part), dst, index, limit);
+    }
+
+    private static int put(byte[] bytes, byte[] dst, int index, int limit) {
+        if (bytes.length > limit - index) {
+            return -1;
+        }
+        System.arraycopy(bytes, 0, dst, index, bytes.length);
+        return index + bytes.length;
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.util.Arrays;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+
+/**
+ * Structured event builder, obtained from {@link LogEx#at(Logger, Level)}:
+ *
+ * <pre>
+ * LogEx.at(log, Level.INFO).kv("orderId", id).kv("ms", ms).log("order shipped");
+ * </pre>
+ *
+ * Key-value pairs are passed to the backend through the SLF4J fluent API
+ * ({@link LoggingEventBuilder#addKeyValue(String, Object)}), so structured appenders receive them
+ * as fields instead of parsing the message. The message is built from parts like in
+ * {@link LogEx#log(Logger, Level, Object[])}.
+ *
+ * When the level is disabled, a shared no-op instance is returned, so the whole chain costs
+ * nothing. Enabled builders are pooled: use the builder in a single chain ending with
+ * {@link #log(Object...)} and never keep a reference to it.
+ *
+ * The fields of the current {@link LogContext} are passed the same way, before the pairs of the
+ * event. Structured events are emitted synchronously in every mode. With a {@link LogSink} set, the
+ * pairs are appended to the message as ' key=value'.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public final class LogEvent {
+
+    /** Shared no-op instance for disabled levels. */
+    static final LogEvent DISABLED = new LogEvent();
+
+    /** Initial number of key-value pairs. */
+    private static final int INITIAL_PAIRS = 8;
+
+    private static final StripedPool<LogEvent> POOL = StripedPool.forProcessors();
+
+    private Logger logger;
+    private Level level;
+
+    private String[] keys = new String[INITIAL_PAIRS];
+    private Object[] values = new Object[INITIAL_PAIRS];
+    private int size;
+
+    private Throwable cause;
+
+    private LogEvent() {}
+
+    /**
+     * Take a builder from the pool.
+     *
+     * @param logger The logger.
+     * @param level The enabled logging level.
+     * @return The builder.
+     */
+    static LogEvent start(Logger logger, Level level) {
+        LogEvent event = POOL.poll();
+        if (event == null) {
+            event = new LogEvent();
+        }
+        event.logger = logger;
+        event.level = level;
+        return event;
+    }
+
+    /**
+     * Add a key-value pair.
+     *
+     * @param key The key.
+     * @param value The value.
+     * @return This builder.
+     */
+    public LogEvent kv(String key, Object value) {
+        if (logger == null) {
+            return this;
+        }
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+        return this;
+    }
+
+    /**
+     * Set the exception of the event.
+     *
+     * @param throwable The exception.
+     * @return This builder.
+     */
+    public LogEvent cause(Throwable throwable) {
+        if (logger != null) {
+            cause = throwable;
+        }
+        return this;
+    }
+
+    /**
+     * @return The number of key-value pairs added so far.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param index The pair index.
+     * @return The key.
+     */
+    String key(int index) {
+        return keys[index];
+    }
+
+    /**
+     * @param index The pair index.
+     * @return The value.
+     */
+    Object value(int index) {
+        return values[index];
+    }
+
+    /**
+     * Log the event with the message built from the parts. The builder is no longer usable
+     * afterwards.
+     *
+     * @param parts The message parts, none for an event with key-values only.
+     */
+    public void log(Object... parts) {
+        if (logger == null) {
+            return;
+        }
+        try {
+            final Object event = LogJfr.beginCall();
+            final String message = message(parts);
+            LogJfr.formatted(event);
+            emit(message, true);
+            LogJfr.commitCall(event, logger, level, message);
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Log the event as a JSON object with the calling method name, the level, the message built
+     * from the parts, the key-value pairs and the {@link LogContext} fields as fields and the
+     * exception text as the "cause" field;
+     * see {@link LogJson}. The exception itself is passed to the backend as well. The builder is
+     * no longer usable afterwards.
+     *
+     * @param parts The message parts.
+     */
+    public void logJson(Object... parts) {
+        if (logger == null) {
+            return;
+        }
+        try {
+            final Object event = LogJfr.beginCall();
+            // 0 - logJson(), 1 - the caller
+            final String method = LogEx.frame(1).getMethodName();
+            final LogJson json = LogJson.acquire();
+            final String message;
+            try {
+                json.beginEvent(method, level, parts).fields(this);
+                LogContext.current().addTo(json);
+                if (cause != null) {
+                    json.field("cause", cause.toString());
+                }
+                message = json.endObject().toString();
+            } finally {
+                json.release();
+            }
+            LogJfr.formatted(event);
+            emit(message, false);
+            LogJfr.commitCall(event, logger, level, message);
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Join the parts into the message.
+     */
+    private static String message(Object[] parts) {
+        if (parts == null || parts.length == 0) {
+            return "";
+        }
+        final StringBuilder builder = MessageBuffers.acquire();
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                if (i > 0) {
+                    builder.append(": ");
+                }
+                MessageParts.append(builder, parts[i]);
+            }
+            return builder.toString();
+        } finally {
+            MessageBuffers.release(builder);
+        }
+    }
+
+    /**
+     * Hand the event to the sink or to the fluent API.
+     *
+     * @param message The message.
+     * @param pairs Whether the key-value pairs and the context are not in the message yet.
+     */
+    private void emit(String message, boolean pairs) {
+        final int count = pairs ? size : 0;
+        final LogContext context = pairs ? LogContext.current() : LogContext.EMPTY;
+        LogMetrics.emitted(level, message.length());
+
+        final LogSink sink = LogEx.getSink();
+        if (sink != null) {
+            final StringBuilder builder = new StringBuilder(message);
+            for (int i = 0; i < count; i++) {
+                builder.append(builder.isEmpty() ? "" : " ").append(keys[i]).append('=');
+                MessageParts.append(builder, values[i]);
+            }
+            context.appendTo(builder);
+            if (cause != null) {
+                // The sink decides how to render the cause, by default with its stack trace
+                sink.write(logger, level, builder.toString(), cause);
+            } else {
+                sink.write(logger, level, builder.toString());
+            }
+            return;
+        }
+
+        final LoggingEventBuilder builder = context.addTo(logger.atLevel(level));
+        for (int i = 0; i < count; i++) {
+            builder.addKeyValue(keys[i], values[i]);
+        }
+        if (cause != null) {
+            builder.setCause(cause);
+        }
+        builder.log(message);
+    }
+
+    /**
+     * Clear the builder and return it to the pool.
+     */
+    private void release() {
+        Arrays.fill(keys, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        cause = null;
+        logger = null;
+        level = null;
+        if (keys.length == INITIAL_PAIRS) {
+            POOL.offer(this);
+        }
+    }
+}
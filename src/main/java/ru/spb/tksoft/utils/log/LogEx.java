@@ -16,8 +16,16 @@ package ru.spb.tksoft.utils.log;
 
 import org.slf4j.Logger;
 import org.slf4j.event.Level;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.StackWalker.StackFrame;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Extended/wrapped logging with thread safety optimizations.
@@ -26,52 +34,171 @@ import java.util.concurrent.ConcurrentMap;
  */
 public final class LogEx extends LogBase {
 
-    /** Cache for method names for better performance. */
-    private static final ConcurrentMap<String, String> METHOD_NAME_CACHE =
-            new ConcurrentHashMap<>();
+    /** Bounded cache for resolved call sites, keyed by class, method and bytecode index. */
+    private static final MethodNameCache METHOD_NAME_CACHE =
+            new MethodNameCache(MethodNameCache.DEFAULT_MAX_SIZE);
 
-    /** Thread-local StringBuilder для избежания создания новых объектов. */
-    private static final ThreadLocal<StringBuilder> THREAD_LOCAL_BUILDER =
-            ThreadLocal.withInitial(() -> new StringBuilder(256));
+    /** Thread-local primitive-aware parts builder, used with the thread-local buffer strategy. */
+    private static final ThreadLocal<LogParts> THREAD_LOCAL_PARTS =
+            ThreadLocal.withInitial(LogParts::new);
+
+    /** Maximum number of LogEx frames to skip when looking for the caller. */
+    private static final int MAX_FRAME_SKIP = 4;
+
+    /**
+     * Stack walker without class references; the estimated depth keeps the first batch of frames
+     * small, so deep stacks are never materialized.
+     */
+    private static final StackWalker STACK_WALKER =
+            StackWalker.getInstance(Set.of(), MAX_FRAME_SKIP + 2);
+
+    /** Preallocated stack walk functions, one per number of skipped frames. */
+    private static final List<Function<Stream<StackFrame>, Optional<StackFrame>>> FRAME_WALKERS =
+            IntStream.rangeClosed(0, MAX_FRAME_SKIP)
+                    .mapToObj(LogEx::frameWalker)
+                    .toList();
+
+    /** Default time to flush the async queue on JVM shutdown. */
+    public static final Duration DEFAULT_ASYNC_SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
+
+    /** Default interval of the async drop summary. */
+    public static final Duration DEFAULT_DROP_SUMMARY_INTERVAL = Duration.ofSeconds(10);
+
+    /** Guards switching the async mode on and off. */
+    private static final Object ASYNC_LOCK = new Object();
+
+    /** Active async dispatcher, null in synchronous mode. */
+    private static volatile AsyncDispatcher asyncDispatcher;
+
+    /** Destination replacing the SLF4J logger calls, null to use the logger. */
+    private static volatile LogSink sink;
+
+    /** Empty parts of a logHere() call without parts. */
+    private static final Object[] NO_PARTS = {};
+
+    /** Active binary capture, null unless the capture mode is on. */
+    private static volatile BinaryCapture binaryCapture;
+
+    private static volatile OverflowPolicy overflowPolicy = OverflowPolicy.block();
+
+    private static volatile Duration dropSummaryInterval = DEFAULT_DROP_SUMMARY_INTERVAL;
+
+    /** Maximum number of rate-limited call sites tracked at a time. */
+    static final int RATE_LIMITERS_MAX_SIZE = 1024;
+
+    /** Rate limiter of a call site with the logger and level its suppression line goes to. */
+    private record LimitedSite(Logger logger, Level level, RateLimiter limiter) {}
+
+    /**
+     * Rate limiters of the rate-limited call sites, bounded with GCLOCK eviction; the pending count
+     * of an evicted limiter is reported right away.
+     */
+    private static final GClockCache<CallSite.Key, LimitedSite> RATE_LIMITERS =
+            new GClockCache<>(RATE_LIMITERS_MAX_SIZE, site -> reportSuppressed(site,
+                    site.limiter().takePending(), false));
+
+    /** Coalescer of identical consecutive messages. */
+    private static final RepeatCoalescer REPEATS = new RepeatCoalescer();
+
+    private static volatile boolean coalesceRepeats;
 
     private LogEx() {}
 
     /**
-     * Get the current method name with caching for better performance. Thread-safe implementation
-     * using ConcurrentHashMap.
+     * Create the stack walk function that skips the given number of frames above its caller.
      * 
-     * @return The name of the method that called this method.
+     * @param skip The number of frames to skip.
+     * @return The stack walk function.
      */
-    public static String me() {
-        final StackTraceElement[] stackTraceElements = Thread.currentThread().getStackTrace();
-        final int currentFrameIndex = 2; // 0 - getStackTrace(), 1 - getCurrentMethodName()
+    private static Function<Stream<StackFrame>, Optional<StackFrame>> frameWalker(int skip) {
+        return frames -> frames.skip(skip + 1L).findFirst();
+    }
+
+    /**
+     * Get the frame of the method that is {@code skip} frames above the method calling this one.
+     * Only the frames up to the requested one are walked.
+     * 
+     * @param skip The number of frames to skip, 1 means the caller of the calling method.
+     * @return The stack frame.
+     */
+    static StackFrame frame(int skip) {
+        LogMetrics.stackWalk();
+        final Object event = LogJfr.beginWalk();
+        final StackFrame frame = STACK_WALKER.walk(FRAME_WALKERS.get(skip))
+                .orElseThrow(() -> new IllegalStateException("Call stack too short"));
+        LogJfr.commitWalk(event, frame, skip);
+        return frame;
+    }
+
+    /**
+     * Get the resolved call site for the stack frame, using the cache.
+     * 
+     * @param frame The stack frame.
+     * @return The call site.
+     */
+    static CallSite callSite(StackFrame frame) {
+        final CallSite.Key key = CallSite.Key.of(frame);
 
-        if (stackTraceElements.length <= currentFrameIndex) {
-            throw new IllegalStateException("Call stack too short");
+        final CallSite cached = METHOD_NAME_CACHE.get(key);
+        if (cached != null) {
+            return cached;
         }
 
-        final StackTraceElement element = stackTraceElements[currentFrameIndex];
-        final String className = element.getClassName();
-        final String methodName = element.getMethodName();
-        final int lineNumber = element.getLineNumber();
+        // If not in cache, add it (may be resolved multiple times, but this is safe)
+        return METHOD_NAME_CACHE.putIfAbsent(key, CallSite.of(frame));
+    }
+
+    /**
+     * Get the current method name. Only the caller frame is walked; neither the line number nor
+     * the class is resolved.
+     * 
+     * @return The name of the method that called this method.
+     */
+    public static String me() {
+        return frame(1).getMethodName();
+    }
 
-        // Create cache key from class, method and line number
-        final String cacheKey = className + "#" + methodName + ":" + lineNumber;
+    /**
+     * Get the current class-qualified method name, i.e. 'MyService#myMethod'. The name is cached
+     * per call site.
+     * 
+     * @return The class-qualified name of the method that called this method.
+     */
+    public static String meQualified() {
+        return callSite(frame(1)).qualifiedName();
+    }
 
-        // Try to get from cache
-        String cachedMethodName = METHOD_NAME_CACHE.get(cacheKey);
-        if (cachedMethodName != null) {
-            return cachedMethodName;
-        }
+    /**
+     * Get the current source line number. The line number is cached per call site.
+     * 
+     * @return The line number of the call or a negative value if it is not available.
+     */
+    public static int meLine() {
+        return callSite(frame(1)).lineNumber();
+    }
 
-        // If not in cache, add it (may be added multiple times, but this is safe)
-        METHOD_NAME_CACHE.putIfAbsent(cacheKey, methodName);
-        return methodName;
+    /**
+     * Check whether the logging level is enabled for the logger.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @return true if events of the level will be emitted.
+     */
+    static boolean isEnabled(Logger logger, Level level) {
+        final boolean enabled = switch (level) {
+            case TRACE -> logger.isTraceEnabled();
+            case DEBUG -> logger.isDebugEnabled();
+            case INFO -> logger.isInfoEnabled();
+            case WARN -> logger.isWarnEnabled();
+            case ERROR -> logger.isErrorEnabled();
+        };
+        return LogMetrics.enabled(enabled, level);
     }
 
     /**
-     * Log the current method with thread-safe message building. Uses thread-local StringBuilder to
-     * avoid object creation overhead.
+     * Log the current method with thread-safe message building. Uses a reusable message buffer (see
+     * {@link BufferStrategy}) to avoid object creation overhead. Nothing is built when the level is
+     * disabled.
      * 
      * @param logger - the logger.
      * @param level - the logging level.
@@ -79,34 +206,212 @@ public final class LogEx extends LogBase {
      */
     public static void log(Logger logger, Level level, Object[] parts) {
 
+        if (!isEnabled(logger, level)) {
+            return;
+        }
+
         if (parts == null || parts.length == 0) {
             processLog(logger, level, "");
             return;
         }
 
-        // Use thread-local StringBuilder to avoid object creation
-        StringBuilder builder = THREAD_LOCAL_BUILDER.get();
-        builder.setLength(0); // Clear the previous content
+        // Parts are deferred only without a context, which is bound to the calling thread
+        final boolean deferrable = LogContext.current().isEmpty();
+
+        final AsyncDispatcher async = asyncDispatcher;
+        if (async != null && deferrable && async.publish(logger, level, null, parts)) {
+            return;
+        }
+
+        final BinaryCapture capture = binaryCapture;
+        if (capture != null && deferrable && capture.publish(logger, level, null, parts)) {
+            return;
+        }
+
+        final Object event = LogJfr.beginCall();
+
+        // Use reusable StringBuilder to avoid object creation
+        final StringBuilder builder = MessageBuffers.acquire();
+        final String message;
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                if (i > 0) {
+                    builder.append(": ");
+                }
+                MessageParts.append(builder, parts[i]);
+            }
+            message = builder.toString();
+        } finally {
+            MessageBuffers.release(builder);
+        }
+        LogJfr.formatted(event);
+
+        processLog(logger, level, message);
+        LogJfr.commitCall(event, logger, level, message);
+    }
+
+    /**
+     * Log up to four message parts without an intermediate array. Nothing is built when the level
+     * is disabled.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param count The number of parts used, 1 to 4.
+     * @param part1 The first message part.
+     * @param part2 The second message part.
+     * @param part3 The third message part.
+     * @param part4 The fourth message part.
+     */
+    private static void log(Logger logger, Level level, int count,
+            Object part1, Object part2, Object part3, Object part4) {
+
+        if (!isEnabled(logger, level)) {
+            return;
+        }
+
+        final boolean deferrable = LogContext.current().isEmpty();
+
+        final AsyncDispatcher async = asyncDispatcher;
+        if (async != null && deferrable
+                && async.publish(logger, level, count, part1, part2, part3, part4)) {
+            return;
+        }
+
+        final BinaryCapture capture = binaryCapture;
+        if (capture != null && deferrable
+                && capture.publish(logger, level, count, part1, part2, part3, part4)) {
+            return;
+        }
+
+        final Object event = LogJfr.beginCall();
 
-        for (int i = 0; i < parts.length; i++) {
-            if (i > 0) {
-                builder.append(": ");
+        final StringBuilder builder = MessageBuffers.acquire();
+        final String message;
+        try {
+            MessageParts.append(builder, part1);
+            if (count > 1) {
+                MessageParts.append(builder.append(": "), part2);
             }
-            builder.append(String.valueOf(parts[i]));
+            if (count > 2) {
+                MessageParts.append(builder.append(": "), part3);
+            }
+            if (count > 3) {
+                MessageParts.append(builder.append(": "), part4);
+            }
+            message = builder.toString();
+        } finally {
+            MessageBuffers.release(builder);
         }
+        LogJfr.formatted(event);
 
-        String message = builder.toString();
         processLog(logger, level, message);
+        LogJfr.commitCall(event, logger, level, message);
+    }
+
+    /**
+     * Thread-safe logging by level. The fields of the current {@link LogContext} are appended to
+     * the message. In async and capture modes the message is queued for the drainer thread.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param message The message to log.
+     */
+    static void processLog(Logger logger, Level level, String message) {
+        dispatch(logger, level, LogContext.current().decorate(message));
+    }
+
+    /**
+     * Thread-safe logging of a message with a throwable, see
+     * {@link #processLog(Logger, Level, String)}. The throwable goes through the same async
+     * queue, sink and repeat coalescing; backends that only take text, the binary capture and
+     * sinks by default, receive the stack trace appended to the message.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param message The message to log.
+     * @param throwable The throwable or null.
+     */
+    static void processLog(Logger logger, Level level, String message, Throwable throwable) {
+        if (throwable == null) {
+            processLog(logger, level, message);
+            return;
+        }
+        final String decorated = LogContext.current().decorate(message);
+        final AsyncDispatcher async = asyncDispatcher;
+        if (async != null && async.publish(logger, level, decorated, throwable)) {
+            return;
+        }
+        final BinaryCapture capture = binaryCapture;
+        if (capture != null
+                && capture.publish(logger, level, withStackTrace(decorated, throwable))) {
+            return;
+        }
+        emit(logger, level, decorated, throwable);
+    }
+
+    /**
+     * Log the message as is: queue it in async and capture modes, emit it otherwise.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param message The complete message.
+     */
+    static void dispatch(Logger logger, Level level, String message) {
+        final AsyncDispatcher async = asyncDispatcher;
+        if (async != null && async.publish(logger, level, message)) {
+            return;
+        }
+        final BinaryCapture capture = binaryCapture;
+        if (capture != null && capture.publish(logger, level, message)) {
+            return;
+        }
+        emit(logger, level, message);
+    }
+
+    /**
+     * Hand the message to the logger right away, coalescing repeats if enabled.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param message The message to log.
+     */
+    static void emit(Logger logger, Level level, String message) {
+        emit(logger, level, message, null);
+    }
+
+    /**
+     * Hand the message with a throwable to the logger right away. A message with a throwable is
+     * never coalesced, but it reports the pending repeat count of the logger first.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param message The message to log.
+     * @param throwable The throwable or null.
+     */
+    static void emit(Logger logger, Level level, String message, Throwable throwable) {
+        if (coalesceRepeats) {
+            REPEATS.emit(logger, level, message, throwable);
+        } else if (throwable == null) {
+            write(logger, level, message);
+        } else {
+            write(logger, level, message, throwable);
+        }
     }
 
     /**
-     * Thread-safe logging by level.
+     * Call the logger method by level, or the sink if one is set.
      * 
      * @param logger The logger.
      * @param level The logging level.
      * @param message The message to log.
      */
-    private static void processLog(Logger logger, Level level, String message) {
+    static void write(Logger logger, Level level, String message) {
+        LogMetrics.emitted(level, message.length());
+        final LogSink target = sink;
+        if (target != null) {
+            target.write(logger, level, message);
+            return;
+        }
         switch (level) {
             case TRACE -> logger.trace(message);
             case DEBUG -> logger.debug(message);
@@ -117,7 +422,50 @@ public final class LogEx extends LogBase {
     }
 
     /**
-     * Log the current method with 'trace' severity
+     * Call the logger method by level with the throwable, or the sink if one is set.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param message The message to log.
+     * @param throwable The throwable.
+     */
+    static void write(Logger logger, Level level, String message, Throwable throwable) {
+        LogMetrics.emitted(level, message.length());
+        final LogSink target = sink;
+        if (target != null) {
+            target.write(logger, level, message, throwable);
+            return;
+        }
+        switch (level) {
+            case TRACE -> logger.trace(message, throwable);
+            case DEBUG -> logger.debug(message, throwable);
+            case INFO -> logger.info(message, throwable);
+            case WARN -> logger.warn(message, throwable);
+            case ERROR -> logger.error(message, throwable);
+        }
+    }
+
+    /**
+     * Append the stack trace of the throwable to the message, for backends that only take text.
+     * 
+     * @param message The message.
+     * @param throwable The throwable.
+     * @return The message followed by the stack trace on the next lines.
+     */
+    static String withStackTrace(String message, Throwable throwable) {
+        final StringWriter writer = new StringWriter(message.length() + 512);
+        writer.append(message).append(System.lineSeparator());
+        throwable.printStackTrace(new PrintWriter(writer));
+        final StringBuffer buffer = writer.getBuffer();
+        final int separator = System.lineSeparator().length();
+        if (buffer.length() >= separator) {
+            buffer.setLength(buffer.length() - separator);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Log the current method with 'trace' severity.
      * 
      * @param logger The logger.
      * @param parts The message parts.
@@ -127,6 +475,53 @@ public final class LogEx extends LogBase {
         log(logger, Level.TRACE, parts);
     }
 
+    /**
+     * Log the current method with 'trace' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param part1 The first message part.
+     */
+    public static void trace(Logger logger, Object part1) {
+        log(logger, Level.TRACE, 1, part1, null, null, null);
+    }
+
+    /**
+     * Log the current method with 'trace' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param part1 The first message part.
+     * @param part2 The second message part.
+     */
+    public static void trace(Logger logger, Object part1, Object part2) {
+        log(logger, Level.TRACE, 2, part1, part2, null, null);
+    }
+
+    /**
+     * Log the current method with 'trace' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param part1 The first message part.
+     * @param part2 The second message part.
+     * @param part3 The third message part.
+     */
+    public static void trace(Logger logger, Object part1, Object part2, Object part3) {
+        log(logger, Level.TRACE, 3, part1, part2, part3, null);
+    }
+
+    /**
+     * Log the current method with 'trace' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param part1 The first message part.
+     * @param part2 The second message part.
+     * @param part3 The third message part.
+     * @param part4 The fourth message part.
+     */
+    public static void trace(Logger logger,
+            Object part1, Object part2, Object part3, Object part4) {
+        log(logger, Level.TRACE, 4, part1, part2, part3, part4);
+    }
+
     /**
      * Log the current method with 'debug' severity.
      * 
@@ -137,6 +532,53 @@ public final class LogEx extends LogBase {
         log(logger, Level.DEBUG, parts);
     }
 
+    /**
+     * Log the current method with 'debug' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param part1 The first message part.
+     */
+    public static void debug(Logger logger, Object part1) {
+        log(logger, Level.DEBUG, 1, part1, null, null, null);
+    }
+
+    /**
+     * Log the current method with 'debug' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param part1 The first message part.
+     * @param part2 The second message part.
+     */
+    public static void debug(Logger logger, Object part1, Object part2) {
+        log(logger, Level.DEBUG, 2, part1, part2, null, null);
+    }
+
+    /**
+     * Log the current method with 'debug' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param part1 The first message part.
+     * @param part2 The second message part.
+     * @param part3 The third message part.
+     */
+    public static void debug(Logger logger, Object part1, Object part2, Object part3) {
+        log(logger, Level.DEBUG, 3, part1, part2, part3, null);
+    }
+
+    /**
+     * Log the current method with 'debug' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param part1 The first message part.
+     * @param part2 The second message part.
+     * @param part3 The third message part.
+     * @param part4 The fourth message part.
+     */
+    public static void debug(Logger logger,
+            Object part1, Object part2, Object part3, Object part4) {
+        log(logger, Level.DEBUG, 4, part1, part2, part3, part4);
+    }
+
     /**
      * Log the current method with 'info' severity.
      * 
@@ -147,6 +589,52 @@ public final class LogEx extends LogBase {
         log(logger, Level.INFO, parts);
     }
 
+    /**
+     * Log the current method with 'info' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param part1 The first message part.
+     */
+    public static void info(Logger logger, Object part1) {
+        log(logger, Level.INFO, 1, part1, null, null, null);
+    }
+
+    /**
+     * Log the current method with 'info' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param part1 The first message part.
+     * @param part2 The second message part.
+     */
+    public static void info(Logger logger, Object part1, Object part2) {
+        log(logger, Level.INFO, 2, part1, part2, null, null);
+    }
+
+    /**
+     * Log the current method with 'info' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param part1 The first message part.
+     * @param part2 The second message part.
+     * @param part3 The third message part.
+     */
+    public static void info(Logger logger, Object part1, Object part2, Object part3) {
+        log(logger, Level.INFO, 3, part1, part2, part3, null);
+    }
+
+    /**
+     * Log the current method with 'info' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param part1 The first message part.
+     * @param part2 The second message part.
+     * @param part3 The third message part.
+     * @param part4 The fourth message part.
+     */
+    public static void info(Logger logger, Object part1, Object part2, Object part3, Object part4) {
+        log(logger, Level.INFO, 4, part1, part2, part3, part4);
+    }
+
     /**
      * Log the current method with 'warn' severity.
      * 
@@ -158,48 +646,1147 @@ public final class LogEx extends LogBase {
     }
 
     /**
-     * Log the current method with 'error' severity.
+     * Log the current method with 'warn' severity. Fixed-arity variant: no array is allocated.
      * 
      * @param logger The logger.
-     * @param parts The message parts.
+     * @param part1 The first message part.
      */
-    public static void error(Logger logger, Object... parts) {
-        log(logger, Level.ERROR, parts);
+    public static void warn(Logger logger, Object part1) {
+        log(logger, Level.WARN, 1, part1, null, null, null);
     }
 
     /**
-     * Clear the method name cache.
+     * Log the current method with 'warn' severity. Fixed-arity variant: no array is allocated.
      * 
-     * Useful for freeing memory or when changing code during runtime. Thread-safe operation.
+     * @param logger The logger.
+     * @param part1 The first message part.
+     * @param part2 The second message part.
      */
-    public static void clearMethodCache() {
-        METHOD_NAME_CACHE.clear();
+    public static void warn(Logger logger, Object part1, Object part2) {
+        log(logger, Level.WARN, 2, part1, part2, null, null);
     }
 
     /**
-     * Get the size of the method name cache.
+     * Log the current method with 'warn' severity. Fixed-arity variant: no array is allocated.
      * 
-     * @return the size of the method name cache
+     * @param logger The logger.
+     * @param part1 The first message part.
+     * @param part2 The second message part.
+     * @param part3 The third message part.
      */
-    public static int getCacheSize() {
-        return METHOD_NAME_CACHE.size();
+    public static void warn(Logger logger, Object part1, Object part2, Object part3) {
+        log(logger, Level.WARN, 3, part1, part2, part3, null);
     }
 
     /**
-     * Check if the method name cache is enabled.
+     * Log the current method with 'warn' severity. Fixed-arity variant: no array is allocated.
      * 
-     * @return true if the method name cache is enabled
+     * @param logger The logger.
+     * @param part1 The first message part.
+     * @param part2 The second message part.
+     * @param part3 The third message part.
+     * @param part4 The fourth message part.
      */
-    public static boolean isCacheEnabled() {
-        return !METHOD_NAME_CACHE.isEmpty();
+    public static void warn(Logger logger, Object part1, Object part2, Object part3, Object part4) {
+        log(logger, Level.WARN, 4, part1, part2, part3, part4);
     }
 
     /**
-     * Clear the thread-local variables for the current thread.
+     * Log the current method with 'error' severity.
      * 
-     * Recommended to call when the thread is finished.
+     * @param logger The logger.
+     * @param parts The message parts.
      */
-    public static void cleanupThreadLocal() {
-        THREAD_LOCAL_BUILDER.remove();
+    public static void error(Logger logger, Object... parts) {
+        log(logger, Level.ERROR, parts);
+    }
+
+    /**
+     * Log the current method with 'error' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param part1 The first message part.
+     */
+    public static void error(Logger logger, Object part1) {
+        log(logger, Level.ERROR, 1, part1, null, null, null);
+    }
+
+    /**
+     * Log the current method with 'error' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param part1 The first message part.
+     * @param part2 The second message part.
+     */
+    public static void error(Logger logger, Object part1, Object part2) {
+        log(logger, Level.ERROR, 2, part1, part2, null, null);
+    }
+
+    /**
+     * Log the current method with 'error' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param part1 The first message part.
+     * @param part2 The second message part.
+     * @param part3 The third message part.
+     */
+    public static void error(Logger logger, Object part1, Object part2, Object part3) {
+        log(logger, Level.ERROR, 3, part1, part2, part3, null);
+    }
+
+    /**
+     * Log the current method with 'error' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param part1 The first message part.
+     * @param part2 The second message part.
+     * @param part3 The third message part.
+     * @param part4 The fourth message part.
+     */
+    public static void error(Logger logger,
+            Object part1, Object part2, Object part3, Object part4) {
+        log(logger, Level.ERROR, 4, part1, part2, part3, part4);
+    }
+
+    /**
+     * Start a message built from parts, including primitives that are appended without boxing:
+     * {@code LogEx.parts(log, Level.DEBUG).add(LogEx.me()).add(count).add(elapsed).log()}.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @return The parts builder; a shared no-op builder if the level is disabled.
+     */
+    public static LogParts parts(Logger logger, Level level) {
+
+        if (!isEnabled(logger, level)) {
+            return LogParts.DISABLED;
+        }
+
+        // A nested chain on the same thread, or no thread-local state wanted: use a fresh builder
+        LogParts parts = MessageBuffers.isThreadLocal() ? THREAD_LOCAL_PARTS.get() : null;
+        if (parts == null || parts.isActive()) {
+            parts = new LogParts();
+        }
+        return parts.start(logger, level, MessageBuffers.acquire());
+    }
+
+    /**
+     * Start a structured event whose key-value pairs go to the backend through the SLF4J fluent
+     * API: {@code LogEx.at(log, Level.INFO).kv("orderId", id).kv("ms", ms).log("shipped")}.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @return The event builder; a shared no-op builder if the level is disabled.
+     */
+    public static LogEvent at(Logger logger, Level level) {
+
+        if (!isEnabled(logger, level)) {
+            return LogEvent.DISABLED;
+        }
+        return LogEvent.start(logger, level);
+    }
+
+    /**
+     * Log a JSON object with the calling method name, the level, the message joined from the parts
+     * and the fields of the current {@link LogContext}, see {@link LogJson}:
+     * {@code {"method":"ship","level":"INFO","message":"order: 42"}}. The level is checked first,
+     * so the stack is not walked for disabled levels.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param parts The message parts.
+     */
+    public static void logJson(Logger logger, Level level, Object... parts) {
+
+        if (!isEnabled(logger, level)) {
+            return;
+        }
+
+        final Object event = LogJfr.beginCall();
+
+        // 0 - logJson(), 1 - the caller
+        final String methodName = frame(1).getMethodName();
+        final LogJson json = LogJson.acquire();
+        final String message;
+        try {
+            json.beginEvent(methodName, level, parts);
+            message = LogContext.current().addTo(json).endObject().toString();
+        } finally {
+            json.release();
+        }
+        LogJfr.formatted(event);
+
+        dispatch(logger, level, message);
+        LogJfr.commitCall(event, logger, level, message);
+    }
+
+    /**
+     * Log the calling method name followed by the message parts. The level is checked first, so
+     * the stack is only walked when the event will actually be emitted.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param parts The message parts.
+     */
+    private static void logHere(Logger logger, Level level, Object[] parts) {
+
+        if (!isEnabled(logger, level)) {
+            return;
+        }
+
+        // 0 - logHere(), 1 - xxxHere(), 2 - the caller
+        logMethod(logger, level, frame(2).getMethodName(), parts);
+    }
+
+    /**
+     * Log the method name followed by the message parts. The level is already checked.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param methodName The calling method name.
+     * @param parts The message parts.
+     */
+    private static void logMethod(Logger logger, Level level, String methodName, Object[] parts) {
+        final boolean deferrable = LogContext.current().isEmpty();
+
+        final AsyncDispatcher async = asyncDispatcher;
+        if (async != null && deferrable && async.publish(logger, level, methodName, parts)) {
+            return;
+        }
+
+        final BinaryCapture capture = binaryCapture;
+        if (capture != null && deferrable
+                && capture.publish(logger, level, methodName, parts != null ? parts : NO_PARTS)) {
+            return;
+        }
+
+        final Object event = LogJfr.beginCall();
+
+        final StringBuilder builder = MessageBuffers.acquire();
+        final String message;
+        try {
+            builder.append(methodName);
+            if (parts != null) {
+                for (Object part : parts) {
+                    MessageParts.append(builder.append(": "), part);
+                }
+            }
+            message = builder.toString();
+        } finally {
+            MessageBuffers.release(builder);
+        }
+        LogJfr.formatted(event);
+
+        processLog(logger, level, message);
+        LogJfr.commitCall(event, logger, level, message);
+    }
+
+    /**
+     * Log the calling method name and the message parts with 'trace' severity. Same as
+     * {@code trace(logger, me(), parts...)}, but the stack is not walked when 'trace' is disabled.
+     * 
+     * @param logger The logger.
+     * @param parts The message parts.
+     */
+    public static void traceHere(Logger logger, Object... parts) {
+        logHere(logger, Level.TRACE, parts);
+    }
+
+    /**
+     * Log the calling method name and the message parts with 'debug' severity. Same as
+     * {@code debug(logger, me(), parts...)}, but the stack is not walked when 'debug' is disabled.
+     * 
+     * @param logger The logger.
+     * @param parts The message parts.
+     */
+    public static void debugHere(Logger logger, Object... parts) {
+        logHere(logger, Level.DEBUG, parts);
+    }
+
+    /**
+     * Log the calling method name and the message parts with 'info' severity. Same as
+     * {@code info(logger, me(), parts...)}, but the stack is not walked when 'info' is disabled.
+     * 
+     * @param logger The logger.
+     * @param parts The message parts.
+     */
+    public static void infoHere(Logger logger, Object... parts) {
+        logHere(logger, Level.INFO, parts);
+    }
+
+    /**
+     * Log the calling method name and the message parts with 'warn' severity. Same as
+     * {@code warn(logger, me(), parts...)}, but the stack is not walked when 'warn' is disabled.
+     * 
+     * @param logger The logger.
+     * @param parts The message parts.
+     */
+    public static void warnHere(Logger logger, Object... parts) {
+        logHere(logger, Level.WARN, parts);
+    }
+
+    /**
+     * Log the calling method name and the message parts with 'error' severity. Same as
+     * {@code error(logger, me(), parts...)}, but the stack is not walked when 'error' is disabled.
+     * 
+     * @param logger The logger.
+     * @param parts The message parts.
+     */
+    public static void errorHere(Logger logger, Object... parts) {
+        logHere(logger, Level.ERROR, parts);
+    }
+
+    /**
+     * Open a timed span of the calling method. Logs 'method: starting' now and 'method: finished:
+     * N ns' with the elapsed {@code System.nanoTime()} when the span is closed. The method name is
+     * looked up once, only when the level is enabled or latencies are recorded; otherwise a shared
+     * no-op span is returned.
+     * 
+     * With {@link #setLatencyRecording(boolean) latency recording} on, the elapsed time is also
+     * recorded in the histogram of the call site (class#method), whatever the level.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @return The span to close, preferably with try-with-resources.
+     */
+    public static LogSpan span(Logger logger, Level level) {
+
+        final boolean enabled = isEnabled(logger, level);
+        final boolean recording = LatencyRecorder.isEnabled();
+        if (!enabled && !recording) {
+            return LogSpan.DISABLED;
+        }
+
+        // 0 - span(), 1 - the caller
+        final StackFrame caller = frame(1);
+        if (!recording) {
+            return LogSpan.open(logger, level, caller.getMethodName(), null, true, true);
+        }
+
+        final CallSite site = callSite(caller);
+        final boolean logLines = enabled && LatencyRecorder.getSummaryIntervalNanos() == 0;
+        return LogSpan.open(logger, level, site.methodName(),
+                LatencyRecorder.histogram(site.fullName(), site.qualifiedName()), enabled,
+                logLines);
+    }
+
+    /**
+     * Log the message parts unless the calling call site has already logged {@code limit}
+     * messages within the current window. Suppressed messages are counted; the count is reported
+     * with a "suppressed N similar messages" line when the call site logs in a later window, or on
+     * {@link #flushSuppressed()} once the window has closed.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param limit The number of messages per window.
+     * @param window The window length.
+     * @param parts The message parts.
+     */
+    private static void logLimited(Logger logger, Level level, int limit, Duration window,
+            Object[] parts) {
+
+        if (!isEnabled(logger, level)) {
+            return;
+        }
+
+        // 0 - logLimited(), 1 - xxxEvery()/xxxAtMost(), 2 - the caller
+        final StackFrame caller = frame(2);
+        final CallSite.Key key = CallSite.Key.of(caller);
+        final long now = System.nanoTime();
+
+        LimitedSite site = RATE_LIMITERS.get(key);
+        if (site == null) {
+            if (window == null) {
+                throw new IllegalArgumentException("Rate limit window must not be null");
+            }
+            site = RATE_LIMITERS.putIfAbsent(key, new LimitedSite(logger, level,
+                    new RateLimiter(limit, window.toNanos(), callSite(caller).qualifiedName(),
+                            now)));
+        }
+
+        final RateLimiter limiter = site.limiter();
+        final long suppressed = limiter.tryAcquire(now);
+        if (suppressed == RateLimiter.DENIED) {
+            return;
+        }
+        if (suppressed > 0) {
+            processLog(logger, level, limiter.suppressedMessage(suppressed));
+        }
+        log(logger, level, parts);
+    }
+
+    /**
+     * Log with 'warn' severity at most once per interval from the calling call site. Messages
+     * suppressed in between are reported with a "suppressed N similar messages" line.
+     * 
+     * The limit is per call site (class, method and call position); the interval of the first call
+     * applies to the call site.
+     * 
+     * @param logger The logger.
+     * @param interval The minimum interval between messages.
+     * @param parts The message parts.
+     */
+    public static void warnEvery(Logger logger, Duration interval, Object... parts) {
+        logLimited(logger, Level.WARN, 1, interval, parts);
+    }
+
+    /**
+     * Log with 'error' severity at most once per interval from the calling call site. See
+     * {@link #warnEvery(Logger, Duration, Object...)}.
+     * 
+     * @param logger The logger.
+     * @param interval The minimum interval between messages.
+     * @param parts The message parts.
+     */
+    public static void errorEvery(Logger logger, Duration interval, Object... parts) {
+        logLimited(logger, Level.ERROR, 1, interval, parts);
+    }
+
+    /**
+     * Log with 'warn' severity at most {@code limit} times per window from the calling call site.
+     * Messages suppressed in between are reported with a "suppressed N similar messages" line.
+     * 
+     * The limit is per call site (class, method and call position); the limit and the window of
+     * the first call apply to the call site.
+     * 
+     * @param logger The logger.
+     * @param limit The number of messages per window, at least 1.
+     * @param window The window length.
+     * @param parts The message parts.
+     */
+    public static void warnAtMost(Logger logger, int limit, Duration window, Object... parts) {
+        logLimited(logger, Level.WARN, limit, window, parts);
+    }
+
+    /**
+     * Log with 'error' severity at most {@code limit} times per window from the calling call site.
+     * See {@link #warnAtMost(Logger, int, Duration, Object...)}.
+     * 
+     * @param logger The logger.
+     * @param limit The number of messages per window, at least 1.
+     * @param window The window length.
+     * @param parts The message parts.
+     */
+    public static void errorAtMost(Logger logger, int limit, Duration window, Object... parts) {
+        logLimited(logger, Level.ERROR, limit, window, parts);
+    }
+
+    /**
+     * Log with 'trace' severity with the given probability. The decision is made after the level
+     * check and before any message building. Parts are evaluated by the caller, so instead of
+     * passing {@code me()} use {@link #traceHereSampled(Logger, double, Object...)}, which walks
+     * the stack only for kept events.
+     * 
+     * @param logger The logger.
+     * @param rate The probability to log, 0 to 1; replaced by the logger override if one is set.
+     * @param parts The message parts.
+     */
+    public static void traceSampled(Logger logger, double rate, Object... parts) {
+        if (isEnabled(logger, Level.TRACE) && Sampling.sample(logger, rate)) {
+            log(logger, Level.TRACE, parts);
+        }
+    }
+
+    /**
+     * Log with 'trace' severity if the call site sampler keeps the event.
+     * 
+     * @param logger The logger.
+     * @param sampler The call site sampler; replaced by the logger override if one is set.
+     * @param parts The message parts.
+     */
+    public static void traceSampled(Logger logger, Sampler sampler, Object... parts) {
+        if (isEnabled(logger, Level.TRACE) && Sampling.sample(logger, sampler)) {
+            log(logger, Level.TRACE, parts);
+        }
+    }
+
+    /**
+     * Log with 'debug' severity with the given probability. The decision is made after the level
+     * check and before any message building. Parts are evaluated by the caller, so instead of
+     * passing {@code me()} use {@link #debugHereSampled(Logger, double, Object...)}, which walks
+     * the stack only for kept events.
+     * 
+     * @param logger The logger.
+     * @param rate The probability to log, 0 to 1; replaced by the logger override if one is set.
+     * @param parts The message parts.
+     */
+    public static void debugSampled(Logger logger, double rate, Object... parts) {
+        if (isEnabled(logger, Level.DEBUG) && Sampling.sample(logger, rate)) {
+            log(logger, Level.DEBUG, parts);
+        }
+    }
+
+    /**
+     * Log with 'debug' severity if the call site sampler keeps the event.
+     * 
+     * @param logger The logger.
+     * @param sampler The call site sampler; replaced by the logger override if one is set.
+     * @param parts The message parts.
+     */
+    public static void debugSampled(Logger logger, Sampler sampler, Object... parts) {
+        if (isEnabled(logger, Level.DEBUG) && Sampling.sample(logger, sampler)) {
+            log(logger, Level.DEBUG, parts);
+        }
+    }
+
+    /**
+     * Log the calling method name and the message parts with 'trace' severity with the given
+     * probability. Same as {@code traceSampled(logger, rate, me(), parts...)}, but the stack is
+     * only walked for events the sampling keeps.
+     * 
+     * @param logger The logger.
+     * @param rate The probability to log, 0 to 1; replaced by the logger override if one is set.
+     * @param parts The message parts.
+     */
+    public static void traceHereSampled(Logger logger, double rate, Object... parts) {
+        if (isEnabled(logger, Level.TRACE) && Sampling.sample(logger, rate)) {
+            // 0 - traceHereSampled(), 1 - the caller
+            logMethod(logger, Level.TRACE, frame(1).getMethodName(), parts);
+        }
+    }
+
+    /**
+     * Log the calling method name and the message parts with 'trace' severity if the call site
+     * sampler keeps the event. The stack is only walked for kept events.
+     * 
+     * @param logger The logger.
+     * @param sampler The call site sampler; replaced by the logger override if one is set.
+     * @param parts The message parts.
+     */
+    public static void traceHereSampled(Logger logger, Sampler sampler, Object... parts) {
+        if (isEnabled(logger, Level.TRACE) && Sampling.sample(logger, sampler)) {
+            // 0 - traceHereSampled(), 1 - the caller
+            logMethod(logger, Level.TRACE, frame(1).getMethodName(), parts);
+        }
+    }
+
+    /**
+     * Log the calling method name and the message parts with 'debug' severity with the given
+     * probability. Same as {@code debugSampled(logger, rate, me(), parts...)}, but the stack is
+     * only walked for events the sampling keeps.
+     * 
+     * @param logger The logger.
+     * @param rate The probability to log, 0 to 1; replaced by the logger override if one is set.
+     * @param parts The message parts.
+     */
+    public static void debugHereSampled(Logger logger, double rate, Object... parts) {
+        if (isEnabled(logger, Level.DEBUG) && Sampling.sample(logger, rate)) {
+            // 0 - debugHereSampled(), 1 - the caller
+            logMethod(logger, Level.DEBUG, frame(1).getMethodName(), parts);
+        }
+    }
+
+    /**
+     * Log the calling method name and the message parts with 'debug' severity if the call site
+     * sampler keeps the event. The stack is only walked for kept events.
+     * 
+     * @param logger The logger.
+     * @param sampler The call site sampler; replaced by the logger override if one is set.
+     * @param parts The message parts.
+     */
+    public static void debugHereSampled(Logger logger, Sampler sampler, Object... parts) {
+        if (isEnabled(logger, Level.DEBUG) && Sampling.sample(logger, sampler)) {
+            // 0 - debugHereSampled(), 1 - the caller
+            logMethod(logger, Level.DEBUG, frame(1).getMethodName(), parts);
+        }
+    }
+
+    /**
+     * Clear the method name cache.
+     * 
+     * Useful for freeing memory or when changing code during runtime. Thread-safe operation.
+     * Statistics counters are not reset.
+     */
+    public static void clearMethodCache() {
+        METHOD_NAME_CACHE.clear();
+    }
+
+    /**
+     * Get the size of the method name cache.
+     * 
+     * @return the size of the method name cache
+     */
+    public static int getCacheSize() {
+        return METHOD_NAME_CACHE.size();
+    }
+
+    /**
+     * Check if the method name cache is enabled.
+     * 
+     * @return true if the method name cache is enabled, i.e. its maximum size is not 0
+     */
+    public static boolean isCacheEnabled() {
+        return METHOD_NAME_CACHE.getMaxSize() > 0;
+    }
+
+    /**
+     * Get the maximum size of the method name cache.
+     * 
+     * @return the maximum number of cached call sites
+     */
+    public static int getCacheMaxSize() {
+        return METHOD_NAME_CACHE.getMaxSize();
+    }
+
+    /**
+     * Set the maximum size of the method name cache. When the cache is full, rarely and least
+     * recently used call sites are evicted. The cache is cleared.
+     * 
+     * @param maxSize the maximum number of cached call sites, 0 disables caching
+     */
+    public static void setCacheMaxSize(int maxSize) {
+        METHOD_NAME_CACHE.setMaxSize(maxSize);
+    }
+
+    /**
+     * Get the method name cache statistics: hits, misses and evictions.
+     * 
+     * @return the statistics snapshot
+     */
+    public static MethodCacheStats getCacheStats() {
+        return METHOD_NAME_CACHE.stats();
+    }
+
+    /**
+     * Clear the thread-local variables for the current thread.
+     * 
+     * Recommended to call when the thread is finished. Not needed with the
+     * {@link BufferStrategy#POOLED} strategy.
+     */
+    public static void cleanupThreadLocal() {
+        MessageBuffers.cleanupThreadLocal();
+        THREAD_LOCAL_PARTS.remove();
+    }
+
+    /**
+     * Get the message buffer strategy.
+     * 
+     * @return the strategy
+     */
+    public static BufferStrategy getBufferStrategy() {
+        return MessageBuffers.getStrategy();
+    }
+
+    /**
+     * Set the message buffer strategy. The default is {@link BufferStrategy#THREAD_LOCAL}; use
+     * {@link BufferStrategy#POOLED} or {@link BufferStrategy#ADAPTIVE} with virtual threads.
+     * 
+     * @param strategy the strategy
+     */
+    public static void setBufferStrategy(BufferStrategy strategy) {
+        MessageBuffers.setStrategy(strategy);
+    }
+
+    /**
+     * Get the maximum capacity of a retained message buffer.
+     * 
+     * @return the capacity in chars
+     */
+    public static int getMaxBufferCapacity() {
+        return MessageBuffers.getMaxCapacity();
+    }
+
+    /**
+     * Set the maximum capacity of a retained message buffer. A buffer that grew larger while
+     * building a huge message is dropped instead of being reused.
+     * 
+     * @param capacity the capacity in chars, at least 256
+     */
+    public static void setMaxBufferCapacity(int capacity) {
+        MessageBuffers.setMaxCapacity(capacity);
+    }
+
+    /**
+     * Get the number of chars a rendered part may write.
+     * 
+     * @return the budget in chars
+     */
+    public static int getPartBudget() {
+        return MessageParts.getPartBudget();
+    }
+
+    /**
+     * Set the number of chars a rendered part may write into the message: a {@link LogAppendable},
+     * an array, collection, map, record, Optional or a value with a registered renderer. Longer
+     * output is cut and marked with '...'. Strings and values printed with toString() are not cut.
+     * The default is 4096.
+     * 
+     * @param budget the budget in chars, positive
+     */
+    public static void setPartBudget(int budget) {
+        MessageParts.setPartBudget(budget);
+    }
+
+    /**
+     * Get the maximum number of rendered elements of an array, collection or map.
+     * 
+     * @return the number of elements
+     */
+    public static int getMaxRenderedElements() {
+        return Renderers.getMaxElements();
+    }
+
+    /**
+     * Set the maximum number of rendered elements of an array, collection or map. The rest is
+     * summarized as '... N more', so logging a huge collection costs bounded time. The default is
+     * 100.
+     * 
+     * @param max the number of elements, positive
+     */
+    public static void setMaxRenderedElements(int max) {
+        Renderers.setMaxElements(max);
+    }
+
+    /**
+     * Register how values of the type and its subtypes are rendered in messages. A renderer
+     * registered for the class itself wins over {@link LogAppendable} and the built-in renderers
+     * of arrays, collections, maps, records and Optionals.
+     * 
+     * @param <T> the type
+     * @param type the type
+     * @param renderer the renderer or null to remove the registered one
+     */
+    public static <T> void registerRenderer(Class<T> type, LogRenderer<? super T> renderer) {
+        Renderers.register(type, renderer);
+    }
+
+    /**
+     * Render a value into the message buffer the way LogEx renders parts, within the budget. For
+     * {@link LogRenderer} and {@link LogAppendable} implementations rendering nested values.
+     * 
+     * @param builder the message buffer
+     * @param part the value
+     * @param budget the maximum number of chars to append
+     */
+    public static void appendPart(StringBuilder builder, Object part, int budget) {
+        MessageParts.append(builder, part, budget);
+    }
+
+    /**
+     * Switch LogEx to the asynchronous mode. The calling thread only captures the logger, level and
+     * message parts into a preallocated ring buffer slot; a background thread formats the message
+     * and hands it to SLF4J. Events of one thread are emitted in the order they were logged. When
+     * the buffer is full, the {@link #setOverflowPolicy(OverflowPolicy) overflow policy} applies.
+     * 
+     * Parts are formatted later on the background thread, so they must not be modified after the
+     * logging call. The queue is flushed on JVM shutdown for up to
+     * {@link #DEFAULT_ASYNC_SHUTDOWN_TIMEOUT}.
+     * 
+     * @param capacity the number of buffered events; rounded up to a power of two
+     * @throws IllegalStateException if the async mode is already on
+     */
+    public static void startAsync(int capacity) {
+        startAsync(capacity, DEFAULT_ASYNC_SHUTDOWN_TIMEOUT);
+    }
+
+    /**
+     * Switch LogEx to the asynchronous mode. See {@link #startAsync(int)}.
+     * 
+     * @param capacity the number of buffered events; rounded up to a power of two
+     * @param shutdownTimeout the maximum time to flush the queue on JVM shutdown
+     * @throws IllegalStateException if the async or capture mode is already on
+     */
+    public static void startAsync(int capacity, Duration shutdownTimeout) {
+        if (shutdownTimeout == null || shutdownTimeout.isNegative()) {
+            throw new IllegalArgumentException(
+                    "Invalid async shutdown timeout: " + shutdownTimeout);
+        }
+        synchronized (ASYNC_LOCK) {
+            if (asyncDispatcher != null) {
+                throw new IllegalStateException("Async mode is already on");
+            }
+            if (binaryCapture != null) {
+                throw new IllegalStateException("Capture mode is on");
+            }
+            asyncDispatcher = new AsyncDispatcher(capacity, overflowPolicy, dropSummaryInterval,
+                    shutdownTimeout);
+        }
+    }
+
+    /**
+     * Switch LogEx back to the synchronous mode, flushing the queued events.
+     * 
+     * @param timeout the maximum time to wait for the flush
+     * @return true if every queued event was emitted, false on timeout
+     */
+    public static boolean stopAsync(Duration timeout) {
+        if (timeout == null || timeout.isNegative()) {
+            throw new IllegalArgumentException("Invalid async stop timeout: " + timeout);
+        }
+        final AsyncDispatcher async;
+        synchronized (ASYNC_LOCK) {
+            async = asyncDispatcher;
+            asyncDispatcher = null;
+        }
+        return async == null || async.stop(timeout);
+    }
+
+    /**
+     * Check whether LogEx runs in the asynchronous mode.
+     * 
+     * @return true if the async mode is on
+     */
+    public static boolean isAsync() {
+        return asyncDispatcher != null;
+    }
+
+    /**
+     * Get the async overflow policy.
+     * 
+     * @return the policy
+     */
+    public static OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Set what the async and capture modes do with new events when their buffer is full. The
+     * default is {@link OverflowPolicy#block()}. Takes effect immediately, also when a mode is on.
+     * 
+     * @param policy the policy
+     */
+    public static void setOverflowPolicy(OverflowPolicy policy) {
+        if (policy == null) {
+            throw new IllegalArgumentException("Overflow policy must not be null");
+        }
+        synchronized (ASYNC_LOCK) {
+            overflowPolicy = policy;
+            final AsyncDispatcher async = asyncDispatcher;
+            if (async != null) {
+                async.setOverflowPolicy(policy);
+            }
+            final BinaryCapture capture = binaryCapture;
+            if (capture != null) {
+                capture.setOverflowPolicy(policy);
+            }
+        }
+    }
+
+    /**
+     * Get the interval of the async drop summary.
+     * 
+     * @return the interval
+     */
+    public static Duration getDropSummaryInterval() {
+        return dropSummaryInterval;
+    }
+
+    /**
+     * Set how often the async mode reports dropped events. The report is a WARN line with the
+     * counts per level, sent through each logger that lost events since the previous report.
+     * 
+     * @param interval the interval, positive
+     */
+    public static void setDropSummaryInterval(Duration interval) {
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Invalid drop summary interval: " + interval);
+        }
+        synchronized (ASYNC_LOCK) {
+            dropSummaryInterval = interval;
+            final AsyncDispatcher async = asyncDispatcher;
+            if (async != null) {
+                async.setSummaryInterval(interval);
+            }
+        }
+    }
+
+    /**
+     * Get the exact number of events of the level dropped by the overflow policy since the async
+     * mode was switched on.
+     * 
+     * @param level the logging level
+     * @return the number of dropped events, 0 in synchronous mode
+     */
+    public static long getAsyncDroppedCount(Level level) {
+        final AsyncDispatcher async = asyncDispatcher;
+        return async == null ? 0 : async.droppedCount(level);
+    }
+
+    /**
+     * Switch LogEx to the capture mode: a deferred-formatting variant of the async mode. The
+     * calling thread writes a site id and the raw message parts into a preallocated direct byte
+     * buffer in {@link BinaryLogFormat}: numbers and booleans as primitives, strings as their
+     * characters, other objects as their {@code String.valueOf()}. A background thread decodes the
+     * records, formats the message and hands it to SLF4J. Unlike the async mode, parts may be
+     * modified right after the call.
+     * 
+     * Messages larger than a quarter of the buffer are logged synchronously. The buffer is flushed
+     * on JVM shutdown for up to {@link #DEFAULT_ASYNC_SHUTDOWN_TIMEOUT}.
+     * 
+     * @param capacity the buffer size in bytes; rounded up to a power of two, at least 4096
+     * @throws IllegalStateException if the capture or async mode is already on
+     */
+    public static void startCapture(int capacity) {
+        startCapture(capacity, DEFAULT_ASYNC_SHUTDOWN_TIMEOUT);
+    }
+
+    /**
+     * Switch LogEx to the capture mode. See {@link #startCapture(int)}.
+     * 
+     * @param capacity the buffer size in bytes; rounded up to a power of two, at least 4096
+     * @param shutdownTimeout the maximum time to flush the buffer on JVM shutdown
+     * @throws IllegalStateException if the capture or async mode is already on
+     */
+    public static void startCapture(int capacity, Duration shutdownTimeout) {
+        if (shutdownTimeout == null || shutdownTimeout.isNegative()) {
+            throw new IllegalArgumentException(
+                    "Invalid capture shutdown timeout: " + shutdownTimeout);
+        }
+        synchronized (ASYNC_LOCK) {
+            if (binaryCapture != null) {
+                throw new IllegalStateException("Capture mode is already on");
+            }
+            if (asyncDispatcher != null) {
+                throw new IllegalStateException("Async mode is on");
+            }
+            binaryCapture = new BinaryCapture(capacity, overflowPolicy, shutdownTimeout);
+        }
+    }
+
+    /**
+     * Switch the capture mode off, flushing the captured events.
+     * 
+     * @param timeout the maximum time to wait for the flush
+     * @return true if every captured event was emitted, false on timeout
+     */
+    public static boolean stopCapture(Duration timeout) {
+        if (timeout == null || timeout.isNegative()) {
+            throw new IllegalArgumentException("Invalid capture stop timeout: " + timeout);
+        }
+        final BinaryCapture capture;
+        synchronized (ASYNC_LOCK) {
+            capture = binaryCapture;
+            binaryCapture = null;
+        }
+        return capture == null || capture.stop(timeout);
+    }
+
+    /**
+     * Check whether LogEx runs in the capture mode.
+     * 
+     * @return true if the capture mode is on
+     */
+    public static boolean isCapture() {
+        return binaryCapture != null;
+    }
+
+    /**
+     * Get the number of events dropped by the overflow policy since the capture mode was switched
+     * on.
+     * 
+     * @return the number of dropped events, 0 when the capture mode is off
+     */
+    public static long getCaptureDroppedCount() {
+        final BinaryCapture capture = binaryCapture;
+        return capture == null ? 0 : capture.droppedCount();
+    }
+
+    /**
+     * Get the sink that receives messages instead of the loggers.
+     * 
+     * @return the sink or null if messages go to the loggers
+     */
+    public static LogSink getSink() {
+        return sink;
+    }
+
+    /**
+     * Send messages to the sink instead of the SLF4J loggers, e.g. a {@link MappedFileSink} for the
+     * highest-volume streams. The loggers still decide which levels are enabled. Works in every
+     * mode: in async and capture modes the sink is called on the background thread.
+     * 
+     * @param newSink the sink or null to log through the loggers again
+     */
+    public static void setSink(LogSink newSink) {
+        sink = newSink;
+    }
+
+    /**
+     * Check whether identical consecutive messages are coalesced.
+     * 
+     * @return true if coalescing is on
+     */
+    public static boolean isCoalesceRepeats() {
+        return coalesceRepeats;
+    }
+
+    /**
+     * Coalesce identical consecutive messages of a logger into one line plus a "previous message
+     * repeated N times" line. The count is reported when the logger emits a different message or
+     * on {@link #flushRepeats()}. Off by default.
+     * 
+     * @param coalesce true to coalesce repeats
+     */
+    public static void setCoalesceRepeats(boolean coalesce) {
+        coalesceRepeats = coalesce;
+        if (!coalesce) {
+            REPEATS.flush();
+        }
+    }
+
+    /**
+     * Report pending repeat counts of coalesced messages.
+     */
+    public static void flushRepeats() {
+        REPEATS.flush();
+    }
+
+    /**
+     * Report the suppressed counts of the rate-limited call sites whose window has closed, so the
+     * count is not held back until the call site logs again. The async drainer does this on every
+     * drop summary; call it periodically, e.g. from a scheduler, when async mode is off.
+     */
+    public static void flushSuppressed() {
+        flushSuppressed(false);
+    }
+
+    /**
+     * Report the suppressed counts of the rate-limited call sites whose window has closed.
+     * 
+     * @param direct true to emit the lines bypassing the async queue (on the drainer thread)
+     */
+    static void flushSuppressed(boolean direct) {
+        final long now = System.nanoTime();
+        RATE_LIMITERS.forEach(site -> reportSuppressed(site, site.limiter().takeExpired(now),
+                direct));
+    }
+
+    /**
+     * Log the suppression line of the rate-limited call site.
+     * 
+     * @param site The call site.
+     * @param count The number of suppressed messages, nothing is logged if 0.
+     * @param direct true to emit the line bypassing the async queue
+     */
+    private static void reportSuppressed(LimitedSite site, long count, boolean direct) {
+        if (count == 0) {
+            return;
+        }
+        final String message = site.limiter().suppressedMessage(count);
+        try {
+            if (direct) {
+                emit(site.logger(), site.level(), message);
+            } else {
+                dispatch(site.logger(), site.level(), message);
+            }
+        } catch (RuntimeException e) {
+            LogMetrics.internalError("suppression report failed", e);
+        }
+    }
+
+    /**
+     * Get the named sampler, creating it keeping every event if absent. Use it as a call site
+     * sampler that can be adjusted at runtime by name.
+     * 
+     * @param name the sampler name
+     * @return the sampler
+     */
+    public static Sampler sampler(String name) {
+        return Sampling.named(name);
+    }
+
+    /**
+     * Override the sampling of every sampled call that goes to the logger with the given name,
+     * whatever rate or sampler the call site passes.
+     * 
+     * @param loggerName the logger name
+     * @param sampler the override, null to remove it
+     */
+    public static void setLoggerSampler(String loggerName, Sampler sampler) {
+        Sampling.setLoggerSampler(loggerName, sampler);
+    }
+
+    /**
+     * Get the sampling override of the logger.
+     * 
+     * @param loggerName the logger name
+     * @return the override or null
+     */
+    public static Sampler getLoggerSampler(String loggerName) {
+        return Sampling.getLoggerSampler(loggerName);
+    }
+
+    /**
+     * Check whether spans record latencies.
+     * 
+     * @return true if latency recording is on
+     */
+    public static boolean isLatencyRecording() {
+        return LatencyRecorder.isEnabled();
+    }
+
+    /**
+     * Record the elapsed time of every span in a log-linear histogram of its call site
+     * (class#method). Each histogram is registered in the platform MBean server as a
+     * {@link LatencyMXBean} with count, mean, p50, p90, p99, p999 and max. Off by default.
+     * 
+     * @param recording true to record latencies
+     */
+    public static void setLatencyRecording(boolean recording) {
+        LatencyRecorder.setEnabled(recording);
+    }
+
+    /**
+     * Get the latency summary interval.
+     * 
+     * @return the interval or null if every span is logged
+     */
+    public static Duration getLatencySummaryInterval() {
+        final long nanos = LatencyRecorder.getSummaryIntervalNanos();
+        return nanos == 0 ? null : Duration.ofNanos(nanos);
+    }
+
+    /**
+     * Replace the per-span starting/finished lines of recorded spans with a periodic summary line
+     * per call site: 'MyService#myMethod: latency: count=.., p50=.., p90=.., p99=.., p999=..,
+     * max=.. ns'. The summary is logged by the span that closes first after the interval.
+     * 
+     * @param interval the interval, null to log every span again
+     */
+    public static void setLatencySummaryInterval(Duration interval) {
+        LatencyRecorder.setSummaryInterval(interval);
+    }
+
+    /**
+     * Drop all latency histograms and unregister their MBeans.
+     */
+    public static void clearLatencies() {
+        LatencyRecorder.clear();
+    }
+
+    /**
+     * Get the self-instrumentation metrics, also registered in the platform MBean server as
+     * {@code ru.spb.tksoft.utils.log:type=LogUtils}.
+     * 
+     * @return the metrics bean
+     */
+    public static LogUtilsMXBean getMetrics() {
+        return LogMetrics.INSTANCE;
+    }
+
+    /**
+     * Check whether JFR events are emitted.
+     * 
+     * @return true if the JFR mode is on
+     */
+    public static boolean isJfrEvents() {
+        return LogJfr.isEnabled();
+    }
+
+    /**
+     * Emit JDK Flight Recorder events: 'ru.spb.tksoft.utils.log.LogCall' for LogEx and LogFx calls
+     * (level, logger, call site, formatting duration) and 'ru.spb.tksoft.utils.log.StackWalk' for
+     * caller lookups (call site, walk duration). Events are recorded only when they are enabled in
+     * a recording, e.g. {@code -XX:StartFlightRecording} with a settings file enabling them. Off by
+     * default; when off, the hooks cost a volatile read.
+     * 
+     * The {@code jdk.jfr} module is an optional dependency: the JFR classes are only loaded once
+     * the mode is switched on. On a module path, add it with {@code --add-modules jdk.jfr}.
+     * 
+     * @param enable true to emit JFR events
+     * @throws IllegalStateException if enabling and the {@code jdk.jfr} module is not present
+     */
+    public static void setJfrEvents(boolean enable) {
+        LogJfr.setEnabled(enable);
     }
 }
@@ -15,9 +15,11 @@
 package ru.spb.tksoft.utils.log;
 
 import org.slf4j.Logger;
+import org.slf4j.event.Level;
 
 /**
- * Simplified formatted logging.
+ * Simplified formatted logging. The fields of the current {@link LogContext} are passed to the
+ * backend as fluent key-values.
  *
  * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
  */
@@ -25,6 +27,126 @@ public final class LogFx extends LogBase {
 
     private LogFx() {}
 
+    /**
+     * Compile the format into a reusable template. The format is parsed once; logging through the
+     * template renders the message without scanning the format again, while the plain LogFx
+     * methods leave the format to the SLF4J backend on every call. Keep templates in
+     * {@code static final} constants:
+     * 
+     * <pre>
+     * private static final LogTemplate SHIPPED = LogFx.template("order {} shipped in {} ms");
+     * ...
+     * SHIPPED.info(log, orderId, elapsed);
+     * </pre>
+     * 
+     * @param format The format with SLF4J '{}' placeholders.
+     * @return The template.
+     */
+    public static LogTemplate template(String format) {
+        return LogTemplate.compile(format);
+    }
+
+    /**
+     * Count the level check and record the call if it is emitted.
+     * 
+     * @param logger The logger.
+     * @param enabled The level check result.
+     * @param level The logging level.
+     * @return The level check result.
+     */
+    private static boolean emitting(Logger logger, boolean enabled, Level level) {
+        if (LogMetrics.emitting(enabled, level)) {
+            LogJfr.formattedByBackend(logger, level);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Count and record an emitted call whose level check was counted before.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     */
+    private static void emitted(Logger logger, Level level) {
+        LogMetrics.emitted(level);
+        LogJfr.formattedByBackend(logger, level);
+    }
+
+    /**
+     * Log through the fluent API with the fields of the current {@link LogContext} as key-values.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param message The message.
+     * @return false if the context is empty and nothing was logged.
+     */
+    private static boolean withContext(Logger logger, Level level, String message) {
+        final LogContext context = LogContext.current();
+        if (context.isEmpty()) {
+            return false;
+        }
+        context.addTo(logger.atLevel(level)).log(message);
+        return true;
+    }
+
+    /**
+     * Log through the fluent API with the fields of the current {@link LogContext} as key-values.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     * @return false if the context is empty and nothing was logged.
+     */
+    private static boolean withContext(Logger logger, Level level, String format, Object arg1) {
+        final LogContext context = LogContext.current();
+        if (context.isEmpty()) {
+            return false;
+        }
+        context.addTo(logger.atLevel(level)).log(format, arg1);
+        return true;
+    }
+
+    /**
+     * Log through the fluent API with the fields of the current {@link LogContext} as key-values.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     * @param arg2 The second argument for the message.
+     * @return false if the context is empty and nothing was logged.
+     */
+    private static boolean withContext(Logger logger, Level level, String format, Object arg1,
+            Object arg2) {
+        final LogContext context = LogContext.current();
+        if (context.isEmpty()) {
+            return false;
+        }
+        context.addTo(logger.atLevel(level)).log(format, arg1, arg2);
+        return true;
+    }
+
+    /**
+     * Log through the fluent API with the fields of the current {@link LogContext} as key-values.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param format The format of the message.
+     * @param args The arguments for the message.
+     * @return false if the context is empty and nothing was logged.
+     */
+    private static boolean withContext(Logger logger, Level level, String format,
+            Object[] args) {
+        final LogContext context = LogContext.current();
+        if (context.isEmpty()) {
+            return false;
+        }
+        context.addTo(logger.atLevel(level)).log(format, args);
+        return true;
+    }
+
     /**
      * Log the current method with 'trace' severity.
      * 
@@ -33,8 +155,98 @@ public final class LogFx extends LogBase {
      * @param args The arguments for the message.
      */
     public static void trace(Logger logger, String format, Object... args) {
-        if (logger.isTraceEnabled()) {
-            logger.trace(format, args);
+        if (emitting(logger, logger.isTraceEnabled(), Level.TRACE)) {
+            if (!withContext(logger, Level.TRACE, format, args)) {
+                logger.trace(format, args);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'trace' severity. Variant without arguments: no array is
+     * allocated.
+     * 
+     * @param logger The logger.
+     * @param message The message.
+     */
+    public static void trace(Logger logger, String message) {
+        if (emitting(logger, logger.isTraceEnabled(), Level.TRACE)) {
+            if (!withContext(logger, Level.TRACE, message)) {
+                logger.trace(message);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'trace' severity. Fixed-arity variant: no array is allocated,
+     * the call is forwarded to the non-varargs SLF4J method.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     */
+    public static void trace(Logger logger, String format, Object arg1) {
+        if (emitting(logger, logger.isTraceEnabled(), Level.TRACE)) {
+            if (!withContext(logger, Level.TRACE, format, arg1)) {
+                logger.trace(format, arg1);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'trace' severity. Fixed-arity variant: no array is allocated,
+     * the call is forwarded to the non-varargs SLF4J method.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     * @param arg2 The second argument for the message.
+     */
+    public static void trace(Logger logger, String format, Object arg1, Object arg2) {
+        if (emitting(logger, logger.isTraceEnabled(), Level.TRACE)) {
+            if (!withContext(logger, Level.TRACE, format, arg1, arg2)) {
+                logger.trace(format, arg1, arg2);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'trace' severity. Fixed-arity variant: the argument array is only
+     * allocated when the level is enabled.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     * @param arg2 The second argument for the message.
+     * @param arg3 The third argument for the message.
+     */
+    public static void trace(Logger logger, String format, Object arg1, Object arg2, Object arg3) {
+        if (emitting(logger, logger.isTraceEnabled(), Level.TRACE)) {
+            final Object[] args = {arg1, arg2, arg3};
+            if (!withContext(logger, Level.TRACE, format, args)) {
+                logger.trace(format, args);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'trace' severity. Fixed-arity variant: the argument array is only
+     * allocated when the level is enabled.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     * @param arg2 The second argument for the message.
+     * @param arg3 The third argument for the message.
+     * @param arg4 The fourth argument for the message.
+     */
+    public static void trace(Logger logger, String format,
+            Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (emitting(logger, logger.isTraceEnabled(), Level.TRACE)) {
+            final Object[] args = {arg1, arg2, arg3, arg4};
+            if (!withContext(logger, Level.TRACE, format, args)) {
+                logger.trace(format, args);
+            }
         }
     }
 
@@ -46,8 +258,98 @@ public final class LogFx extends LogBase {
      * @param args The arguments for the message.
      */
     public static void debug(Logger logger, String format, Object... args) {
-        if (logger.isDebugEnabled()) {
-            logger.debug(format, args);
+        if (emitting(logger, logger.isDebugEnabled(), Level.DEBUG)) {
+            if (!withContext(logger, Level.DEBUG, format, args)) {
+                logger.debug(format, args);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'debug' severity. Variant without arguments: no array is
+     * allocated.
+     * 
+     * @param logger The logger.
+     * @param message The message.
+     */
+    public static void debug(Logger logger, String message) {
+        if (emitting(logger, logger.isDebugEnabled(), Level.DEBUG)) {
+            if (!withContext(logger, Level.DEBUG, message)) {
+                logger.debug(message);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'debug' severity. Fixed-arity variant: no array is allocated,
+     * the call is forwarded to the non-varargs SLF4J method.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     */
+    public static void debug(Logger logger, String format, Object arg1) {
+        if (emitting(logger, logger.isDebugEnabled(), Level.DEBUG)) {
+            if (!withContext(logger, Level.DEBUG, format, arg1)) {
+                logger.debug(format, arg1);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'debug' severity. Fixed-arity variant: no array is allocated,
+     * the call is forwarded to the non-varargs SLF4J method.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     * @param arg2 The second argument for the message.
+     */
+    public static void debug(Logger logger, String format, Object arg1, Object arg2) {
+        if (emitting(logger, logger.isDebugEnabled(), Level.DEBUG)) {
+            if (!withContext(logger, Level.DEBUG, format, arg1, arg2)) {
+                logger.debug(format, arg1, arg2);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'debug' severity. Fixed-arity variant: the argument array is only
+     * allocated when the level is enabled.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     * @param arg2 The second argument for the message.
+     * @param arg3 The third argument for the message.
+     */
+    public static void debug(Logger logger, String format, Object arg1, Object arg2, Object arg3) {
+        if (emitting(logger, logger.isDebugEnabled(), Level.DEBUG)) {
+            final Object[] args = {arg1, arg2, arg3};
+            if (!withContext(logger, Level.DEBUG, format, args)) {
+                logger.debug(format, args);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'debug' severity. Fixed-arity variant: the argument array is only
+     * allocated when the level is enabled.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     * @param arg2 The second argument for the message.
+     * @param arg3 The third argument for the message.
+     * @param arg4 The fourth argument for the message.
+     */
+    public static void debug(Logger logger, String format,
+            Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (emitting(logger, logger.isDebugEnabled(), Level.DEBUG)) {
+            final Object[] args = {arg1, arg2, arg3, arg4};
+            if (!withContext(logger, Level.DEBUG, format, args)) {
+                logger.debug(format, args);
+            }
         }
     }
 
@@ -59,8 +361,98 @@ public final class LogFx extends LogBase {
      * @param args The arguments for the message.
      */
     public static void info(Logger logger, String format, Object... args) {
-        if (logger.isInfoEnabled()) {
-            logger.info(format, args);
+        if (emitting(logger, logger.isInfoEnabled(), Level.INFO)) {
+            if (!withContext(logger, Level.INFO, format, args)) {
+                logger.info(format, args);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'info' severity. Variant without arguments: no array is
+     * allocated.
+     * 
+     * @param logger The logger.
+     * @param message The message.
+     */
+    public static void info(Logger logger, String message) {
+        if (emitting(logger, logger.isInfoEnabled(), Level.INFO)) {
+            if (!withContext(logger, Level.INFO, message)) {
+                logger.info(message);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'info' severity. Fixed-arity variant: no array is allocated,
+     * the call is forwarded to the non-varargs SLF4J method.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     */
+    public static void info(Logger logger, String format, Object arg1) {
+        if (emitting(logger, logger.isInfoEnabled(), Level.INFO)) {
+            if (!withContext(logger, Level.INFO, format, arg1)) {
+                logger.info(format, arg1);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'info' severity. Fixed-arity variant: no array is allocated,
+     * the call is forwarded to the non-varargs SLF4J method.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     * @param arg2 The second argument for the message.
+     */
+    public static void info(Logger logger, String format, Object arg1, Object arg2) {
+        if (emitting(logger, logger.isInfoEnabled(), Level.INFO)) {
+            if (!withContext(logger, Level.INFO, format, arg1, arg2)) {
+                logger.info(format, arg1, arg2);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'info' severity. Fixed-arity variant: the argument array is only
+     * allocated when the level is enabled.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     * @param arg2 The second argument for the message.
+     * @param arg3 The third argument for the message.
+     */
+    public static void info(Logger logger, String format, Object arg1, Object arg2, Object arg3) {
+        if (emitting(logger, logger.isInfoEnabled(), Level.INFO)) {
+            final Object[] args = {arg1, arg2, arg3};
+            if (!withContext(logger, Level.INFO, format, args)) {
+                logger.info(format, args);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'info' severity. Fixed-arity variant: the argument array is only
+     * allocated when the level is enabled.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     * @param arg2 The second argument for the message.
+     * @param arg3 The third argument for the message.
+     * @param arg4 The fourth argument for the message.
+     */
+    public static void info(Logger logger, String format,
+            Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (emitting(logger, logger.isInfoEnabled(), Level.INFO)) {
+            final Object[] args = {arg1, arg2, arg3, arg4};
+            if (!withContext(logger, Level.INFO, format, args)) {
+                logger.info(format, args);
+            }
         }
     }
 
@@ -72,8 +464,98 @@ public final class LogFx extends LogBase {
      * @param args The arguments for the message.
      */
     public static void warn(Logger logger, String format, Object... args) {
-        if (logger.isWarnEnabled()) {
-            logger.warn(format, args);
+        if (emitting(logger, logger.isWarnEnabled(), Level.WARN)) {
+            if (!withContext(logger, Level.WARN, format, args)) {
+                logger.warn(format, args);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'warn' severity. Variant without arguments: no array is
+     * allocated.
+     * 
+     * @param logger The logger.
+     * @param message The message.
+     */
+    public static void warn(Logger logger, String message) {
+        if (emitting(logger, logger.isWarnEnabled(), Level.WARN)) {
+            if (!withContext(logger, Level.WARN, message)) {
+                logger.warn(message);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'warn' severity. Fixed-arity variant: no array is allocated,
+     * the call is forwarded to the non-varargs SLF4J method.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     */
+    public static void warn(Logger logger, String format, Object arg1) {
+        if (emitting(logger, logger.isWarnEnabled(), Level.WARN)) {
+            if (!withContext(logger, Level.WARN, format, arg1)) {
+                logger.warn(format, arg1);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'warn' severity. Fixed-arity variant: no array is allocated,
+     * the call is forwarded to the non-varargs SLF4J method.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     * @param arg2 The second argument for the message.
+     */
+    public static void warn(Logger logger, String format, Object arg1, Object arg2) {
+        if (emitting(logger, logger.isWarnEnabled(), Level.WARN)) {
+            if (!withContext(logger, Level.WARN, format, arg1, arg2)) {
+                logger.warn(format, arg1, arg2);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'warn' severity. Fixed-arity variant: the argument array is only
+     * allocated when the level is enabled.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     * @param arg2 The second argument for the message.
+     * @param arg3 The third argument for the message.
+     */
+    public static void warn(Logger logger, String format, Object arg1, Object arg2, Object arg3) {
+        if (emitting(logger, logger.isWarnEnabled(), Level.WARN)) {
+            final Object[] args = {arg1, arg2, arg3};
+            if (!withContext(logger, Level.WARN, format, args)) {
+                logger.warn(format, args);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'warn' severity. Fixed-arity variant: the argument array is only
+     * allocated when the level is enabled.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     * @param arg2 The second argument for the message.
+     * @param arg3 The third argument for the message.
+     * @param arg4 The fourth argument for the message.
+     */
+    public static void warn(Logger logger, String format,
+            Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (emitting(logger, logger.isWarnEnabled(), Level.WARN)) {
+            final Object[] args = {arg1, arg2, arg3, arg4};
+            if (!withContext(logger, Level.WARN, format, args)) {
+                logger.warn(format, args);
+            }
         }
     }
 
@@ -85,8 +567,140 @@ public final class LogFx extends LogBase {
      * @param args The arguments for the message.
      */
     public static void error(Logger logger, String format, Object... args) {
-        if (logger.isErrorEnabled()) {
-            logger.error(format, args);
+        if (emitting(logger, logger.isErrorEnabled(), Level.ERROR)) {
+            if (!withContext(logger, Level.ERROR, format, args)) {
+                logger.error(format, args);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'error' severity. Variant without arguments: no array is
+     * allocated.
+     * 
+     * @param logger The logger.
+     * @param message The message.
+     */
+    public static void error(Logger logger, String message) {
+        if (emitting(logger, logger.isErrorEnabled(), Level.ERROR)) {
+            if (!withContext(logger, Level.ERROR, message)) {
+                logger.error(message);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'error' severity. Fixed-arity variant: no array is allocated,
+     * the call is forwarded to the non-varargs SLF4J method.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     */
+    public static void error(Logger logger, String format, Object arg1) {
+        if (emitting(logger, logger.isErrorEnabled(), Level.ERROR)) {
+            if (!withContext(logger, Level.ERROR, format, arg1)) {
+                logger.error(format, arg1);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'error' severity. Fixed-arity variant: no array is allocated,
+     * the call is forwarded to the non-varargs SLF4J method.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     * @param arg2 The second argument for the message.
+     */
+    public static void error(Logger logger, String format, Object arg1, Object arg2) {
+        if (emitting(logger, logger.isErrorEnabled(), Level.ERROR)) {
+            if (!withContext(logger, Level.ERROR, format, arg1, arg2)) {
+                logger.error(format, arg1, arg2);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'error' severity. Fixed-arity variant: the argument array is only
+     * allocated when the level is enabled.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     * @param arg2 The second argument for the message.
+     * @param arg3 The third argument for the message.
+     */
+    public static void error(Logger logger, String format, Object arg1, Object arg2, Object arg3) {
+        if (emitting(logger, logger.isErrorEnabled(), Level.ERROR)) {
+            final Object[] args = {arg1, arg2, arg3};
+            if (!withContext(logger, Level.ERROR, format, args)) {
+                logger.error(format, args);
+            }
+        }
+    }
+
+    /**
+     * Log the current method with 'error' severity. Fixed-arity variant: the argument array is only
+     * allocated when the level is enabled.
+     * 
+     * @param logger The logger.
+     * @param format The format of the message.
+     * @param arg1 The first argument for the message.
+     * @param arg2 The second argument for the message.
+     * @param arg3 The third argument for the message.
+     * @param arg4 The fourth argument for the message.
+     */
+    public static void error(Logger logger, String format,
+            Object arg1, Object arg2, Object arg3, Object arg4) {
+        if (emitting(logger, logger.isErrorEnabled(), Level.ERROR)) {
+            final Object[] args = {arg1, arg2, arg3, arg4};
+            if (!withContext(logger, Level.ERROR, format, args)) {
+                logger.error(format, args);
+            }
+        }
+    }
+
+    /**
+     * Log with 'trace' severity one of every n times. Calls are counted per message format; the
+     * decision is made after the level check and before any formatting. Counters are kept for up
+     * to 1024 formats; the least used ones are evicted and start counting anew.
+     * 
+     * @param logger The logger.
+     * @param n Log one of every n calls; replaced by the logger override if one is set, see
+     *        {@link LogEx#setLoggerSampler(String, Sampler)}.
+     * @param format The format of the message.
+     * @param args The arguments for the message.
+     */
+    public static void traceEveryNth(Logger logger, int n, String format, Object... args) {
+        if (LogMetrics.enabled(logger.isTraceEnabled(), Level.TRACE)
+                && Sampling.sampleEveryNth(logger, n, format)) {
+            emitted(logger, Level.TRACE);
+            if (!withContext(logger, Level.TRACE, format, args)) {
+                logger.trace(format, args);
+            }
+        }
+    }
+
+    /**
+     * Log with 'debug' severity one of every n times. Calls are counted per message format; the
+     * decision is made after the level check and before any formatting. Counters are kept for up
+     * to 1024 formats; the least used ones are evicted and start counting anew.
+     * 
+     * @param logger The logger.
+     * @param n Log one of every n calls; replaced by the logger override if one is set, see
+     *        {@link LogEx#setLoggerSampler(String, Sampler)}.
+     * @param format The format of the message.
+     * @param args The arguments for the message.
+     */
+    public static void debugEveryNth(Logger logger, int n, String format, Object... args) {
+        if (LogMetrics.enabled(logger.isDebugEnabled(), Level.DEBUG)
+                && Sampling.sampleEveryNth(logger, n, format)) {
+            emitted(logger, Level.DEBUG);
+            if (!withContext(logger, Level.DEBUG, format, args)) {
+                logger.debug(format, args);
+            }
         }
     }
 }
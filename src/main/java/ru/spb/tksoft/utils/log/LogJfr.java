@@ -0,0 +1,132 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.lang.StackWalker.StackFrame;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+/**
+ * JFR hooks. When the mode is off, every hook costs a single volatile read; when it is on but the
+ * events are not enabled in any recording, the hooks only check the event state.
+ *
+ * The {@code jdk.jfr} module is optional: this class does not refer to it, and events are handed
+ * around as plain objects, so {@link LogJfrEvents} and the event classes are only loaded once the
+ * mode is switched on, which requires the module to be present.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+final class LogJfr {
+
+    /** Name of the optional JFR module. */
+    private static final String JFR_MODULE = "jdk.jfr";
+
+    private static volatile boolean enabled;
+
+    private LogJfr() {}
+
+    /**
+     * @return true if the JFR events are emitted.
+     */
+    static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param enable true to emit the JFR events.
+     * @throws IllegalStateException if enabling and the {@code jdk.jfr} module is not present.
+     */
+    static void setEnabled(boolean enable) {
+        if (enable) {
+            final Optional<Module> jfr = ModuleLayer.boot().findModule(JFR_MODULE);
+            if (jfr.isEmpty()) {
+                throw new IllegalStateException(
+                        "JFR events need the " + JFR_MODULE + " module, which is not present");
+            }
+            // 'requires static' does not make the module readable unless it was resolved anyway
+            LogJfr.class.getModule().addReads(jfr.get());
+        }
+        enabled = enable;
+    }
+
+    /**
+     * Start a log call event before the message is built.
+     *
+     * @return The event or null if it is not recorded.
+     */
+    static Object beginCall() {
+        return enabled ? LogJfrEvents.beginCall() : null;
+    }
+
+    /**
+     * Mark the end of formatting.
+     *
+     * @param event The event from {@link #beginCall()} or null.
+     */
+    static void formatted(Object event) {
+        if (event != null) {
+            LogJfrEvents.formatted((LogCallEvent) event);
+        }
+    }
+
+    /**
+     * Commit the log call event after the message was handed over.
+     *
+     * @param event The event from {@link #beginCall()} or null.
+     * @param logger The logger.
+     * @param level The level.
+     * @param message The message.
+     */
+    static void commitCall(Object event, Logger logger, Level level, String message) {
+        if (event != null) {
+            LogJfrEvents.commitCall((LogCallEvent) event, logger, level, message);
+        }
+    }
+
+    /**
+     * Commit a log call event for a call formatted by the SLF4J backend.
+     *
+     * @param logger The logger.
+     * @param level The level.
+     */
+    static void formattedByBackend(Logger logger, Level level) {
+        if (enabled) {
+            LogJfrEvents.formattedByBackend(logger, level);
+        }
+    }
+
+    /**
+     * Start a stack walk event.
+     *
+     * @return The event or null if it is not recorded.
+     */
+    static Object beginWalk() {
+        return enabled ? LogJfrEvents.beginWalk() : null;
+    }
+
+    /**
+     * Commit the stack walk event.
+     *
+     * @param event The event from {@link #beginWalk()} or null.
+     * @param frame The found frame.
+     * @param skip The number of skipped frames.
+     */
+    static void commitWalk(Object event, StackFrame frame, int skip) {
+        if (event != null) {
+            LogJfrEvents.commitWalk((StackWalkEvent) event, frame, skip);
+        }
+    }
+}
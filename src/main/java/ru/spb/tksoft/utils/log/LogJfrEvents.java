@@ -0,0 +1,139 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.lang.StackWalker.StackFrame;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+/**
+ * JFR event emission. Together with the event classes, the only code that refers to
+ * {@code jdk.jfr}; it is loaded through {@link LogJfr} once the JFR mode is switched on.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+final class LogJfrEvents {
+
+    /** Library classes skipped when looking for the call site. */
+    private static final Set<String> LIBRARY_CLASSES = Set.of(LogEx.class.getName(),
+            LogFx.class.getName(), LogParts.class.getName(), LogSpan.class.getName(),
+            LogTemplate.class.getName(), LogEvent.class.getName(), LogJfr.class.getName(),
+            LogJfrEvents.class.getName());
+
+    private static final StackWalker CALL_SITE_WALKER = StackWalker.getInstance();
+
+    private LogJfrEvents() {}
+
+    /**
+     * Start a log call event before the message is built.
+     *
+     * @return The event or null if it is not recorded.
+     */
+    static LogCallEvent beginCall() {
+        final LogCallEvent event = new LogCallEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        event.formatStart = System.nanoTime();
+        return event;
+    }
+
+    /**
+     * Mark the end of formatting.
+     *
+     * @param event The event from {@link #beginCall()}.
+     */
+    static void formatted(LogCallEvent event) {
+        event.formatDuration = System.nanoTime() - event.formatStart;
+    }
+
+    /**
+     * Commit the log call event after the message was handed over.
+     *
+     * @param event The event from {@link #beginCall()}.
+     * @param logger The logger.
+     * @param level The level.
+     * @param message The message.
+     */
+    static void commitCall(LogCallEvent event, Logger logger, Level level, String message) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.level = level.name();
+            event.logger = logger.getName();
+            event.messageLength = message.length();
+            event.callSite = callSite();
+            event.commit();
+        }
+    }
+
+    /**
+     * Commit a log call event for a call formatted by the SLF4J backend.
+     *
+     * @param logger The logger.
+     * @param level The level.
+     */
+    static void formattedByBackend(Logger logger, Level level) {
+        final LogCallEvent event = new LogCallEvent();
+        if (event.shouldCommit()) {
+            event.level = level.name();
+            event.logger = logger.getName();
+            event.callSite = callSite();
+            event.commit();
+        }
+    }
+
+    /**
+     * Start a stack walk event.
+     *
+     * @return The event or null if it is not recorded.
+     */
+    static StackWalkEvent beginWalk() {
+        final StackWalkEvent event = new StackWalkEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Commit the stack walk event.
+     *
+     * @param event The event from {@link #beginWalk()}.
+     * @param frame The found frame.
+     * @param skip The number of skipped frames.
+     */
+    static void commitWalk(StackWalkEvent event, StackFrame frame, int skip) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.callSite = frame.getClassName() + "#" + frame.getMethodName();
+            event.skip = skip;
+            event.commit();
+        }
+    }
+
+    /**
+     * Find the first frame outside the library; only walked for recorded events.
+     */
+    private static String callSite() {
+        return CALL_SITE_WALKER.walk(frames -> frames
+                .filter(frame -> !LIBRARY_CLASSES.contains(frame.getClassName()))
+                .findFirst()
+                .map(frame -> LogEx.callSite(frame).qualifiedName())
+                .orElse(null));
+    }
+}
@@ -0,0 +1,507 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.slf4j.event.Level;
+
+/**
+ * Streaming JSON writer producing UTF-8 straight into a pooled byte array, for JSON log pipelines.
+ * Obtained from {@link #acquire()} and given back with {@link #release()}:
+ *
+ * <pre>
+ * LogJson json = LogJson.acquire();
+ * try {
+ *     json.beginEvent("ship", Level.INFO, "order shipped").field("orderId", 42).endObject();
+ *     channel.write(json.buffer());
+ * } finally {
+ *     json.release();
+ * }
+ * </pre>
+ *
+ * Strings are escaped with a precomputed table: ASCII chars that need no escaping are narrowed to
+ * bytes directly, control chars become two-char or hex escapes, other chars are encoded as UTF-8
+ * and unpaired surrogates as '?'. Integers are written as digits without {@code toString()}.
+ * Message parts are joined with ': ' like in {@link LogEx#log(org.slf4j.Logger, Level, Object[])}
+ * and escaped while they are written; parts other than strings, integers and booleans are rendered
+ * into a message buffer first.
+ *
+ * The writer is not thread-safe. It grows as needed; a writer that grew over
+ * {@link #MAX_RETAINED_CAPACITY} is not pooled again.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public final class LogJson {
+
+    /** Initial capacity of a writer. */
+    public static final int INITIAL_CAPACITY = 512;
+
+    /** Largest writer capacity retained by {@link #release()}. */
+    public static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    /** Chars escaped per capacity check; an escaped char takes at most 6 bytes. */
+    private static final int CHUNK = 256;
+
+    /** Escape table of ASCII chars: 0 - as is, 'u' - hex escape, other - the char after '\'. */
+    private static final byte[] ESCAPES = new byte[0x80];
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] NULL = ascii("null");
+    private static final byte[] TRUE = ascii("true");
+    private static final byte[] FALSE = ascii("false");
+    private static final byte[] SEPARATOR = ascii(": ");
+
+    /** Quoted level names by {@code Level.ordinal()}. */
+    private static final byte[][] LEVELS = new byte[Level.values().length][];
+
+    static {
+        for (int c = 0; c < 0x20; c++) {
+            ESCAPES[c] = 'u';
+        }
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\t'] = 't';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES[0x7F] = 'u';
+
+        for (Level level : Level.values()) {
+            LEVELS[level.ordinal()] = ascii('"' + level.name() + '"');
+        }
+    }
+
+    private static final StripedPool<LogJson> POOL = StripedPool.forProcessors();
+
+    private byte[] bytes = new byte[INITIAL_CAPACITY];
+    private int length;
+
+    /** Whether the next name or value is preceded by a comma. */
+    private boolean comma;
+
+    /** Cached wrapper of the array, replaced when the array grows. */
+    private ByteBuffer wrapper = ByteBuffer.wrap(bytes);
+
+    private LogJson() {}
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Take an empty writer from the pool.
+     *
+     * @return The writer.
+     */
+    public static LogJson acquire() {
+        final LogJson json = POOL.poll();
+        return json != null ? json : new LogJson();
+    }
+
+    /**
+     * Give the writer back to the pool. The writer must not be used afterwards.
+     */
+    public void release() {
+        reset();
+        if (bytes.length <= MAX_RETAINED_CAPACITY) {
+            POOL.offer(this);
+        }
+    }
+
+    /**
+     * Discard everything written so far.
+     *
+     * @return This writer.
+     */
+    public LogJson reset() {
+        length = 0;
+        comma = false;
+        return this;
+    }
+
+    /**
+     * @return The number of bytes written.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Get the written bytes without copying. The buffer is valid until the next write or
+     * {@link #release()}.
+     *
+     * @return The buffer, ready to read from position 0 to the limit.
+     */
+    public ByteBuffer buffer() {
+        return wrapper.clear().limit(length);
+    }
+
+    /**
+     * Copy the written bytes into the buffer at its position and advance the position.
+     *
+     * @param target The target buffer, heap or direct.
+     * @return The number of bytes written.
+     * @throws BufferOverflowException if the bytes do not fit; the position is unchanged then.
+     */
+    public int writeTo(ByteBuffer target) {
+        if (length > target.remaining()) {
+            throw new BufferOverflowException();
+        }
+        target.put(bytes, 0, length);
+        return length;
+    }
+
+    /**
+     * Decode the written bytes, for use as the message sent to SLF4J.
+     *
+     * @return The JSON text.
+     */
+    @Override
+    public String toString() {
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Begin a log event object with the method name, the level and the message joined from the
+     * parts. The object is left open for more fields.
+     *
+     * @param method The method name, omitted if null.
+     * @param level The logging level.
+     * @param parts The message parts.
+     * @return This writer.
+     */
+    public LogJson beginEvent(String method, Level level, Object... parts) {
+        beginObject();
+        if (method != null) {
+            field("method", method);
+        }
+        name("level");
+        put(LEVELS[level.ordinal()]);
+        comma = true;
+        name("message");
+        return message(parts);
+    }
+
+    /**
+     * Write '{'.
+     *
+     * @return This writer.
+     */
+    public LogJson beginObject() {
+        separate();
+        ensure(1);
+        bytes[length++] = '{';
+        comma = false;
+        return this;
+    }
+
+    /**
+     * Write '}'.
+     *
+     * @return This writer.
+     */
+    public LogJson endObject() {
+        ensure(1);
+        bytes[length++] = '}';
+        comma = true;
+        return this;
+    }
+
+    /**
+     * Write the field name.
+     *
+     * @param name The name.
+     * @return This writer.
+     */
+    public LogJson name(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Field name must not be null");
+        }
+        separate();
+        string(name);
+        ensure(1);
+        bytes[length++] = ':';
+        comma = false;
+        return this;
+    }
+
+    /**
+     * Write the field.
+     *
+     * @param name The name.
+     * @param value The value.
+     * @return This writer.
+     */
+    public LogJson field(String name, String value) {
+        return name(name).value(value);
+    }
+
+    /**
+     * Write the field.
+     *
+     * @param name The name.
+     * @param value The value.
+     * @return This writer.
+     */
+    public LogJson field(String name, long value) {
+        return name(name).value(value);
+    }
+
+    /**
+     * Write the field.
+     *
+     * @param name The name.
+     * @param value The value.
+     * @return This writer.
+     */
+    public LogJson field(String name, boolean value) {
+        return name(name).value(value);
+    }
+
+    /**
+     * Write the field.
+     *
+     * @param name The name.
+     * @param value The value, see {@link #value(Object)}.
+     * @return This writer.
+     */
+    public LogJson field(String name, Object value) {
+        return name(name).value(value);
+    }
+
+    /**
+     * Write the string value.
+     *
+     * @param value The value, null is written as null.
+     * @return This writer.
+     */
+    public LogJson value(String value) {
+        separate();
+        if (value == null) {
+            put(NULL);
+        } else {
+            string(value);
+        }
+        comma = true;
+        return this;
+    }
+
+    /**
+     * Write the number.
+     *
+     * @param value The value.
+     * @return This writer.
+     */
+    public LogJson value(long value) {
+        separate();
+        digits(value);
+        comma = true;
+        return this;
+    }
+
+    /**
+     * Write the boolean.
+     *
+     * @param value The value.
+     * @return This writer.
+     */
+    public LogJson value(boolean value) {
+        separate();
+        put(value ? TRUE : FALSE);
+        comma = true;
+        return this;
+    }
+
+    /**
+     * Write the value: null, integers and booleans as JSON literals, finite floating-point
+     * numbers as numbers, anything else as a string rendered the way LogEx renders message parts.
+     *
+     * @param value The value.
+     * @return This writer.
+     */
+    public LogJson value(Object value) {
+        if (value == null || value instanceof String) {
+            return value((String) value);
+        }
+        if (isInteger(value)) {
+            return value(((Number) value).longValue());
+        }
+        if (value instanceof Boolean flag) {
+            return value(flag.booleanValue());
+        }
+        separate();
+        if ((value instanceof Double || value instanceof Float)
+                && Double.isFinite(((Number) value).doubleValue())) {
+            put(ascii(value.toString()));
+        } else {
+            quote();
+            part(value);
+            quote();
+        }
+        comma = true;
+        return this;
+    }
+
+    /**
+     * Write the string value joined from the message parts.
+     *
+     * @param parts The message parts.
+     * @return This writer.
+     */
+    public LogJson message(Object... parts) {
+        separate();
+        quote();
+        if (parts != null) {
+            for (int i = 0; i < parts.length; i++) {
+                if (i > 0) {
+                    put(SEPARATOR);
+                }
+                part(parts[i]);
+            }
+        }
+        quote();
+        comma = true;
+        return this;
+    }
+
+    /**
+     * Write the key-value pairs of the event as fields.
+     *
+     * @param event The event.
+     * @return This writer.
+     */
+    LogJson fields(LogEvent event) {
+        for (int i = 0; i < event.size(); i++) {
+            field(event.key(i), event.value(i));
+        }
+        return this;
+    }
+
+    private static boolean isInteger(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short
+                || value instanceof Byte;
+    }
+
+    /**
+     * Write the escaped text of one message part, without quotes.
+     */
+    private void part(Object part) {
+        if (part == null || part instanceof String) {
+            escape(String.valueOf(part));
+        } else if (isInteger(part)) {
+            digits(((Number) part).longValue());
+        } else if (part instanceof Boolean flag) {
+            put(flag ? TRUE : FALSE);
+        } else {
+            final StringBuilder builder = MessageBuffers.acquire();
+            try {
+                escape(MessageParts.append(builder, part));
+            } finally {
+                MessageBuffers.release(builder);
+            }
+        }
+    }
+
+    private void separate() {
+        if (comma) {
+            ensure(1);
+            bytes[length++] = ',';
+        }
+    }
+
+    private void quote() {
+        ensure(1);
+        bytes[length++] = '"';
+    }
+
+    private void string(String s) {
+        quote();
+        escape(s);
+        quote();
+    }
+
+    private void put(byte[] literal) {
+        ensure(literal.length);
+        System.arraycopy(literal, 0, bytes, length, literal.length);
+        length += literal.length;
+    }
+
+    private void digits(long value) {
+        ensure(20);
+        length = Utf8.encode(value, bytes, length, bytes.length);
+    }
+
+    /**
+     * Escape the text as UTF-8, checking the capacity once per chunk. A char takes at most 6
+     * bytes, so a surrogate pair straddling the chunk end fits in the reserve of its high char.
+     */
+    private void escape(CharSequence s) {
+        final int chars = s.length();
+        int i = 0;
+        while (i < chars) {
+            final int to = Math.min(i + CHUNK, chars);
+            ensure((to - i) * 6);
+            final byte[] dst = bytes;
+            int at = length;
+            for (; i < to; i++) {
+                final char c = s.charAt(i);
+                if (c < 0x80) {
+                    final byte escape = ESCAPES[c];
+                    if (escape == 0) {
+                        dst[at++] = (byte) c;
+                    } else {
+                        dst[at++] = '\\';
+                        dst[at++] = escape;
+                        if (escape == 'u') {
+                            dst[at++] = '0';
+                            dst[at++] = '0';
+                            dst[at++] = HEX[c >> 4];
+                            dst[at++] = HEX[c & 0xF];
+                        }
+                    }
+                } else if (c < 0x800) {
+                    dst[at++] = (byte) (0xC0 | (c >> 6));
+                    dst[at++] = (byte) (0x80 | (c & 0x3F));
+                } else if (!Character.isSurrogate(c)) {
+                    dst[at++] = (byte) (0xE0 | (c >> 12));
+                    dst[at++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    dst[at++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < chars
+                        && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    final int cp = Character.toCodePoint(c, s.charAt(++i));
+                    dst[at++] = (byte) (0xF0 | (cp >> 18));
+                    dst[at++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    dst[at++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    dst[at++] = (byte) (0x80 | (cp & 0x3F));
+                } else {
+                    dst[at++] = '?';
+                }
+            }
+            length = at;
+        }
+    }
+
+    private void ensure(int extra) {
+        if (extra > bytes.length - length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            wrapper = ByteBuffer.wrap(bytes);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.slf4j.event.Level;
+
+/**
+ * Internal metrics in striped counters. The bean registers itself in the platform MBean server
+ * when the class is first used.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+final class LogMetrics implements LogUtilsMXBean {
+
+    /** MBean name. */
+    static final String OBJECT_NAME = "ru.spb.tksoft.utils.log:type=LogUtils";
+
+    /** Levels in the order they appear in the maps. */
+    private static final Level[] LEVELS =
+            {Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR};
+
+    private static final LongAdder[] EMITTED = newCounters();
+    private static final LongAdder[] SUPPRESSED = newCounters();
+    private static final LongAdder CHARS_FORMATTED = new LongAdder();
+    private static final LongAdder STACK_WALKS = new LongAdder();
+    private static final AtomicLong PEAK_BUFFER_CAPACITY = new AtomicLong();
+    private static final LongAdder INTERNAL_ERRORS = new LongAdder();
+
+    /** Description of the last internal error, null if none. */
+    private static volatile String lastInternalError;
+
+    /** The registered bean. */
+    static final LogMetrics INSTANCE = new LogMetrics();
+
+    static {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException | SecurityException e) {
+            internalError("metrics MBean not registered", e);
+        }
+    }
+
+    private LogMetrics() {}
+
+    private static LongAdder[] newCounters() {
+        final LongAdder[] counters = new LongAdder[Level.values().length];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+
+    /**
+     * Count the level check of a call that is emitted right away when enabled.
+     *
+     * @param enabled The level check result.
+     * @param level The level.
+     * @return The level check result.
+     */
+    static boolean emitting(boolean enabled, Level level) {
+        (enabled ? EMITTED : SUPPRESSED)[level.ordinal()].increment();
+        return enabled;
+    }
+
+    /**
+     * Count the level check of a call that may still be dropped after it. Only suppression is
+     * counted; the emission is counted by {@link #emitted(Level)}.
+     *
+     * @param enabled The level check result.
+     * @param level The level.
+     * @return The level check result.
+     */
+    static boolean enabled(boolean enabled, Level level) {
+        if (!enabled) {
+            SUPPRESSED[level.ordinal()].increment();
+        }
+        return enabled;
+    }
+
+    /**
+     * Count an event handed to SLF4J.
+     *
+     * @param level The level.
+     */
+    static void emitted(Level level) {
+        EMITTED[level.ordinal()].increment();
+    }
+
+    /**
+     * Count an event built by this library and handed to SLF4J.
+     *
+     * @param level The level.
+     * @param chars The message length.
+     */
+    static void emitted(Level level, int chars) {
+        EMITTED[level.ordinal()].increment();
+        CHARS_FORMATTED.add(chars);
+    }
+
+    /**
+     * Count a stack walk.
+     */
+    static void stackWalk() {
+        STACK_WALKS.increment();
+    }
+
+    /**
+     * Count a failure of the library itself, such as an event lost to a backend exception on a
+     * background thread or an MBean that could not be registered. Nothing is printed.
+     *
+     * @param what What failed.
+     * @param e The cause.
+     */
+    static void internalError(String what, Throwable e) {
+        INTERNAL_ERRORS.increment();
+        lastInternalError = what + ": " + e;
+    }
+
+    /**
+     * Track the capacity of a released buffer.
+     *
+     * @param capacity The buffer capacity.
+     */
+    static void bufferCapacity(int capacity) {
+        if (capacity > PEAK_BUFFER_CAPACITY.get()) {
+            PEAK_BUFFER_CAPACITY.accumulateAndGet(capacity, Math::max);
+        }
+    }
+
+    private static Map<String, Long> byLevel(LongAdder[] counters) {
+        final Map<String, Long> map = new LinkedHashMap<>();
+        for (Level level : LEVELS) {
+            map.put(level.name(), counters[level.ordinal()].sum());
+        }
+        return map;
+    }
+
+    private static long total(LongAdder[] counters) {
+        long total = 0;
+        for (LongAdder counter : counters) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    @Override
+    public Map<String, Long> getEmittedEvents() {
+        return byLevel(EMITTED);
+    }
+
+    @Override
+    public Map<String, Long> getSuppressedEvents() {
+        return byLevel(SUPPRESSED);
+    }
+
+    @Override
+    public long getEmittedTotal() {
+        return total(EMITTED);
+    }
+
+    @Override
+    public long getSuppressedTotal() {
+        return total(SUPPRESSED);
+    }
+
+    @Override
+    public long getCharsFormatted() {
+        return CHARS_FORMATTED.sum();
+    }
+
+    @Override
+    public long getStackWalks() {
+        return STACK_WALKS.sum();
+    }
+
+    @Override
+    public long getMethodCacheHits() {
+        return LogEx.getCacheStats().hits();
+    }
+
+    @Override
+    public long getMethodCacheMisses() {
+        return LogEx.getCacheStats().misses();
+    }
+
+    @Override
+    public int getMethodCacheSize() {
+        return LogEx.getCacheSize();
+    }
+
+    @Override
+    public long getPeakBufferCapacity() {
+        return PEAK_BUFFER_CAPACITY.get();
+    }
+
+    @Override
+    public long getInternalErrors() {
+        return INTERNAL_ERRORS.sum();
+    }
+
+    @Override
+    public String getLastInternalError() {
+        return lastInternalError;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < EMITTED.length; i++) {
+            EMITTED[i].reset();
+            SUPPRESSED[i].reset();
+        }
+        CHARS_FORMATTED.reset();
+        STACK_WALKS.reset();
+        PEAK_BUFFER_CAPACITY.set(0);
+        INTERNAL_ERRORS.reset();
+        lastInternalError = null;
+    }
+}
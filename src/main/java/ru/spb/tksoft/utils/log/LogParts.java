@@ -0,0 +1,195 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+/**
+ * Primitive-aware message parts builder. Primitives are appended to the message buffer directly,
+ * without boxing and without {@code String.valueOf()}. Parts are joined with ': ' like in
+ * {@link LogEx#log(Logger, Level, Object[])}.
+ *
+ * Obtained from {@link LogEx#parts(Logger, Level)}. When the level is disabled, a shared no-op
+ * instance is returned, so the whole chain costs nothing. Instances and their buffers are reused:
+ * use the builder in a single chain ending with {@link #log()} and never keep a reference to it.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public final class LogParts {
+
+    /** Shared no-op instance for disabled levels. */
+    static final LogParts DISABLED = new LogParts();
+
+    private Logger logger;
+    private Level level;
+
+    /** Message buffer, null when the builder is not active. */
+    private StringBuilder builder;
+
+    private boolean first;
+
+    LogParts() {}
+
+    /**
+     * Check whether a message is being built.
+     *
+     * @return true between {@link #start(Logger, Level, StringBuilder)} and {@link #log()}.
+     */
+    boolean isActive() {
+        return builder != null;
+    }
+
+    /**
+     * Start a new message.
+     *
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param builder The message buffer from {@link MessageBuffers#acquire()}.
+     * @return This builder.
+     */
+    LogParts start(Logger logger, Level level, StringBuilder builder) {
+        this.logger = logger;
+        this.level = level;
+        this.builder = builder;
+        this.first = true;
+        return this;
+    }
+
+    /**
+     * Append the parts separator unless this is the first part.
+     *
+     * @return The message buffer.
+     */
+    private StringBuilder next() {
+        if (first) {
+            first = false;
+        } else {
+            builder.append(": ");
+        }
+        return builder;
+    }
+
+    /**
+     * Add the message part.
+     *
+     * @param part The message part.
+     * @return This builder.
+     */
+    public LogParts add(Object part) {
+        if (builder != null) {
+            MessageParts.append(next(), part);
+        }
+        return this;
+    }
+
+    /**
+     * Add the message part.
+     *
+     * @param part The message part.
+     * @return This builder.
+     */
+    public LogParts add(String part) {
+        if (builder != null) {
+            next().append(part);
+        }
+        return this;
+    }
+
+    /**
+     * Add the message part without boxing.
+     *
+     * @param part The message part.
+     * @return This builder.
+     */
+    public LogParts add(int part) {
+        if (builder != null) {
+            next().append(part);
+        }
+        return this;
+    }
+
+    /**
+     * Add the message part without boxing.
+     *
+     * @param part The message part.
+     * @return This builder.
+     */
+    public LogParts add(long part) {
+        if (builder != null) {
+            next().append(part);
+        }
+        return this;
+    }
+
+    /**
+     * Add the message part without boxing.
+     *
+     * @param part The message part.
+     * @return This builder.
+     */
+    public LogParts add(double part) {
+        if (builder != null) {
+            next().append(part);
+        }
+        return this;
+    }
+
+    /**
+     * Add the message part without boxing.
+     *
+     * @param part The message part.
+     * @return This builder.
+     */
+    public LogParts add(boolean part) {
+        if (builder != null) {
+            next().append(part);
+        }
+        return this;
+    }
+
+    /**
+     * Add the message part without boxing.
+     *
+     * @param part The message part.
+     * @return This builder.
+     */
+    public LogParts add(char part) {
+        if (builder != null) {
+            next().append(part);
+        }
+        return this;
+    }
+
+    /**
+     * Log the message built so far. The builder is no longer active afterwards.
+     */
+    public void log() {
+        if (builder == null) {
+            return;
+        }
+
+        final String message = builder.toString();
+        final Logger target = logger;
+        final Level targetLevel = level;
+
+        MessageBuffers.release(builder);
+        builder = null;
+        logger = null;
+        level = null;
+
+        LogEx.processLog(target, targetLevel, message);
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+/**
+ * Renders values of a type into the message buffer, see
+ * {@link LogEx#registerRenderer(Class, LogRenderer)}. Use it for types you cannot make
+ * {@link LogAppendable}.
+ *
+ * @param <T> The rendered type.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@FunctionalInterface
+public interface LogRenderer<T> {
+
+    /**
+     * Append the value to the message. Nested values can be rendered with
+     * {@link LogEx#appendPart(StringBuilder, Object, int)}.
+     *
+     * @param builder The message buffer.
+     * @param value The value, never null.
+     * @param budget The maximum number of chars to append.
+     */
+    void render(StringBuilder builder, T value, int budget);
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+/**
+ * Destination that receives LogEx messages instead of the SLF4J logger, see
+ * {@link LogEx#setSink(LogSink)}. The logger still decides which levels are enabled.
+ *
+ * Implementations are called concurrently from any logging thread and must not throw.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@FunctionalInterface
+public interface LogSink {
+
+    /**
+     * Write the message.
+     *
+     * @param logger The logger the message was logged with.
+     * @param level The logging level.
+     * @param message The formatted message.
+     */
+    void write(Logger logger, Level level, String message);
+
+    /**
+     * Write the message logged with a throwable. By default the stack trace is appended to the
+     * message on the following lines.
+     *
+     * @param logger The logger the message was logged with.
+     * @param level The logging level.
+     * @param message The formatted message.
+     * @param throwable The throwable.
+     */
+    default void write(Logger logger, Level level, String message, Throwable throwable) {
+        write(logger, level, LogEx.withStackTrace(message, throwable));
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+/**
+ * Timed span of the calling method, obtained from {@link LogEx#span(Logger, Level)}:
+ *
+ * <pre>
+ * try (LogSpan span = LogEx.span(log, Level.DEBUG)) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * Logs 'myMethod: starting' when opened and 'myMethod: finished: 1234 ns' when closed. With
+ * latency recording on, the elapsed time also goes to the call site histogram (see
+ * {@link LatencyMXBean}), and in summary mode a periodic summary line replaces the per-span lines.
+ * When nothing is to be logged or recorded, a shared no-op span is returned. Spans are pooled: do
+ * not keep a reference after {@link #close()}.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public final class LogSpan implements AutoCloseable {
+
+    /** Shared no-op span for disabled levels. */
+    static final LogSpan DISABLED = new LogSpan();
+
+    private static final StripedPool<LogSpan> POOL = StripedPool.forProcessors();
+
+    private Logger logger;
+    private Level level;
+    private String methodName;
+    private long startNanos;
+
+    /** Call site histogram or null when latencies are not recorded. */
+    private LatencyHistogram histogram;
+
+    /** Log the starting and finished lines. */
+    private boolean logLines;
+
+    /** The level is enabled, so a summary line may be logged. */
+    private boolean enabled;
+
+    private LogSpan() {}
+
+    /**
+     * Take a span from the pool, log {@link LogBase#STARTING} and start the clock.
+     *
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param methodName The name of the traced method.
+     * @param histogram The call site histogram or null.
+     * @param enabled true if the level is enabled.
+     * @param logLines true to log the starting and finished lines.
+     * @return The span.
+     */
+    static LogSpan open(Logger logger, Level level, String methodName,
+            LatencyHistogram histogram, boolean enabled, boolean logLines) {
+        LogSpan span = POOL.poll();
+        if (span == null) {
+            span = new LogSpan();
+        }
+        span.logger = logger;
+        span.level = level;
+        span.methodName = methodName;
+        span.histogram = histogram;
+        span.enabled = enabled;
+        span.logLines = logLines;
+
+        if (logLines) {
+            emit(logger, level, methodName, LogBase.STARTING, -1);
+        }
+
+        span.startNanos = System.nanoTime();
+        return span;
+    }
+
+    /**
+     * Build and log 'method: phase' with the optional elapsed time.
+     */
+    private static void emit(Logger logger, Level level, String methodName, String phase,
+            long elapsedNanos) {
+        final StringBuilder builder = MessageBuffers.acquire();
+        final String message;
+        try {
+            builder.append(methodName).append(": ").append(phase);
+            if (elapsedNanos >= 0) {
+                builder.append(": ").append(elapsedNanos).append(" ns");
+            }
+            message = builder.toString();
+        } finally {
+            MessageBuffers.release(builder);
+        }
+        LogEx.processLog(logger, level, message);
+    }
+
+    /**
+     * Get the time since the span was opened.
+     *
+     * @return The elapsed time in nanoseconds, 0 for a disabled or closed span.
+     */
+    public long elapsedNanos() {
+        return logger == null ? 0 : System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Log {@link LogBase#STOPPED} with the elapsed time, record it, and return the span to the
+     * pool. Closing again does nothing.
+     */
+    @Override
+    public void close() {
+        final Logger target = logger;
+        if (target == null) {
+            return;
+        }
+        final long now = System.nanoTime();
+        final long elapsed = now - startNanos;
+
+        if (logLines) {
+            emit(target, level, methodName, LogBase.STOPPED, elapsed);
+        }
+
+        if (histogram != null) {
+            histogram.record(elapsed);
+            final long interval = LatencyRecorder.getSummaryIntervalNanos();
+            if (enabled && interval > 0 && histogram.claimSummary(now, interval)) {
+                LogEx.processLog(target, level, histogram.summary());
+            }
+        }
+
+        logger = null;
+        level = null;
+        methodName = null;
+        histogram = null;
+        POOL.offer(this);
+    }
+}
@@ -0,0 +1,359 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+/**
+ * Pre-compiled message template, see {@link LogFx#template(String)}. The format is parsed once
+ * into literal segments and argument slots using the SLF4J syntax: '{}' is a slot, '\{}' is a
+ * literal '{}' and '\\{}' is a backslash followed by a slot. Rendering appends the segments and the
+ * arguments into a reused message buffer without scanning the format again; arguments are rendered
+ * like LogEx parts.
+ *
+ * The number of arguments is checked before anything else: a call with a different number of
+ * arguments throws {@link IllegalArgumentException}. One extra trailing {@link Throwable} is
+ * allowed and passed to the logger with the message, the same as in SLF4J. Such calls go through
+ * the same async queue, sink and capture as other LogEx calls; the binary capture and text sinks
+ * receive the stack trace appended to the message.
+ *
+ * Templates are immutable and meant to be shared as {@code static final} constants.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public final class LogTemplate {
+
+    private final String format;
+
+    /** Literal segments: one before each slot and one after the last slot. */
+    private final String[] segments;
+
+    /** Sum of the segment lengths. */
+    private final int literalLength;
+
+    private LogTemplate(String format, String[] segments) {
+        this.format = format;
+        this.segments = segments;
+        int length = 0;
+        for (String segment : segments) {
+            length += segment.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Parse the format.
+     *
+     * @param format The format with '{}' slots.
+     * @return The template.
+     */
+    static LogTemplate compile(String format) {
+        if (format == null) {
+            throw new IllegalArgumentException("Template format must not be null");
+        }
+        final List<String> segments = new ArrayList<>();
+        final StringBuilder segment = new StringBuilder();
+        final int length = format.length();
+        for (int i = 0; i < length; i++) {
+            final char c = format.charAt(i);
+            if (c == '{' && i + 1 < length && format.charAt(i + 1) == '}') {
+                final int backslashes = trailingBackslashes(segment);
+                if (backslashes == 1) {
+                    // Escaped: a literal '{}'
+                    segment.setLength(segment.length() - 1);
+                    segment.append("{}");
+                } else {
+                    if (backslashes == 2) {
+                        // Escaped escape: one literal backslash, then a slot
+                        segment.setLength(segment.length() - 1);
+                    }
+                    segments.add(segment.toString());
+                    segment.setLength(0);
+                }
+                i++;
+            } else {
+                segment.append(c);
+            }
+        }
+        segments.add(segment.toString());
+        return new LogTemplate(format, segments.toArray(String[]::new));
+    }
+
+    /**
+     * Count the backslashes at the end of the segment, up to two.
+     */
+    private static int trailingBackslashes(StringBuilder segment) {
+        final int length = segment.length();
+        if (length == 0 || segment.charAt(length - 1) != '\\') {
+            return 0;
+        }
+        return length > 1 && segment.charAt(length - 2) == '\\' ? 2 : 1;
+    }
+
+    /**
+     * @return The format the template was compiled from.
+     */
+    public String getFormat() {
+        return format;
+    }
+
+    /**
+     * @return The number of argument slots.
+     */
+    public int getArgumentCount() {
+        return segments.length - 1;
+    }
+
+    /**
+     * Get the trailing throwable beyond the slots.
+     *
+     * @return The throwable or null.
+     * @throws IllegalArgumentException if the number of arguments does not match.
+     */
+    private Throwable check(int count, Object last) {
+        final int slots = segments.length - 1;
+        if (count == slots) {
+            return null;
+        }
+        if (count == slots + 1 && last instanceof Throwable throwable) {
+            return throwable;
+        }
+        throw new IllegalArgumentException("Template '" + format + "' takes " + slots
+                + " arguments, got " + count);
+    }
+
+    /**
+     * Render the message.
+     *
+     * @param args The arguments, optionally followed by a throwable.
+     * @return The message.
+     */
+    public String format(Object... args) {
+        check(args.length, args.length > 0 ? args[args.length - 1] : null);
+        return render(args.length, null, null, args);
+    }
+
+    /**
+     * Render the message into a reused buffer.
+     */
+    private String render(int count, Object arg1, Object arg2, Object[] args) {
+        final StringBuilder builder = MessageBuffers.acquire();
+        try {
+            builder.ensureCapacity(literalLength + 16 * segments.length);
+            builder.append(segments[0]);
+            for (int i = 1; i < segments.length; i++) {
+                final Object arg = args != null ? args[i - 1] : (i == 1 ? arg1 : arg2);
+                MessageParts.append(builder, arg).append(segments[i]);
+            }
+            return builder.toString();
+        } finally {
+            MessageBuffers.release(builder);
+        }
+    }
+
+    /**
+     * Log the rendered message.
+     */
+    private void log(Logger logger, Level level, int count, Object arg1, Object arg2,
+            Object[] args) {
+        final Object last = args != null ? (count > 0 ? args[count - 1] : null)
+                : (count == 2 ? arg2 : arg1);
+        final Throwable throwable = check(count, last);
+        if (!LogEx.isEnabled(logger, level)) {
+            return;
+        }
+
+        final Object event = LogJfr.beginCall();
+        final String message = render(count, arg1, arg2, args);
+        LogJfr.formatted(event);
+
+        LogEx.processLog(logger, level, message, throwable);
+        LogJfr.commitCall(event, logger, level, message);
+    }
+
+    /**
+     * Log with the given severity.
+     * 
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param args The arguments, optionally followed by a throwable.
+     */
+    public void log(Logger logger, Level level, Object... args) {
+        log(logger, level, args.length, null, null, args);
+    }
+
+    /**
+     * Log with 'trace' severity.
+     * 
+     * @param logger The logger.
+     * @param args The arguments, optionally followed by a throwable.
+     */
+    public void trace(Logger logger, Object... args) {
+        log(logger, Level.TRACE, args.length, null, null, args);
+    }
+
+    /**
+     * Log with 'trace' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param arg1 The argument.
+     */
+    public void trace(Logger logger, Object arg1) {
+        log(logger, Level.TRACE, 1, arg1, null, null);
+    }
+
+    /**
+     * Log with 'trace' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param arg1 The first argument.
+     * @param arg2 The second argument.
+     */
+    public void trace(Logger logger, Object arg1, Object arg2) {
+        log(logger, Level.TRACE, 2, arg1, arg2, null);
+    }
+
+    /**
+     * Log with 'debug' severity.
+     * 
+     * @param logger The logger.
+     * @param args The arguments, optionally followed by a throwable.
+     */
+    public void debug(Logger logger, Object... args) {
+        log(logger, Level.DEBUG, args.length, null, null, args);
+    }
+
+    /**
+     * Log with 'debug' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param arg1 The argument.
+     */
+    public void debug(Logger logger, Object arg1) {
+        log(logger, Level.DEBUG, 1, arg1, null, null);
+    }
+
+    /**
+     * Log with 'debug' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param arg1 The first argument.
+     * @param arg2 The second argument.
+     */
+    public void debug(Logger logger, Object arg1, Object arg2) {
+        log(logger, Level.DEBUG, 2, arg1, arg2, null);
+    }
+
+    /**
+     * Log with 'info' severity.
+     * 
+     * @param logger The logger.
+     * @param args The arguments, optionally followed by a throwable.
+     */
+    public void info(Logger logger, Object... args) {
+        log(logger, Level.INFO, args.length, null, null, args);
+    }
+
+    /**
+     * Log with 'info' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param arg1 The argument.
+     */
+    public void info(Logger logger, Object arg1) {
+        log(logger, Level.INFO, 1, arg1, null, null);
+    }
+
+    /**
+     * Log with 'info' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param arg1 The first argument.
+     * @param arg2 The second argument.
+     */
+    public void info(Logger logger, Object arg1, Object arg2) {
+        log(logger, Level.INFO, 2, arg1, arg2, null);
+    }
+
+    /**
+     * Log with 'warn' severity.
+     * 
+     * @param logger The logger.
+     * @param args The arguments, optionally followed by a throwable.
+     */
+    public void warn(Logger logger, Object... args) {
+        log(logger, Level.WARN, args.length, null, null, args);
+    }
+
+    /**
+     * Log with 'warn' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param arg1 The argument.
+     */
+    public void warn(Logger logger, Object arg1) {
+        log(logger, Level.WARN, 1, arg1, null, null);
+    }
+
+    /**
+     * Log with 'warn' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param arg1 The first argument.
+     * @param arg2 The second argument.
+     */
+    public void warn(Logger logger, Object arg1, Object arg2) {
+        log(logger, Level.WARN, 2, arg1, arg2, null);
+    }
+
+    /**
+     * Log with 'error' severity.
+     * 
+     * @param logger The logger.
+     * @param args The arguments, optionally followed by a throwable.
+     */
+    public void error(Logger logger, Object... args) {
+        log(logger, Level.ERROR, args.length, null, null, args);
+    }
+
+    /**
+     * Log with 'error' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param arg1 The argument.
+     */
+    public void error(Logger logger, Object arg1) {
+        log(logger, Level.ERROR, 1, arg1, null, null);
+    }
+
+    /**
+     * Log with 'error' severity. Fixed-arity variant: no array is allocated.
+     * 
+     * @param logger The logger.
+     * @param arg1 The first argument.
+     * @param arg2 The second argument.
+     */
+    public void error(Logger logger, Object arg1, Object arg2) {
+        log(logger, Level.ERROR, 2, arg1, arg2, null);
+    }
+
+    @Override
+    public String toString() {
+        return "LogTemplate(" + format + ")";
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.util.Map;
+
+/**
+ * Self-instrumentation of LogEx and LogFx, registered in the platform MBean server as
+ * {@code ru.spb.tksoft.utils.log:type=LogUtils}.
+ *
+ * Emitted events are the ones handed to SLF4J; suppressed events are calls dropped by the level
+ * check. Characters are counted for messages built by this library; LogFx messages are formatted
+ * by the SLF4J backend and are not included.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public interface LogUtilsMXBean {
+
+    /**
+     * @return The number of emitted events per level name.
+     */
+    Map<String, Long> getEmittedEvents();
+
+    /**
+     * @return The number of level-suppressed calls per level name.
+     */
+    Map<String, Long> getSuppressedEvents();
+
+    /**
+     * @return The total number of emitted events.
+     */
+    long getEmittedTotal();
+
+    /**
+     * @return The total number of level-suppressed calls.
+     */
+    long getSuppressedTotal();
+
+    /**
+     * @return The number of characters in messages built by LogEx.
+     */
+    long getCharsFormatted();
+
+    /**
+     * @return The number of stack walks: me(), meQualified(), meLine(), xxxHere(), spans and
+     *         rate-limited calls.
+     */
+    long getStackWalks();
+
+    /**
+     * @return The number of method cache hits.
+     */
+    long getMethodCacheHits();
+
+    /**
+     * @return The number of method cache misses.
+     */
+    long getMethodCacheMisses();
+
+    /**
+     * @return The current number of cached call sites.
+     */
+    int getMethodCacheSize();
+
+    /**
+     * @return The largest capacity of a message buffer seen, in chars, including buffers dropped
+     *         for growing over the retained capacity cap.
+     */
+    long getPeakBufferCapacity();
+
+    /**
+     * @return The number of failures of the library itself: events lost to backend exceptions on
+     *         background threads, MBeans not registered, sink segments not rolled.
+     */
+    long getInternalErrors();
+
+    /**
+     * @return The description of the last internal error, null if none since the last reset.
+     */
+    String getLastInternalError();
+
+    /**
+     * Reset the counters of this bean. The method cache statistics are not reset.
+     */
+    void reset();
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+/**
+ * {@link LogSink} appending UTF-8 records into fixed-size memory-mapped segment files
+ * {@code <name>-<index>.seg} in a directory, bypassing the SLF4J appender stack.
+ *
+ * Writers reserve record space with an atomic add on the segment write position, so concurrent
+ * threads never take a lock. The writer whose reservation crosses the end of the segment marks the
+ * end and maps the next segment; writers that reserved past the end wait for it and retry. The
+ * sink always starts a new segment after the highest existing one, so a segment left by a crashed
+ * process is never written again.
+ *
+ * Segment layout, big-endian:
+ *
+ * <pre>
+ * header (64 bytes)
+ *   0  int32  magic 'TKLG', written last and forced to disk, 0 means a torn header
+ *   4  int32  format version
+ *   8  int64  segment index
+ *  16  int64  creation time, epoch millis
+ *  24  int32  segment size in bytes
+ * record, 8-byte aligned
+ *   0  int32  record length including padding, written last; 0 means not committed,
+ *             -1 marks the end of the segment unless the last record ends it exactly
+ *   4  int32  message length in bytes
+ *   8  int64  timestamp, epoch millis
+ *  16  uint8  level, {@link Level#toInt()}
+ *  17  uint8  reserved
+ *  18  uint16 logger name length in bytes
+ *  20  logger name, then message, UTF-8
+ * </pre>
+ *
+ * Mapped pages survive a crash of the process, so every committed record can be read back with
+ * {@link MappedFileTailer}; a record being written when the process died ends the segment.
+ * Messages longer than the segment allows are truncated.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public final class MappedFileSink implements LogSink, AutoCloseable {
+
+    /** Segment header magic 'TKLG'. */
+    public static final int MAGIC = 0x544B4C47;
+
+    /** Format version. */
+    public static final int VERSION = 1;
+
+    /** Segment header size. */
+    public static final int SEGMENT_HEADER_SIZE = 64;
+
+    /** Record header size. */
+    public static final int RECORD_HEADER_SIZE = 20;
+
+    /** Record length marking the end of a segment. */
+    public static final int END_OF_SEGMENT = -1;
+
+    /** Minimum segment size. */
+    public static final int MIN_SEGMENT_SIZE = 4096;
+
+    /** Segment file name suffix. */
+    static final String SUFFIX = ".seg";
+
+    static final VarHandle INT =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    /** Wait of a writer for the next segment. */
+    private static final long ROLL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    /** Mapped segment being written. */
+    private static final class Segment {
+
+        final long index;
+        final MappedByteBuffer buffer;
+
+        /** Next offset to reserve; grows past the end when the segment is full. */
+        final AtomicLong position = new AtomicLong(SEGMENT_HEADER_SIZE);
+
+        Segment(long index, MappedByteBuffer buffer) {
+            this.index = index;
+            this.buffer = buffer;
+        }
+    }
+
+    private final Path directory;
+    private final String name;
+    private final int segmentSize;
+
+    private volatile Segment current;
+
+    /** Set when the next segment could not be created; writes are dropped from then on. */
+    private volatile boolean failed;
+
+    private volatile boolean closed;
+
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Open the sink and create its first segment after the existing ones.
+     *
+     * @param directory The segment directory; created if missing.
+     * @param name The segment file name prefix.
+     * @param segmentSize The segment size in bytes, at least {@link #MIN_SEGMENT_SIZE}.
+     * @throws IOException if the first segment cannot be created.
+     */
+    public MappedFileSink(Path directory, String name, int segmentSize) throws IOException {
+        if (segmentSize < MIN_SEGMENT_SIZE) {
+            throw new IllegalArgumentException(
+                    "Segment size must be at least " + MIN_SEGMENT_SIZE + ": " + segmentSize);
+        }
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Segment name must not be empty");
+        }
+        this.directory = directory;
+        this.name = name;
+        this.segmentSize = segmentSize & -8;
+
+        Files.createDirectories(directory);
+        this.current = createSegment(lastSegmentIndex(directory, name) + 1);
+    }
+
+    /**
+     * Get the segment file path.
+     *
+     * @param directory The segment directory.
+     * @param name The segment file name prefix.
+     * @param index The segment index.
+     * @return The path.
+     */
+    static Path segmentPath(Path directory, String name, long index) {
+        return directory.resolve(String.format("%s-%06d%s", name, index, SUFFIX));
+    }
+
+    /**
+     * Parse the segment index from the file name.
+     *
+     * @return The index or -1 if the file is not a segment of the name.
+     */
+    static long segmentIndex(Path file, String name) {
+        final String fileName = file.getFileName().toString();
+        if (!fileName.startsWith(name + "-") || !fileName.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(
+                    fileName.substring(name.length() + 1, fileName.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Find the first or last existing segment.
+     *
+     * @return The index or -1 if there are no segments.
+     */
+    static long findSegmentIndex(Path directory, String name, boolean last) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return -1;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            final var indexes = files.mapToLong(file -> segmentIndex(file, name))
+                    .filter(index -> index >= 0);
+            return (last ? indexes.max() : indexes.min()).orElse(-1);
+        }
+    }
+
+    private static long lastSegmentIndex(Path directory, String name) throws IOException {
+        return findSegmentIndex(directory, name, true);
+    }
+
+    /**
+     * Create, map and stamp a new segment file.
+     */
+    private Segment createSegment(long index) throws IOException {
+        final MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segmentPath(directory, name, index),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        buffer.putInt(4, VERSION);
+        buffer.putLong(8, index);
+        buffer.putLong(16, System.currentTimeMillis());
+        buffer.putInt(24, segmentSize);
+        INT.setRelease(buffer, 0, MAGIC);
+        buffer.force(0, SEGMENT_HEADER_SIZE);
+        return new Segment(index, buffer);
+    }
+
+    /**
+     * @return The segment size in bytes.
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * @return The index of the segment being written.
+     */
+    public long getSegmentIndex() {
+        return current.index;
+    }
+
+    /**
+     * @return The number of messages dropped because the sink failed or was closed.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void write(Logger logger, Level level, String message) {
+        append(logger.getName(), level, message);
+    }
+
+    /**
+     * Append a record.
+     *
+     * @param loggerName The logger name.
+     * @param level The logging level.
+     * @param message The message.
+     * @return true if the record was written, false if it was dropped.
+     */
+    public boolean append(String loggerName, Level level, String message) {
+        final long timestamp = System.currentTimeMillis();
+        final int maxPayload = segmentSize - SEGMENT_HEADER_SIZE - RECORD_HEADER_SIZE;
+        final int loggerLength = Utf8.encodedLength(loggerName, Math.min(0xFFFF, maxPayload));
+        final int messageLength = Utf8.encodedLength(message, maxPayload - loggerLength);
+        final int size = (RECORD_HEADER_SIZE + loggerLength + messageLength + 7) & -8;
+
+        while (true) {
+            if (closed || failed) {
+                dropped.increment();
+                return false;
+            }
+            final Segment segment = current;
+            final long start = segment.position.getAndAdd(size);
+            if (start + size <= segmentSize) {
+                final MappedByteBuffer buffer = segment.buffer;
+                final int offset = (int) start;
+                buffer.putInt(offset + 4, messageLength);
+                buffer.putLong(offset + 8, timestamp);
+                buffer.put(offset + 16, (byte) level.toInt());
+                buffer.putShort(offset + 18, (short) loggerLength);
+                final int at = Utf8.encode(loggerName, buffer, offset + RECORD_HEADER_SIZE,
+                        loggerLength);
+                Utf8.encode(message, buffer, at, messageLength);
+                INT.setRelease(buffer, offset, size);
+                return true;
+            }
+            if (start <= segmentSize) {
+                // This reservation crossed the end: close the segment and open the next one
+                if (start < segmentSize) {
+                    INT.setRelease(segment.buffer, (int) start, END_OF_SEGMENT);
+                }
+                roll(segment);
+            } else {
+                while (current == segment && !failed && !closed) {
+                    LockSupport.parkNanos(ROLL_PARK_NANOS);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replace the full segment with the next one. Called by exactly one writer per segment.
+     */
+    private void roll(Segment full) {
+        try {
+            current = createSegment(full.index + 1);
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            LogMetrics.internalError("mapped sink failed to roll", e);
+        }
+    }
+
+    /**
+     * Force the written records of the current segment to the storage device.
+     */
+    public void force() {
+        current.buffer.force();
+    }
+
+    /**
+     * Stop accepting records and force the current segment to the storage device. Records of
+     * writers still in progress may be lost.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        force();
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.slf4j.event.Level;
+
+/**
+ * Reader following the segments written by {@link MappedFileSink}, in this or another process.
+ * {@link #poll()} returns committed records in order and null when the writer has not committed
+ * the next one yet, so calling it periodically tails the log.
+ *
+ * Not thread-safe.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public final class MappedFileTailer implements AutoCloseable {
+
+    /**
+     * Record read back from a segment.
+     *
+     * @param timestamp The timestamp, epoch millis.
+     * @param level The logging level.
+     * @param loggerName The logger name.
+     * @param message The message.
+     */
+    public record Entry(long timestamp, Level level, String loggerName, String message) {
+    }
+
+    private final Path directory;
+    private final String name;
+
+    /** Index of the segment being read. */
+    private long index;
+
+    /** Mapped segment being read, null until its header is complete. */
+    private MappedByteBuffer buffer;
+
+    private int segmentSize;
+
+    /** Read offset within the segment. */
+    private int offset;
+
+    /**
+     * Start reading at the first existing segment.
+     *
+     * @param directory The segment directory.
+     * @param name The segment file name prefix.
+     * @throws IOException if the directory cannot be listed.
+     */
+    public MappedFileTailer(Path directory, String name) throws IOException {
+        this(directory, name, Math.max(0, MappedFileSink.findSegmentIndex(directory, name, false)));
+    }
+
+    /**
+     * Start reading at the given segment.
+     *
+     * @param directory The segment directory.
+     * @param name The segment file name prefix.
+     * @param index The first segment index.
+     */
+    public MappedFileTailer(Path directory, String name, long index) {
+        this.directory = directory;
+        this.name = name;
+        this.index = index;
+    }
+
+    /**
+     * @return The index of the segment being read.
+     */
+    public long getSegmentIndex() {
+        return index;
+    }
+
+    /**
+     * Read the next committed record.
+     *
+     * @return The record or null if none is available yet.
+     * @throws IOException if a segment cannot be mapped.
+     */
+    public Entry poll() throws IOException {
+        while (true) {
+            if (buffer == null && !map()) {
+                return null;
+            }
+            if (offset >= segmentSize) {
+                next();
+                continue;
+            }
+            final int length = (int) MappedFileSink.INT.getAcquire(buffer, offset);
+            if (length == 0) {
+                return null;
+            }
+            if (length == MappedFileSink.END_OF_SEGMENT) {
+                next();
+                continue;
+            }
+            final Entry entry = read(offset);
+            offset += length;
+            return entry;
+        }
+    }
+
+    /**
+     * Skip the rest of the current segment. Useful when a crashed writer left an uncommitted record
+     * that would otherwise stop the reader for good.
+     */
+    public void skipSegment() {
+        next();
+    }
+
+    /**
+     * Map the current segment once its header is complete.
+     *
+     * @return false if the segment does not exist or its header is not written yet.
+     */
+    private boolean map() throws IOException {
+        final Path path = MappedFileSink.segmentPath(directory, name, index);
+        if (!Files.exists(path)) {
+            return false;
+        }
+        final MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < MappedFileSink.SEGMENT_HEADER_SIZE) {
+                return false;
+            }
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        if ((int) MappedFileSink.INT.getAcquire(mapped, 0) != MappedFileSink.MAGIC) {
+            return false;
+        }
+        final int version = mapped.getInt(4);
+        if (version != MappedFileSink.VERSION) {
+            throw new IOException("Unsupported segment version " + version + ": " + path);
+        }
+        buffer = mapped;
+        segmentSize = Math.min(mapped.getInt(24), mapped.capacity());
+        offset = MappedFileSink.SEGMENT_HEADER_SIZE;
+        return true;
+    }
+
+    /**
+     * Move on to the next segment.
+     */
+    private void next() {
+        buffer = null;
+        index++;
+    }
+
+    private Entry read(int at) {
+        final int messageLength = buffer.getInt(at + 4);
+        final long timestamp = buffer.getLong(at + 8);
+        final Level level = Level.intToLevel(buffer.get(at + 16) & 0xFF);
+        final int loggerLength = buffer.getShort(at + 18) & 0xFFFF;
+        final int loggerAt = at + MappedFileSink.RECORD_HEADER_SIZE;
+        return new Entry(timestamp, level, string(loggerAt, loggerLength),
+                string(loggerAt + loggerLength, messageLength));
+    }
+
+    private String string(int at, int length) {
+        final byte[] bytes = new byte[length];
+        buffer.get(at, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Release the mapped segment.
+     */
+    @Override
+    public void close() {
+        buffer = null;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+/**
+ * Message buffers according to the selected {@link BufferStrategy}.
+ *
+ * Every {@link #acquire()} must be paired with {@link #release(StringBuilder)}. A buffer that grew
+ * over the capacity cap is not retained, so a single huge message does not pin memory forever. A
+ * nested acquire on the same thread (a part's toString() logging by itself) gets a fresh buffer
+ * instead of clobbering the one in use.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+final class MessageBuffers {
+
+    /** Initial buffer capacity. */
+    static final int INITIAL_CAPACITY = 256;
+
+    /** Default maximum capacity of a retained buffer. */
+    static final int DEFAULT_MAX_CAPACITY = 8192;
+
+    /** Thread-local buffer; null while the buffer is taken. */
+    private static final class Holder {
+
+        StringBuilder builder = new StringBuilder(INITIAL_CAPACITY);
+    }
+
+    private static final ThreadLocal<Holder> THREAD_LOCAL = ThreadLocal.withInitial(Holder::new);
+
+    private static final StripedPool<StringBuilder> POOL = StripedPool.forProcessors();
+
+    private static volatile BufferStrategy strategy = BufferStrategy.THREAD_LOCAL;
+
+    private static volatile int maxCapacity = DEFAULT_MAX_CAPACITY;
+
+    private MessageBuffers() {}
+
+    /**
+     * @return The current strategy.
+     */
+    static BufferStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @param newStrategy The strategy.
+     */
+    static void setStrategy(BufferStrategy newStrategy) {
+        if (newStrategy == null) {
+            throw new IllegalArgumentException("Buffer strategy must not be null");
+        }
+        strategy = newStrategy;
+    }
+
+    /**
+     * @return The maximum capacity of a retained buffer.
+     */
+    static int getMaxCapacity() {
+        return maxCapacity;
+    }
+
+    /**
+     * @param capacity The maximum capacity of a retained buffer.
+     */
+    static void setMaxCapacity(int capacity) {
+        if (capacity < INITIAL_CAPACITY) {
+            throw new IllegalArgumentException(
+                    "Max buffer capacity must be at least " + INITIAL_CAPACITY + ": " + capacity);
+        }
+        maxCapacity = capacity;
+    }
+
+    /**
+     * Check whether the current thread uses its thread-local buffer.
+     *
+     * @return true for the thread-local strategy.
+     */
+    static boolean isThreadLocal() {
+        return switch (strategy) {
+            case THREAD_LOCAL -> true;
+            case POOLED -> false;
+            case ADAPTIVE -> !Thread.currentThread().isVirtual();
+        };
+    }
+
+    /**
+     * Get an empty buffer.
+     *
+     * @return The buffer.
+     */
+    static StringBuilder acquire() {
+        if (isThreadLocal()) {
+            final Holder holder = THREAD_LOCAL.get();
+            final StringBuilder builder = holder.builder;
+            if (builder != null) {
+                holder.builder = null;
+                builder.setLength(0);
+                return builder;
+            }
+            return new StringBuilder(INITIAL_CAPACITY);
+        }
+
+        final StringBuilder pooled = POOL.poll();
+        if (pooled != null) {
+            pooled.setLength(0);
+            return pooled;
+        }
+        return new StringBuilder(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Give the buffer back. Buffers over the capacity cap are dropped.
+     *
+     * @param builder The buffer obtained from {@link #acquire()}.
+     */
+    static void release(StringBuilder builder) {
+        final int capacity = builder.capacity();
+        LogMetrics.bufferCapacity(capacity);
+        if (capacity > maxCapacity) {
+            return;
+        }
+
+        if (isThreadLocal()) {
+            // Any buffer refills an empty holder, so a strategy change in flight heals itself
+            final Holder holder = THREAD_LOCAL.get();
+            if (holder.builder == null) {
+                holder.builder = builder;
+            }
+            return;
+        }
+
+        POOL.offer(builder);
+    }
+
+    /**
+     * Remove the thread-local buffer of the current thread.
+     */
+    static void cleanupThreadLocal() {
+        THREAD_LOCAL.remove();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+/**
+ * Rendering of a single message part. Strings and values without a dedicated renderer are appended
+ * as {@code String.valueOf()}; {@link LogAppendable} parts and values with a renderer from
+ * {@link Renderers} are rendered straight into the buffer within the part budget.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+final class MessageParts {
+
+    /** Default budget of a rendered part, in chars. */
+    static final int DEFAULT_PART_BUDGET = 4096;
+
+    /** Marker of a part cut at the budget. */
+    static final String TRUNCATED = "...";
+
+    private static volatile int partBudget = DEFAULT_PART_BUDGET;
+
+    private MessageParts() {}
+
+    /**
+     * @return The budget of a rendered part.
+     */
+    static int getPartBudget() {
+        return partBudget;
+    }
+
+    /**
+     * @param budget The budget of a rendered part, positive.
+     */
+    static void setPartBudget(int budget) {
+        if (budget <= 0) {
+            throw new IllegalArgumentException("Part budget must be positive: " + budget);
+        }
+        partBudget = budget;
+    }
+
+    /**
+     * Append the part.
+     *
+     * @param builder The message buffer.
+     * @param part The message part.
+     * @return The message buffer.
+     */
+    static StringBuilder append(StringBuilder builder, Object part) {
+        if (part == null || part instanceof String) {
+            return builder.append((String) part);
+        }
+        final Renderers.Renderer renderer = Renderers.lookup(part.getClass());
+        if (renderer == Renderers.DEFAULT) {
+            return builder.append(part);
+        }
+        final int budget = partBudget;
+        final int start = builder.length();
+        renderer.render(builder, part, budget, 0);
+        truncate(builder, start, budget);
+        return builder;
+    }
+
+    /**
+     * Append the part within the given budget, for renderers of nested values.
+     *
+     * @param builder The message buffer.
+     * @param part The value.
+     * @param budget The maximum number of chars to append.
+     */
+    static void append(StringBuilder builder, Object part, int budget) {
+        final int start = builder.length();
+        Renderers.render(builder, part, budget, 0);
+        truncate(builder, start, Math.max(budget, 0));
+    }
+
+    /**
+     * Cut what was appended after the start down to the budget, not splitting a surrogate pair.
+     */
+    static void truncate(StringBuilder builder, int start, int budget) {
+        if (builder.length() - start <= budget) {
+            return;
+        }
+        int end = start + budget;
+        if (end > start && Character.isHighSurrogate(builder.charAt(end - 1))) {
+            end--;
+        }
+        builder.setLength(end);
+        builder.append(TRUNCATED);
+    }
+
+    /**
+     * Render the part as a string.
+     *
+     * @param part The message part.
+     * @return The same text {@link #append(StringBuilder, Object)} appends.
+     */
+    static String toString(Object part) {
+        if (part == null || Renderers.lookup(part.getClass()) == Renderers.DEFAULT) {
+            return String.valueOf(part);
+        }
+        return append(new StringBuilder(), part).toString();
+    }
+}
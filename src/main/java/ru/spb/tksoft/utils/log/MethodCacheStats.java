@@ -0,0 +1,39 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+/**
+ * Snapshot of the method name cache statistics. Counters are cumulative since startup.
+ *
+ * @param hits The number of lookups that found an entry.
+ * @param misses The number of lookups that did not find an entry.
+ * @param evictions The number of entries evicted to stay within the maximum size.
+ * @param size The current number of entries.
+ * @param maxSize The maximum number of entries.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public record MethodCacheStats(long hits, long misses, long evictions, int size, int maxSize) {
+
+    /**
+     * Get the hit rate.
+     *
+     * @return The ratio of hits to all lookups, or 0 if there were no lookups.
+     */
+    public double hitRate() {
+        final long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+/**
+ * Bounded call site cache with GCLOCK eviction.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+final class MethodNameCache extends GClockCache<CallSite.Key, CallSite> {
+
+    /** Default maximum number of entries. */
+    static final int DEFAULT_MAX_SIZE = 1024;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize The maximum number of entries, 0 disables caching.
+     */
+    MethodNameCache(int maxSize) {
+        super(maxSize, null);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.event.Level;
+
+/**
+ * What the async mode does with a new event when its buffer is full. See
+ * {@link LogEx#setOverflowPolicy(OverflowPolicy)}.
+ *
+ * Dropped events are counted per level and reported by a periodic summary line sent through the
+ * logger that lost them.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public final class OverflowPolicy {
+
+    /** Waiting time meaning "wait until a slot is free". */
+    static final long WAIT_FOREVER = Long.MAX_VALUE;
+
+    private enum Kind {
+        BLOCK, DROP_NEWEST, DROP_BELOW, SAMPLE
+    }
+
+    private static final OverflowPolicy BLOCK =
+            new OverflowPolicy(Kind.BLOCK, WAIT_FOREVER, null, 1);
+
+    private static final OverflowPolicy DROP_NEWEST =
+            new OverflowPolicy(Kind.DROP_NEWEST, 0, null, 1);
+
+    private final Kind kind;
+    private final long timeoutNanos;
+    private final Level threshold;
+    private final int rate;
+
+    /** Overflowed events seen by the sampling policy. */
+    private final AtomicLong sampled = new AtomicLong();
+
+    private OverflowPolicy(Kind kind, long timeoutNanos, Level threshold, int rate) {
+        this.kind = kind;
+        this.timeoutNanos = timeoutNanos;
+        this.threshold = threshold;
+        this.rate = rate;
+    }
+
+    /**
+     * Wait until a slot is free. Nothing is lost, but the callers are slowed down to the speed of
+     * the backend. This is the default.
+     *
+     * @return The policy.
+     */
+    public static OverflowPolicy block() {
+        return BLOCK;
+    }
+
+    /**
+     * Wait for a free slot up to the timeout, then drop the event.
+     *
+     * @param timeout The maximum waiting time.
+     * @return The policy.
+     */
+    public static OverflowPolicy block(Duration timeout) {
+        if (timeout == null || timeout.isNegative()) {
+            throw new IllegalArgumentException("Invalid overflow timeout: " + timeout);
+        }
+        return new OverflowPolicy(Kind.BLOCK, timeout.toNanos(), null, 1);
+    }
+
+    /**
+     * Drop the new event right away. Callers are never slowed down.
+     *
+     * @return The policy.
+     */
+    public static OverflowPolicy dropNewest() {
+        return DROP_NEWEST;
+    }
+
+    /**
+     * Drop the new event if it is less severe than the threshold, otherwise wait for a free slot.
+     * For example, {@code dropBelow(Level.WARN)} keeps WARN and ERROR and sheds the rest.
+     *
+     * @param threshold The least severe level that is kept.
+     * @return The policy.
+     */
+    public static OverflowPolicy dropBelow(Level threshold) {
+        if (threshold == null) {
+            throw new IllegalArgumentException("Overflow threshold must not be null");
+        }
+        return new OverflowPolicy(Kind.DROP_BELOW, WAIT_FOREVER, threshold, 1);
+    }
+
+    /**
+     * Keep one of every {@code rate} overflowed events, waiting for a free slot, and drop the rest.
+     *
+     * @param rate The sampling rate, at least 1.
+     * @return The policy.
+     */
+    public static OverflowPolicy sample(int rate) {
+        if (rate < 1) {
+            throw new IllegalArgumentException("Sampling rate must be at least 1: " + rate);
+        }
+        return new OverflowPolicy(Kind.SAMPLE, WAIT_FOREVER, null, rate);
+    }
+
+    /**
+     * Decide on an event that found the buffer full.
+     *
+     * @param level The event level.
+     * @return The maximum time to wait for a free slot in nanoseconds: 0 to drop the event right
+     *         away, {@link #WAIT_FOREVER} to wait without a limit.
+     */
+    long onOverflow(Level level) {
+        return switch (kind) {
+            case BLOCK -> timeoutNanos;
+            case DROP_NEWEST -> 0;
+            case DROP_BELOW -> level.toInt() < threshold.toInt() ? 0 : WAIT_FOREVER;
+            case SAMPLE -> sampled.getAndIncrement() % rate == 0 ? WAIT_FOREVER : 0;
+        };
+    }
+
+    @Override
+    public String toString() {
+        return switch (kind) {
+            case BLOCK -> timeoutNanos == WAIT_FOREVER
+                    ? "block"
+                    : "block(" + Duration.ofNanos(timeoutNanos) + ")";
+            case DROP_NEWEST -> "dropNewest";
+            case DROP_BELOW -> "dropBelow(" + threshold + ")";
+            case SAMPLE -> "sample(" + rate + ")";
+        };
+    }
+}
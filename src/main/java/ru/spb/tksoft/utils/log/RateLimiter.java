@@ -0,0 +1,137 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free fixed window rate limiter for a single call site.
+ *
+ * Up to {@code limit} events pass per window. Once the window is exhausted, callers only read the
+ * permit counter and bump a striped suppression counter, so a hot call site does not contend on a
+ * single cache line. The thread that opens the next window swaps in a fresh window with its first
+ * permit already taken, in a single CAS, and collects the number of events suppressed so far.
+ * Events that were denied by the old window while it was being replaced are not lost: they are
+ * reported with the next window or by {@link #takeExpired(long)}.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+final class RateLimiter {
+
+    /** {@link #tryAcquire(long)} result for a suppressed event. */
+    static final long DENIED = -1;
+
+    /** Window state; the start never changes, so a window switch is a single reference CAS. */
+    private static final class Window {
+
+        final long start;
+        final AtomicInteger used;
+
+        Window(long start, int used) {
+            this.start = start;
+            this.used = new AtomicInteger(used);
+        }
+    }
+
+    private final int limit;
+    private final long windowNanos;
+    private final String name;
+
+    private final AtomicReference<Window> window;
+    private final LongAdder suppressed = new LongAdder();
+
+    /**
+     * Constructor. The first window opens with the first event.
+     *
+     * @param limit The number of events per window, at least 1.
+     * @param windowNanos The window length in nanoseconds, positive.
+     * @param name The call site name used in the suppression line.
+     * @param now The current {@link System#nanoTime()}.
+     */
+    RateLimiter(int limit, long windowNanos, String name, long now) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Rate limit must be at least 1: " + limit);
+        }
+        if (windowNanos <= 0) {
+            throw new IllegalArgumentException("Rate limit window must be positive");
+        }
+        this.limit = limit;
+        this.windowNanos = windowNanos;
+        this.name = name;
+        this.window = new AtomicReference<>(new Window(now - windowNanos, limit));
+    }
+
+    /**
+     * Try to pass an event.
+     *
+     * @param now The current {@link System#nanoTime()}.
+     * @return {@link #DENIED} if the event is suppressed, otherwise the number of suppressed events
+     *         that have not been reported yet.
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            final Window current = window.get();
+            if (now - current.start >= windowNanos) {
+                if (window.compareAndSet(current, new Window(now, 1))) {
+                    return suppressed.sumThenReset();
+                }
+                // Another thread opened the window, retry against it
+                continue;
+            }
+
+            final AtomicInteger used = current.used;
+            if (used.get() >= limit || used.incrementAndGet() > limit) {
+                suppressed.increment();
+                return DENIED;
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Take the suppressed count once the window it was counted in has closed, so it can be reported
+     * even if the call site does not log again.
+     *
+     * @param now The current {@link System#nanoTime()}.
+     * @return The number of suppressed events not reported yet, 0 while the window is open.
+     */
+    long takeExpired(long now) {
+        if (now - window.get().start < windowNanos) {
+            return 0;
+        }
+        return suppressed.sumThenReset();
+    }
+
+    /**
+     * Take the suppressed count regardless of the window, e.g. when the limiter is discarded.
+     *
+     * @return The number of suppressed events not reported yet.
+     */
+    long takePending() {
+        return suppressed.sumThenReset();
+    }
+
+    /**
+     * Build the line reporting suppressed events.
+     *
+     * @param count The number of suppressed events.
+     * @return The message.
+     */
+    String suppressedMessage(long count) {
+        return name + ": suppressed " + count + " similar messages";
+    }
+}
@@ -0,0 +1,416 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of part renderers keyed by {@link ClassValue}: the renderer of a class is resolved once,
+ * afterwards a lookup is a single load. Registering a renderer replaces the class value, so the
+ * resolution starts over.
+ *
+ * Resolution order: a renderer registered for the class itself, {@link LogAppendable}, a renderer
+ * registered for a superclass or interface, built-in renderers for arrays, records,
+ * {@link Optional}, {@link Map} and {@link Collection}, and finally {@code String.valueOf()}.
+ *
+ * Built-in renderers stream the elements into the buffer and stop at the element limit or when
+ * the char budget is used up, appending '... N more', so a huge collection costs bounded time and
+ * memory. Nesting deeper than {@link #MAX_DEPTH} is rendered as '...'.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+final class Renderers {
+
+    /** Default maximum number of rendered elements of an array, collection or map. */
+    static final int DEFAULT_MAX_ELEMENTS = 100;
+
+    /** Maximum nesting of rendered containers. */
+    static final int MAX_DEPTH = 8;
+
+    /** Internal renderer; the depth guards against deep and cyclic structures. */
+    @FunctionalInterface
+    interface Renderer {
+
+        void render(StringBuilder builder, Object value, int budget, int depth);
+    }
+
+    /** Renderer of values without a dedicated one. */
+    static final Renderer DEFAULT = (builder, value, budget, depth) -> builder.append(value);
+
+    private static final Renderer APPENDABLE =
+            (builder, value, budget, depth) -> ((LogAppendable) value).appendTo(builder, budget);
+
+    private static final Map<Class<?>, LogRenderer<?>> REGISTERED = new ConcurrentHashMap<>();
+
+    private static volatile ClassValue<Renderer> renderers = newClassValue();
+
+    private static volatile int maxElements = DEFAULT_MAX_ELEMENTS;
+
+    private Renderers() {}
+
+    private static ClassValue<Renderer> newClassValue() {
+        return new ClassValue<>() {
+            @Override
+            protected Renderer computeValue(Class<?> type) {
+                return resolve(type);
+            }
+        };
+    }
+
+    /**
+     * @return The maximum number of rendered elements.
+     */
+    static int getMaxElements() {
+        return maxElements;
+    }
+
+    /**
+     * @param max The maximum number of rendered elements, positive.
+     */
+    static void setMaxElements(int max) {
+        if (max <= 0) {
+            throw new IllegalArgumentException("Max rendered elements must be positive: " + max);
+        }
+        maxElements = max;
+    }
+
+    /**
+     * Register the renderer of the type and its subtypes.
+     *
+     * @param <T> The type.
+     * @param type The type.
+     * @param renderer The renderer or null to remove the registered one.
+     */
+    static <T> void register(Class<T> type, LogRenderer<? super T> renderer) {
+        if (type == null) {
+            throw new IllegalArgumentException("Rendered type must not be null");
+        }
+        if (renderer == null) {
+            REGISTERED.remove(type);
+        } else {
+            REGISTERED.put(type, renderer);
+        }
+        renderers = newClassValue();
+    }
+
+    /**
+     * Get the renderer of the class.
+     *
+     * @param type The class.
+     * @return The renderer, {@link #DEFAULT} if the class has no dedicated one.
+     */
+    static Renderer lookup(Class<?> type) {
+        return renderers.get(type);
+    }
+
+    /**
+     * Render the value.
+     *
+     * @param builder The message buffer.
+     * @param value The value.
+     * @param budget The maximum number of chars to append.
+     * @param depth The container nesting depth.
+     */
+    static void render(StringBuilder builder, Object value, int budget, int depth) {
+        if (value == null) {
+            builder.append("null");
+        } else if (depth > MAX_DEPTH) {
+            builder.append("...");
+        } else if (value instanceof CharSequence chars) {
+            // Only the part that fits, a huge element must not grow the buffer
+            builder.append(chars, 0, Math.min(chars.length(), Math.max(budget, 0)));
+        } else {
+            lookup(value.getClass()).render(builder, value, budget, depth);
+        }
+    }
+
+    private static Renderer resolve(Class<?> type) {
+        final LogRenderer<?> exact = REGISTERED.get(type);
+        if (exact != null) {
+            return adapt(exact);
+        }
+        if (LogAppendable.class.isAssignableFrom(type)) {
+            return APPENDABLE;
+        }
+        final LogRenderer<?> inherited = findRegistered(type);
+        if (inherited != null) {
+            return adapt(inherited);
+        }
+        if (type.isArray()) {
+            return type.getComponentType().isPrimitive() ? Renderers::primitiveArray
+                    : Renderers::objectArray;
+        }
+        if (type.isRecord() && !declaresToString(type)) {
+            final Renderer record = RecordRenderer.of(type);
+            if (record != null) {
+                return record;
+            }
+        }
+        if (type == Optional.class) {
+            return Renderers::optional;
+        }
+        if (Map.class.isAssignableFrom(type) && !declaresToString(type)) {
+            return Renderers::map;
+        }
+        if (Collection.class.isAssignableFrom(type) && !declaresToString(type)) {
+            return Renderers::collection;
+        }
+        return DEFAULT;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Renderer adapt(LogRenderer<?> renderer) {
+        final LogRenderer<Object> target = (LogRenderer<Object>) renderer;
+        return (builder, value, budget, depth) -> target.render(builder, value, budget);
+    }
+
+    /**
+     * Find a renderer registered for a supertype, nearest first.
+     */
+    private static LogRenderer<?> findRegistered(Class<?> type) {
+        if (REGISTERED.isEmpty()) {
+            return null;
+        }
+        final Deque<Class<?>> queue = new ArrayDeque<>();
+        queue.add(type);
+        while (!queue.isEmpty()) {
+            final Class<?> current = queue.poll();
+            final LogRenderer<?> renderer = REGISTERED.get(current);
+            if (renderer != null) {
+                return renderer;
+            }
+            if (current.getSuperclass() != null) {
+                queue.add(current.getSuperclass());
+            }
+            for (Class<?> implemented : current.getInterfaces()) {
+                queue.add(implemented);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check whether the class has its own toString(); built-in renderers then stay out of the way.
+     * Classes of java.* are exempt: their toString() is the generic one being replaced.
+     */
+    private static boolean declaresToString(Class<?> type) {
+        for (Class<?> current = type; current != null && current != Object.class;
+                current = current.getSuperclass()) {
+            if (current.getName().startsWith("java.")) {
+                return false;
+            }
+            try {
+                current.getDeclaredMethod("toString");
+                return true;
+            } catch (NoSuchMethodException e) {
+                // Look further up
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Append the elided elements marker.
+     */
+    private static void more(StringBuilder builder, int rendered, int remaining) {
+        if (rendered > 0) {
+            builder.append(", ");
+        }
+        builder.append("... ").append(remaining).append(" more");
+    }
+
+    /**
+     * Check whether the next element is not rendered.
+     */
+    private static boolean full(StringBuilder builder, int start, int budget, int rendered) {
+        return rendered >= maxElements || builder.length() - start >= budget;
+    }
+
+    private static void collection(StringBuilder builder, Object value, int budget, int depth) {
+        final Collection<?> collection = (Collection<?>) value;
+        final int start = builder.length();
+        final int size = collection.size();
+        builder.append('[');
+        int rendered = 0;
+        for (Object element : collection) {
+            if (full(builder, start, budget, rendered)) {
+                more(builder, rendered, size - rendered);
+                break;
+            }
+            if (rendered > 0) {
+                builder.append(", ");
+            }
+            render(builder, element == collection ? "(this Collection)" : element,
+                    budget - (builder.length() - start), depth + 1);
+            rendered++;
+        }
+        builder.append(']');
+    }
+
+    private static void map(StringBuilder builder, Object value, int budget, int depth) {
+        final Map<?, ?> map = (Map<?, ?>) value;
+        final int start = builder.length();
+        final int size = map.size();
+        builder.append('{');
+        int rendered = 0;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (full(builder, start, budget, rendered)) {
+                more(builder, rendered, size - rendered);
+                break;
+            }
+            if (rendered > 0) {
+                builder.append(", ");
+            }
+            final Object key = entry.getKey();
+            final Object item = entry.getValue();
+            render(builder, key == map ? "(this Map)" : key,
+                    budget - (builder.length() - start), depth + 1);
+            builder.append('=');
+            render(builder, item == map ? "(this Map)" : item,
+                    budget - (builder.length() - start), depth + 1);
+            rendered++;
+        }
+        builder.append('}');
+    }
+
+    private static void optional(StringBuilder builder, Object value, int budget, int depth) {
+        final Optional<?> optional = (Optional<?>) value;
+        if (optional.isEmpty()) {
+            builder.append("Optional.empty");
+            return;
+        }
+        builder.append("Optional[");
+        render(builder, optional.get(), budget - "Optional[".length(), depth + 1);
+        builder.append(']');
+    }
+
+    private static void objectArray(StringBuilder builder, Object value, int budget, int depth) {
+        final Object[] array = (Object[]) value;
+        final int start = builder.length();
+        builder.append('[');
+        for (int i = 0; i < array.length; i++) {
+            if (full(builder, start, budget, i)) {
+                more(builder, i, array.length - i);
+                break;
+            }
+            if (i > 0) {
+                builder.append(", ");
+            }
+            render(builder, array[i] == array ? "[...]" : array[i],
+                    budget - (builder.length() - start), depth + 1);
+        }
+        builder.append(']');
+    }
+
+    private static void primitiveArray(StringBuilder builder, Object value, int budget,
+            int depth) {
+        final int start = builder.length();
+        final int length = java.lang.reflect.Array.getLength(value);
+        builder.append('[');
+        for (int i = 0; i < length; i++) {
+            if (full(builder, start, budget, i)) {
+                more(builder, i, length - i);
+                break;
+            }
+            if (i > 0) {
+                builder.append(", ");
+            }
+            appendElement(builder, value, i);
+        }
+        builder.append(']');
+    }
+
+    /**
+     * Append a primitive array element without boxing.
+     */
+    private static void appendElement(StringBuilder builder, Object array, int i) {
+        switch (array) {
+            case int[] a -> builder.append(a[i]);
+            case long[] a -> builder.append(a[i]);
+            case double[] a -> builder.append(a[i]);
+            case float[] a -> builder.append(a[i]);
+            case byte[] a -> builder.append(a[i]);
+            case short[] a -> builder.append(a[i]);
+            case char[] a -> builder.append(a[i]);
+            case boolean[] a -> builder.append(a[i]);
+            default -> throw new IllegalArgumentException("Not a primitive array: " + array);
+        }
+    }
+
+    /**
+     * Renders records as 'Name[a=1, b=2]' like their default toString(), with bounded components.
+     */
+    private static final class RecordRenderer implements Renderer {
+
+        private final String name;
+        private final String[] names;
+        private final Method[] accessors;
+
+        private RecordRenderer(String name, String[] names, Method[] accessors) {
+            this.name = name;
+            this.names = names;
+            this.accessors = accessors;
+        }
+
+        /**
+         * @return The renderer or null if the accessors are not accessible.
+         */
+        static RecordRenderer of(Class<?> type) {
+            final RecordComponent[] components = type.getRecordComponents();
+            final String[] names = new String[components.length];
+            final Method[] accessors = new Method[components.length];
+            for (int i = 0; i < components.length; i++) {
+                names[i] = components[i].getName();
+                accessors[i] = components[i].getAccessor();
+                if (!accessors[i].trySetAccessible()) {
+                    return null;
+                }
+            }
+            return new RecordRenderer(type.getSimpleName(), names, accessors);
+        }
+
+        @Override
+        public void render(StringBuilder builder, Object value, int budget, int depth) {
+            final int start = builder.length();
+            builder.append(name).append('[');
+            for (int i = 0; i < accessors.length; i++) {
+                if (builder.length() - start >= budget) {
+                    builder.append("...");
+                    break;
+                }
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                builder.append(names[i]).append('=');
+                Object component;
+                try {
+                    component = accessors[i].invoke(value);
+                } catch (ReflectiveOperationException e) {
+                    component = "?";
+                }
+                Renderers.render(builder, component, budget - (builder.length() - start),
+                        depth + 1);
+            }
+            builder.append(']');
+        }
+    }
+}
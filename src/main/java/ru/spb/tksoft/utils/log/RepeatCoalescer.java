@@ -0,0 +1,98 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+/**
+ * Coalesces identical consecutive messages of a logger into one line plus a repeat count.
+ *
+ * The repeat count is reported when the logger emits a different message or on {@link #flush()},
+ * whichever comes first.
+ *
+ * The lines of a logger are written while holding its lock, so a repeat count always directly
+ * follows the message it refers to, also when several threads log through the same logger.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+final class RepeatCoalescer {
+
+    /** The last message of a logger. */
+    private static final class Last {
+
+        Level level;
+        String message;
+        long repeats;
+    }
+
+    private final Map<Logger, Last> lastMessages = new ConcurrentHashMap<>();
+
+    /**
+     * Emit the message unless it repeats the previous message of the logger. A message with a
+     * throwable is always emitted and is not compared with the next one.
+     *
+     * @param logger The logger.
+     * @param level The logging level.
+     * @param message The message.
+     * @param throwable The throwable or null.
+     */
+    void emit(Logger logger, Level level, String message, Throwable throwable) {
+        final Last last = lastMessages.computeIfAbsent(logger, k -> new Last());
+
+        // Write under the lock, so the repeat count directly follows the message it refers to
+        synchronized (last) {
+            if (throwable == null && level == last.level && message.equals(last.message)) {
+                last.repeats++;
+                return;
+            }
+            if (last.repeats > 0) {
+                LogEx.write(logger, last.level, repeatedMessage(last.repeats));
+            }
+            last.level = level;
+            last.message = throwable == null ? message : null;
+            last.repeats = 0;
+
+            if (throwable == null) {
+                LogEx.write(logger, level, message);
+            } else {
+                LogEx.write(logger, level, message, throwable);
+            }
+        }
+    }
+
+    /**
+     * Report pending repeat counts and forget the last messages.
+     */
+    void flush() {
+        for (Map.Entry<Logger, Last> entry : lastMessages.entrySet()) {
+            final Last last = entry.getValue();
+            synchronized (last) {
+                if (last.repeats > 0) {
+                    LogEx.write(entry.getKey(), last.level, repeatedMessage(last.repeats));
+                }
+                last.level = null;
+                last.message = null;
+                last.repeats = 0;
+            }
+        }
+    }
+
+    private static String repeatedMessage(long repeats) {
+        return "previous message repeated " + repeats + " times";
+    }
+}
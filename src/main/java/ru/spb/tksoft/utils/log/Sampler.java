@@ -0,0 +1,157 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sampling decision for high-volume logging: either a probability or one of every N events.
+ *
+ * A sampler is a handle meant to be kept in a static field next to the call site it controls, or
+ * obtained by name from {@link LogEx#sampler(String)}. The rate can be changed at runtime.
+ *
+ * Decisions are cheap: a {@link ThreadLocalRandom} draw for probabilities, a striped counter for
+ * 1-in-N. Each stripe counts on its own cache line, so with concurrent threads 1-in-N holds per
+ * stripe and approximately overall.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+public final class Sampler {
+
+    /** Number of counter stripes. */
+    private static final int STRIPES = 16;
+
+    /** Stripe spacing: 8 longs per 64-byte cache line. */
+    private static final int PADDING_SHIFT = 3;
+
+    private final AtomicLongArray counters = new AtomicLongArray(STRIPES << PADDING_SHIFT);
+
+    /** Probability, used when {@link #everyNth} is 0. */
+    private volatile double rate;
+
+    /** Keep one of every N events, 0 for probability sampling. */
+    private volatile int everyNth;
+
+    private Sampler(double rate, int everyNth) {
+        this.rate = rate;
+        this.everyNth = everyNth;
+    }
+
+    /**
+     * Create a probability sampler.
+     *
+     * @param rate The probability to keep an event, 0 to 1.
+     * @return The sampler.
+     */
+    public static Sampler ofRate(double rate) {
+        return new Sampler(checkRate(rate), 0);
+    }
+
+    /**
+     * Create a 1-in-N sampler.
+     *
+     * @param n Keep one of every n events, at least 1.
+     * @return The sampler.
+     */
+    public static Sampler everyNth(int n) {
+        return new Sampler(0, checkNth(n));
+    }
+
+    private static double checkRate(double rate) {
+        if (!(rate >= 0 && rate <= 1)) {
+            throw new IllegalArgumentException("Sampling rate must be within 0..1: " + rate);
+        }
+        return rate;
+    }
+
+    private static int checkNth(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Sampling interval must be at least 1: " + n);
+        }
+        return n;
+    }
+
+    /**
+     * Switch to probability sampling.
+     *
+     * @param rate The probability to keep an event, 0 to 1.
+     */
+    public void setRate(double rate) {
+        this.rate = checkRate(rate);
+        this.everyNth = 0;
+    }
+
+    /**
+     * Switch to 1-in-N sampling.
+     *
+     * @param n Keep one of every n events, at least 1.
+     */
+    public void setEveryNth(int n) {
+        this.everyNth = checkNth(n);
+    }
+
+    /**
+     * @return The share of kept events, 0 to 1.
+     */
+    public double getRate() {
+        final int n = everyNth;
+        return n > 0 ? 1.0 / n : rate;
+    }
+
+    /**
+     * Decide whether to keep the event.
+     *
+     * @return true to keep the event.
+     */
+    public boolean sample() {
+        final int n = everyNth;
+        return n > 0 ? nth(n) : sample(rate);
+    }
+
+    /**
+     * Probability decision.
+     *
+     * @param rate The probability to keep an event.
+     * @return true to keep the event.
+     */
+    static boolean sample(double rate) {
+        if (rate >= 1) {
+            return true;
+        }
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    /**
+     * 1-in-N decision on the stripe of the current thread.
+     *
+     * @param n Keep one of every n events.
+     * @return true to keep the event.
+     */
+    boolean nth(int n) {
+        if (n <= 1) {
+            return true;
+        }
+        final long id = Thread.currentThread().threadId();
+        final int stripe = (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & (STRIPES - 1);
+        return counters.getAndIncrement(stripe << PADDING_SHIFT) % n == 0;
+    }
+
+    @Override
+    public String toString() {
+        final int n = everyNth;
+        return n > 0 ? "everyNth(" + n + ")" : "rate(" + rate + ")";
+    }
+}
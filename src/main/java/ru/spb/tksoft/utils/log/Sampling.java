@@ -0,0 +1,129 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+
+/**
+ * Sampling decisions shared by LogEx and LogFx: per logger name overrides, named samplers and the
+ * 1-in-N counters of LogFx message formats.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+final class Sampling {
+
+    /** Samplers overriding the sampling of every call that goes to the logger with that name. */
+    private static final Map<String, Sampler> LOGGER_SAMPLERS = new ConcurrentHashMap<>();
+
+    /** Named call site samplers. */
+    private static final Map<String, Sampler> NAMED_SAMPLERS = new ConcurrentHashMap<>();
+
+    /** Maximum number of message formats with a 1-in-N counter at a time. */
+    static final int FORMAT_COUNTERS_MAX_SIZE = 1024;
+
+    /**
+     * 1-in-N counters keyed by the message format, bounded with GCLOCK eviction so formats built at
+     * runtime cannot grow it without limit. An evicted format starts counting anew.
+     */
+    private static final GClockCache<String, Sampler> FORMAT_COUNTERS =
+            new GClockCache<>(FORMAT_COUNTERS_MAX_SIZE, null);
+
+    private Sampling() {}
+
+    /**
+     * @return The override for the logger or null.
+     */
+    private static Sampler override(Logger logger) {
+        return LOGGER_SAMPLERS.isEmpty() ? null : LOGGER_SAMPLERS.get(logger.getName());
+    }
+
+    /**
+     * Probability decision, unless the logger has an override.
+     */
+    static boolean sample(Logger logger, double rate) {
+        final Sampler override = override(logger);
+        return override != null ? override.sample() : Sampler.sample(rate);
+    }
+
+    /**
+     * Call site sampler decision, unless the logger has an override.
+     */
+    static boolean sample(Logger logger, Sampler sampler) {
+        final Sampler override = override(logger);
+        return override != null ? override.sample() : sampler.sample();
+    }
+
+    /**
+     * 1-in-N decision counted per message format, unless the logger has an override.
+     */
+    static boolean sampleEveryNth(Logger logger, int n, String format) {
+        final Sampler override = override(logger);
+        if (override != null) {
+            return override.sample();
+        }
+        if (n < 1) {
+            throw new IllegalArgumentException("Sampling interval must be at least 1: " + n);
+        }
+        final String key = String.valueOf(format);
+        Sampler counter = FORMAT_COUNTERS.get(key);
+        if (counter == null) {
+            counter = FORMAT_COUNTERS.putIfAbsent(key, Sampler.everyNth(n));
+        }
+        return counter.nth(n);
+    }
+
+    /**
+     * @return The number of message formats with a 1-in-N counter.
+     */
+    static int formatCounterCount() {
+        return FORMAT_COUNTERS.size();
+    }
+
+    /**
+     * @param loggerName The logger name.
+     * @param sampler The override or null to remove it.
+     */
+    static void setLoggerSampler(String loggerName, Sampler sampler) {
+        if (loggerName == null) {
+            throw new IllegalArgumentException("Logger name must not be null");
+        }
+        if (sampler == null) {
+            LOGGER_SAMPLERS.remove(loggerName);
+        } else {
+            LOGGER_SAMPLERS.put(loggerName, sampler);
+        }
+    }
+
+    /**
+     * @param loggerName The logger name.
+     * @return The override or null.
+     */
+    static Sampler getLoggerSampler(String loggerName) {
+        return LOGGER_SAMPLERS.get(loggerName);
+    }
+
+    /**
+     * @param name The sampler name.
+     * @return The named sampler, created keeping every event if absent.
+     */
+    static Sampler named(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Sampler name must not be null");
+        }
+        return NAMED_SAMPLERS.computeIfAbsent(name, k -> Sampler.ofRate(1));
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a stack walk done by me(), xxxHere(), spans and rate-limited calls. The event
+ * duration is the walk duration.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@Name(StackWalkEvent.NAME)
+@Label("Stack Walk")
+@Category("tk-log-utils")
+@Description("Caller lookup by LogEx")
+@StackTrace(false)
+final class StackWalkEvent extends jdk.jfr.Event {
+
+    /** Event name. */
+    static final String NAME = "ru.spb.tksoft.utils.log.StackWalk";
+
+    @Label("Call Site")
+    String callSite;
+
+    @Label("Skipped Frames")
+    int skip;
+}
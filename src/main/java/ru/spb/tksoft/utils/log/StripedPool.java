@@ -0,0 +1,116 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free object pool. Objects are kept in padded slots; a thread starts probing at the
+ * slot derived from its id, so concurrent threads mostly touch different cache lines. The pool never
+ * blocks and never allocates: when it is empty {@link #poll()} returns null, when it is full
+ * {@link #offer(Object)} drops the object.
+ *
+ * The number of pooled objects is bounded by the number of slots, not by the number of threads, so
+ * the pool is safe to use from millions of virtual threads.
+ *
+ * @param <T> The pooled object type.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+final class StripedPool<T> {
+
+    /** Slot spacing: 16 compressed references per 64-byte cache line. */
+    private static final int PADDING_SHIFT = 4;
+
+    /** Number of slots probed before giving up. */
+    private static final int MAX_PROBES = 4;
+
+    private final AtomicReferenceArray<T> slots;
+
+    private final int mask;
+
+    /**
+     * Constructor.
+     *
+     * @param size The minimum number of slots; rounded up to a power of two.
+     */
+    StripedPool(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive: " + size);
+        }
+        final int stripes = Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+        this.mask = stripes - 1;
+        this.slots = new AtomicReferenceArray<>(stripes << PADDING_SHIFT);
+    }
+
+    /**
+     * Create the pool sized for the number of available processors.
+     *
+     * @param <T> The pooled object type.
+     * @return The pool.
+     */
+    static <T> StripedPool<T> forProcessors() {
+        return new StripedPool<>(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * First slot probed by the current thread.
+     */
+    private int start() {
+        final long id = Thread.currentThread().threadId();
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+
+    /**
+     * Take an object from the pool.
+     *
+     * @return The object or null if none was found.
+     */
+    T poll() {
+        final int start = start();
+        for (int i = 0; i < MAX_PROBES; i++) {
+            final int index = ((start + i) & mask) << PADDING_SHIFT;
+            final T item = slots.get(index);
+            if (item != null && slots.compareAndSet(index, item, null)) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return an object to the pool.
+     *
+     * @param item The object.
+     * @return true if the object was pooled, false if it was dropped.
+     */
+    boolean offer(T item) {
+        final int start = start();
+        for (int i = 0; i < MAX_PROBES; i++) {
+            final int index = ((start + i) & mask) << PADDING_SHIFT;
+            if (slots.get(index) == null && slots.compareAndSet(index, null, item)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The number of slots.
+     */
+    int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * UTF-8 encoding of strings and numbers straight into byte buffers and arrays. Unpaired surrogates
+ * are encoded as '?', the same as {@code String.getBytes(UTF_8)} does.
+ *
+ * Array encoding copies the chars in chunks with a bulk {@code getChars()} and writes an all-ASCII
+ * chunk with a plain narrowing loop the JIT vectorizes; only chunks with other chars are encoded
+ * char by char. Integers are written as digits without {@code Long.toString()}.
+ *
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+final class Utf8 {
+
+    /** Size of the char scratch array. */
+    static final int SCRATCH_SIZE = 256;
+
+    private static final byte[] LONG_MIN_VALUE =
+            Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+
+    private static final StripedPool<char[]> SCRATCH = StripedPool.forProcessors();
+
+    private Utf8() {}
+
+    /**
+     * Get the UTF-8 length of the string, cut at the char boundary within the limit.
+     *
+     * @param s The string.
+     * @param limit The maximum length in bytes.
+     * @return The length in bytes.
+     */
+    static int encodedLength(String s, int limit) {
+        int length = 0;
+        final int chars = s.length();
+        for (int i = 0; i < chars; i++) {
+            final char c = s.charAt(i);
+            final int bytes;
+            if (c < 0x80) {
+                bytes = 1;
+            } else if (c < 0x800) {
+                bytes = 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < chars
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                if (length + 4 > limit) {
+                    return length;
+                }
+                length += 4;
+                i++;
+                continue;
+            } else if (Character.isSurrogate(c)) {
+                bytes = 1;
+            } else {
+                bytes = 3;
+            }
+            if (length + bytes > limit) {
+                return length;
+            }
+            length += bytes;
+        }
+        return length;
+    }
+
+    /**
+     * Encode the string prefix of the given UTF-8 length, as computed by
+     * {@link #encodedLength(String, int)}.
+     *
+     * @param s The string.
+     * @param buffer The target buffer.
+     * @param index The write offset.
+     * @param length The number of bytes to write.
+     * @return The offset after the written bytes.
+     */
+    static int encode(String s, ByteBuffer buffer, int index, int length) {
+        final int end = index + length;
+        int at = index;
+        for (int i = 0; at < end; i++) {
+            final char c = s.charAt(i);
+            if (c < 0x80) {
+                buffer.put(at++, (byte) c);
+            } else if (c < 0x800) {
+                buffer.put(at++, (byte) (0xC0 | (c >> 6)));
+                buffer.put(at++, (byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                final int cp = Character.toCodePoint(c, s.charAt(++i));
+                buffer.put(at++, (byte) (0xF0 | (cp >> 18)));
+                buffer.put(at++, (byte) (0x80 | ((cp >> 12) & 0x3F)));
+                buffer.put(at++, (byte) (0x80 | ((cp >> 6) & 0x3F)));
+                buffer.put(at++, (byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put(at++, (byte) '?');
+            } else {
+                buffer.put(at++, (byte) (0xE0 | (c >> 12)));
+                buffer.put(at++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put(at++, (byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        return at;
+    }
+
+    /**
+     * Encode the string into the array.
+     *
+     * @param s The string.
+     * @param dst The target array.
+     * @param index The write offset.
+     * @param limit The end of the writable range.
+     * @return The offset after the written bytes, or -1 if the string does not fit.
+     */
+    static int encode(String s, byte[] dst, int index, int limit) {
+        final int length = s.length();
+        if (length > limit - index) {
+            return -1;
+        }
+        if (length == 0) {
+            return index;
+        }
+
+        char[] scratch = SCRATCH.poll();
+        if (scratch == null) {
+            scratch = new char[SCRATCH_SIZE];
+        }
+        try {
+            int at = index;
+            for (int i = 0; i < length; i += SCRATCH_SIZE) {
+                final int chunk = Math.min(SCRATCH_SIZE, length - i);
+                s.getChars(i, i + chunk, scratch, 0);
+                int or = 0;
+                for (int k = 0; k < chunk; k++) {
+                    or |= scratch[k];
+                }
+                if (or >= 0x80 || chunk > limit - at) {
+                    return encodeChars(s, i, dst, at, limit);
+                }
+                for (int k = 0; k < chunk; k++) {
+                    dst[at + k] = (byte) scratch[k];
+                }
+                at += chunk;
+            }
+            return at;
+        } finally {
+            SCRATCH.offer(scratch);
+        }
+    }
+
+    /**
+     * Encode the rest of the string char by char.
+     */
+    private static int encodeChars(String s, int from, byte[] dst, int index, int limit) {
+        final int length = s.length();
+        int at = index;
+        for (int i = from; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c < 0x80) {
+                if (at >= limit) {
+                    return -1;
+                }
+                dst[at++] = (byte) c;
+            } else if (c < 0x800) {
+                if (at + 2 > limit) {
+                    return -1;
+                }
+                dst[at++] = (byte) (0xC0 | (c >> 6));
+                dst[at++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                if (at + 4 > limit) {
+                    return -1;
+                }
+                final int cp = Character.toCodePoint(c, s.charAt(++i));
+                dst[at++] = (byte) (0xF0 | (cp >> 18));
+                dst[at++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                dst[at++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                dst[at++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (at >= limit) {
+                    return -1;
+                }
+                dst[at++] = (byte) '?';
+            } else {
+                if (at + 3 > limit) {
+                    return -1;
+                }
+                dst[at++] = (byte) (0xE0 | (c >> 12));
+                dst[at++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                dst[at++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return at;
+    }
+
+    /**
+     * Write the decimal digits of the number.
+     *
+     * @param value The number.
+     * @param dst The target array.
+     * @param index The write offset.
+     * @param limit The end of the writable range.
+     * @return The offset after the written bytes, or -1 if the number does not fit.
+     */
+    static int encode(long value, byte[] dst, int index, int limit) {
+        if (value == Long.MIN_VALUE) {
+            if (LONG_MIN_VALUE.length > limit - index) {
+                return -1;
+            }
+            System.arraycopy(LONG_MIN_VALUE, 0, dst, index, LONG_MIN_VALUE.length);
+            return index + LONG_MIN_VALUE.length;
+        }
+
+        final boolean negative = value < 0;
+        long rest = negative ? -value : value;
+        int digits = 1;
+        for (long bound = 10; digits < 19 && rest >= bound; bound *= 10) {
+            digits++;
+        }
+        final int end = index + digits + (negative ? 1 : 0);
+        if (end > limit) {
+            return -1;
+        }
+
+        int at = end;
+        do {
+            dst[--at] = (byte) ('0' + rest % 10);
+            rest /= 10;
+        } while (rest != 0);
+        if (negative) {
+            dst[--at] = '-';
+        }
+        return end;
+    }
+}
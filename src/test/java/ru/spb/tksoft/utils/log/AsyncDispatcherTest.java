@@ -0,0 +1,367 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.Level;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for AsyncDispatcher class and the LogEx async mode.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("AsyncDispatcher Tests")
+class AsyncDispatcherTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @AfterEach
+    void stopAsync() {
+        LogEx.stopAsync(TIMEOUT);
+        LogEx.setOverflowPolicy(OverflowPolicy.block());
+        LogEx.setDropSummaryInterval(LogEx.DEFAULT_DROP_SUMMARY_INTERVAL);
+    }
+
+    /**
+     * Fill the buffer of capacity 4 behind a held logger: the drainer stalls on the first event,
+     * whose slot stays occupied, so exactly four events are queued.
+     */
+    private static void fillBuffer(RecordingLogger logger) {
+        logger.hold();
+        LogEx.startAsync(4);
+        for (int i = 0; i < 4; i++) {
+            LogEx.info(logger, "queued", i);
+        }
+    }
+
+    @Test
+    @DisplayName("Should round capacity up to a power of two")
+    void shouldRoundCapacity() {
+        // Given
+        AsyncDispatcher dispatcher = new AsyncDispatcher(100, OverflowPolicy.block(),
+                LogEx.DEFAULT_DROP_SUMMARY_INTERVAL, TIMEOUT);
+
+        // Then
+        Assertions.assertThat(dispatcher.capacity()).as("Capacity").isEqualTo(128);
+        Assertions.assertThat(dispatcher.stop(TIMEOUT)).as("Stopped").isTrue();
+        Assertions.assertThatThrownBy(() -> new AsyncDispatcher(0, OverflowPolicy.block(),
+                LogEx.DEFAULT_DROP_SUMMARY_INTERVAL, TIMEOUT))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should format events on the drainer thread")
+    void shouldFormatOnDrainerThread() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        LogEx.startAsync(16);
+
+        // When
+        LogEx.info(logger, "one", 1);
+        LogEx.warn(logger, "a", "b", "c", "d", "e");
+        LogEx.parts(logger, Level.ERROR).add("x").add(42).log();
+        LogEx.debugHere(logger, "here");
+        boolean flushed = LogEx.stopAsync(TIMEOUT);
+
+        // Then
+        Assertions.assertThat(flushed).as("Flushed").isTrue();
+        Assertions.assertThat(logger.messages()).containsExactly(
+                "one: 1", "a: b: c: d: e", "x: 42", "shouldFormatOnDrainerThread: here");
+        Assertions.assertThat(logger.events())
+                .extracting(RecordingLogger.Event::level)
+                .containsExactly(Level.INFO, Level.WARN, Level.ERROR, Level.DEBUG);
+        Assertions.assertThat(logger.events())
+                .extracting(RecordingLogger.Event::threadName)
+                .containsOnly("tk-log-utils-async");
+    }
+
+    @Test
+    @DisplayName("Should keep per-producer order with a small buffer")
+    void shouldKeepPerProducerOrder() throws InterruptedException {
+        // Given
+        final int producers = 8;
+        final int eventsPerProducer = 5_000;
+        RecordingLogger logger = new RecordingLogger();
+        LogEx.startAsync(8);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        for (int p = 0; p < producers; p++) {
+            final String producer = "p" + p;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < eventsPerProducer; i++) {
+                    LogEx.info(logger, producer, i);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        Assertions.assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        Assertions.assertThat(LogEx.stopAsync(TIMEOUT)).as("Flushed").isTrue();
+
+        // Then
+        Map<String, List<Integer>> sequences = new HashMap<>();
+        for (String message : logger.messages()) {
+            String[] split = message.split(": ");
+            sequences.computeIfAbsent(split[0], k -> new ArrayList<>())
+                    .add(Integer.parseInt(split[1]));
+        }
+        Assertions.assertThat(sequences).as("Producers").hasSize(producers);
+        for (List<Integer> sequence : sequences.values()) {
+            Assertions.assertThat(sequence).as("Sequence").hasSize(eventsPerProducer).isSorted();
+        }
+    }
+
+    @Test
+    @DisplayName("Should flush queued events on stop and log synchronously afterwards")
+    void shouldFlushOnStop() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        LogEx.startAsync(1024);
+        for (int i = 0; i < 1000; i++) {
+            LogEx.trace(logger, i);
+        }
+
+        // When
+        boolean flushed = LogEx.stopAsync(TIMEOUT);
+        LogEx.trace(logger, "sync");
+
+        // Then
+        Assertions.assertThat(flushed).as("Flushed").isTrue();
+        Assertions.assertThat(LogEx.isAsync()).as("Async").isFalse();
+        Assertions.assertThat(logger.messages()).hasSize(1001).endsWith("sync");
+        Assertions.assertThat(logger.events().get(1000).threadName())
+                .isEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    @DisplayName("Should reject a second start")
+    void shouldRejectSecondStart() {
+        // Given
+        LogEx.startAsync(16);
+
+        // Then
+        Assertions.assertThat(LogEx.isAsync()).isTrue();
+        Assertions.assertThatThrownBy(() -> LogEx.startAsync(16))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should drop newest events and report them on stop")
+    void shouldDropNewest() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        LogEx.setOverflowPolicy(OverflowPolicy.dropNewest());
+        fillBuffer(logger);
+
+        // When
+        for (int i = 0; i < 6; i++) {
+            LogEx.debug(logger, "dropped", i);
+        }
+        long dropped = LogEx.getAsyncDroppedCount(Level.DEBUG);
+        logger.release();
+        boolean flushed = LogEx.stopAsync(TIMEOUT);
+
+        // Then
+        Assertions.assertThat(flushed).as("Flushed").isTrue();
+        Assertions.assertThat(dropped).as("Dropped").isEqualTo(6);
+        Assertions.assertThat(logger.messages()).containsExactly(
+                "queued: 0", "queued: 1", "queued: 2", "queued: 3",
+                "Async log queue overflow: 6 events dropped (DEBUG=6)");
+        Assertions.assertThat(logger.events().get(4).level()).isEqualTo(Level.WARN);
+    }
+
+    @Test
+    @DisplayName("Should drop events below the threshold and keep the rest")
+    void shouldDropBelowThreshold() throws InterruptedException {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        LogEx.setOverflowPolicy(OverflowPolicy.dropBelow(Level.WARN));
+        fillBuffer(logger);
+
+        // When
+        LogEx.trace(logger, "dropped");
+        LogEx.info(logger, "dropped");
+        Thread producer = Thread.ofPlatform().start(() -> LogEx.error(logger, "kept"));
+        Thread.sleep(50);
+        Assertions.assertThat(producer.isAlive()).as("ERROR waits for a slot").isTrue();
+        logger.release();
+        producer.join(TIMEOUT.toMillis());
+        long droppedTrace = LogEx.getAsyncDroppedCount(Level.TRACE);
+        long droppedInfo = LogEx.getAsyncDroppedCount(Level.INFO);
+        long droppedError = LogEx.getAsyncDroppedCount(Level.ERROR);
+        LogEx.stopAsync(TIMEOUT);
+
+        // Then
+        Assertions.assertThat(droppedTrace).as("Dropped TRACE").isEqualTo(1);
+        Assertions.assertThat(droppedInfo).as("Dropped INFO").isEqualTo(1);
+        Assertions.assertThat(droppedError).as("Dropped ERROR").isZero();
+        Assertions.assertThat(logger.messages()).contains("kept",
+                "Async log queue overflow: 2 events dropped (TRACE=1, INFO=1)");
+    }
+
+    @Test
+    @DisplayName("Should drop after the blocking timeout")
+    void shouldDropAfterTimeout() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        LogEx.setOverflowPolicy(OverflowPolicy.block(Duration.ofMillis(50)));
+        fillBuffer(logger);
+
+        // When
+        long started = System.nanoTime();
+        LogEx.warn(logger, "dropped");
+        long waited = System.nanoTime() - started;
+        long dropped = LogEx.getAsyncDroppedCount(Level.WARN);
+        logger.release();
+
+        // Then
+        Assertions.assertThat(waited).as("Waited").isGreaterThanOrEqualTo(50_000_000L);
+        Assertions.assertThat(dropped).as("Dropped").isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should emit the drop summary periodically")
+    void shouldEmitPeriodicSummary() throws InterruptedException {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        LogEx.setOverflowPolicy(OverflowPolicy.dropNewest());
+        LogEx.setDropSummaryInterval(Duration.ofMillis(20));
+        fillBuffer(logger);
+
+        // When
+        LogEx.error(logger, "dropped");
+        logger.release();
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (logger.messages().size() < 5 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        // Then
+        Assertions.assertThat(LogEx.isAsync()).as("Async").isTrue();
+        Assertions.assertThat(logger.messages())
+                .contains("Async log queue overflow: 1 events dropped (ERROR=1)");
+    }
+
+    @Test
+    @DisplayName("Should not lose events published while stopping")
+    void shouldNotLoseEventsWhileStopping() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            // Given
+            final int producers = 4;
+            final int eventsPerProducer = 2_000;
+            RecordingLogger logger = new RecordingLogger();
+            AsyncDispatcher dispatcher = new AsyncDispatcher(64, OverflowPolicy.block(),
+                    LogEx.DEFAULT_DROP_SUMMARY_INTERVAL, TIMEOUT);
+            ExecutorService executor = Executors.newFixedThreadPool(producers);
+            CountDownLatch start = new CountDownLatch(1);
+            for (int p = 0; p < producers; p++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < eventsPerProducer; i++) {
+                        if (!dispatcher.publish(logger, Level.INFO, "e")) {
+                            LogEx.emit(logger, Level.INFO, "sync");
+                        }
+                    }
+                    return null;
+                });
+            }
+
+            // When
+            start.countDown();
+            boolean flushed = dispatcher.stop(TIMEOUT);
+            executor.shutdown();
+            Assertions.assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+            // Then
+            Assertions.assertThat(flushed).as("Flushed").isTrue();
+            Assertions.assertThat(logger.messages()).as("Round %d", round)
+                    .hasSize(producers * eventsPerProducer);
+        }
+    }
+
+    @Test
+    @DisplayName("Should count backend failures as internal errors")
+    void shouldCountBackendFailures() {
+        // Given
+        long before = LogEx.getMetrics().getInternalErrors();
+        LogEx.setSink((logger, level, message) -> {
+            throw new IllegalStateException("backend down");
+        });
+        LogEx.startAsync(16);
+
+        try {
+            // When
+            LogEx.info(new RecordingLogger(), "lost");
+            Assertions.assertThat(LogEx.stopAsync(TIMEOUT)).as("Flushed").isTrue();
+        } finally {
+            LogEx.setSink(null);
+        }
+
+        // Then
+        Assertions.assertThat(LogEx.getMetrics().getInternalErrors() - before).isEqualTo(1);
+        Assertions.assertThat(LogEx.getMetrics().getLastInternalError())
+                .contains("async event dropped").contains("backend down");
+    }
+
+    @Test
+    @DisplayName("Should log synchronously when a part logs from the drainer")
+    void shouldNotBlockDrainerOnItself() throws InterruptedException {
+        // Given
+        final int nested = 100;
+        RecordingLogger logger = new RecordingLogger();
+        Object reentrant = new Object() {
+            @Override
+            public String toString() {
+                // More than the buffer holds: a blocking claim would wait for the drainer
+                for (int i = 0; i < nested; i++) {
+                    LogEx.info(logger, "nested", i);
+                }
+                return "outer";
+            }
+        };
+        LogEx.startAsync(4);
+
+        // When
+        LogEx.info(logger, reentrant);
+        final long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (logger.messages().size() < nested + 1 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        // Then: written before the stop, which would release a blocked drainer
+        Assertions.assertThat(logger.messages()).hasSize(nested + 1).endsWith("outer");
+        Assertions.assertThat(LogEx.stopAsync(TIMEOUT)).as("Flushed").isTrue();
+    }
+}
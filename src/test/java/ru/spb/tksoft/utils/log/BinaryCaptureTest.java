@@ -0,0 +1,299 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.Level;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for BinaryCapture class and the LogEx capture mode.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("BinaryCapture Tests")
+class BinaryCaptureTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @AfterEach
+    void stopCapture() {
+        LogEx.stopCapture(TIMEOUT);
+        LogEx.stopAsync(TIMEOUT);
+        LogEx.setOverflowPolicy(OverflowPolicy.block());
+    }
+
+    @Test
+    @DisplayName("Should round capacity up to a power of two with a minimum")
+    void shouldRoundCapacity() {
+        // Given
+        BinaryCapture small = new BinaryCapture(100, OverflowPolicy.block(), TIMEOUT);
+        BinaryCapture large = new BinaryCapture(10_000, OverflowPolicy.block(), TIMEOUT);
+
+        // Then
+        Assertions.assertThat(small.capacity()).as("Small").isEqualTo(BinaryCapture.MIN_CAPACITY);
+        Assertions.assertThat(large.capacity()).as("Large").isEqualTo(16_384);
+        Assertions.assertThat(small.stop(TIMEOUT)).as("Stopped").isTrue();
+        Assertions.assertThat(large.stop(TIMEOUT)).as("Stopped").isTrue();
+        Assertions.assertThatThrownBy(() -> new BinaryCapture(0, OverflowPolicy.block(), TIMEOUT))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should format captured events on the drainer thread")
+    void shouldFormatOnDrainerThread() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        LogEx.startCapture(4096);
+        StringBuilder mutable = new StringBuilder("before");
+
+        // When
+        LogEx.info(logger, "one", 1);
+        LogEx.warn(logger, "a", 2L, 3.5, true, 'e', mutable);
+        mutable.setLength(0);
+        LogEx.parts(logger, Level.ERROR).add("x").add(42).log();
+        LogEx.debugHere(logger);
+        LogEx.traceHere(logger, "here", null);
+        boolean flushed = LogEx.stopCapture(TIMEOUT);
+
+        // Then
+        Assertions.assertThat(flushed).as("Flushed").isTrue();
+        Assertions.assertThat(logger.messages()).containsExactly(
+                "one: 1", "a: 2: 3.5: true: e: before", "x: 42",
+                "shouldFormatOnDrainerThread", "shouldFormatOnDrainerThread: here: null");
+        Assertions.assertThat(logger.events())
+                .extracting(RecordingLogger.Event::level)
+                .containsExactly(Level.INFO, Level.WARN, Level.ERROR, Level.DEBUG, Level.TRACE);
+        Assertions.assertThat(logger.events())
+                .extracting(RecordingLogger.Event::threadName)
+                .containsOnly("tk-log-utils-capture");
+    }
+
+    @Test
+    @DisplayName("Should log oversized messages synchronously")
+    void shouldLogOversizedSynchronously() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        LogEx.startCapture(4096);
+        String huge = "x".repeat(4096);
+
+        // When
+        LogEx.info(logger, huge);
+        LogEx.stopCapture(TIMEOUT);
+
+        // Then
+        Assertions.assertThat(logger.messages()).containsExactly(huge);
+        Assertions.assertThat(logger.events().get(0).threadName())
+                .isEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    @DisplayName("Should keep per-producer order while wrapping around a small buffer")
+    void shouldKeepPerProducerOrder() throws InterruptedException {
+        // Given
+        final int producers = 8;
+        final int eventsPerProducer = 5_000;
+        RecordingLogger logger = new RecordingLogger();
+        LogEx.startCapture(4096);
+
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // When
+        for (int p = 0; p < producers; p++) {
+            final String producer = "p" + p;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < eventsPerProducer; i++) {
+                    // Varying sizes make records straddle the end of the buffer
+                    LogEx.info(logger, producer, i, "-".repeat(i % 37));
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        Assertions.assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        Assertions.assertThat(LogEx.stopCapture(TIMEOUT)).as("Flushed").isTrue();
+
+        // Then
+        Map<String, List<Integer>> sequences = new HashMap<>();
+        for (String message : logger.messages()) {
+            String[] split = message.split(": ");
+            sequences.computeIfAbsent(split[0], k -> new ArrayList<>())
+                    .add(Integer.parseInt(split[1]));
+        }
+        Assertions.assertThat(sequences).as("Producers").hasSize(producers);
+        for (List<Integer> sequence : sequences.values()) {
+            Assertions.assertThat(sequence).as("Sequence").hasSize(eventsPerProducer).isSorted();
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop events when full under the drop policy")
+    void shouldDropWhenFull() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        LogEx.setOverflowPolicy(OverflowPolicy.dropNewest());
+        logger.hold();
+        LogEx.startCapture(4096);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            LogEx.info(logger, "event", i);
+        }
+        long dropped = LogEx.getCaptureDroppedCount();
+        logger.release();
+        boolean flushed = LogEx.stopCapture(TIMEOUT);
+
+        // Then
+        Assertions.assertThat(flushed).as("Flushed").isTrue();
+        Assertions.assertThat(dropped).as("Dropped").isPositive();
+        Assertions.assertThat((long) logger.messages().size()).isEqualTo(1000 - dropped);
+    }
+
+    @Test
+    @DisplayName("Should exclude the async mode")
+    void shouldExcludeAsyncMode() {
+        // Given
+        LogEx.startCapture(4096);
+
+        // Then
+        Assertions.assertThat(LogEx.isCapture()).isTrue();
+        Assertions.assertThatThrownBy(() -> LogEx.startCapture(4096))
+                .isInstanceOf(IllegalStateException.class);
+        Assertions.assertThatThrownBy(() -> LogEx.startAsync(16))
+                .isInstanceOf(IllegalStateException.class);
+
+        // When
+        LogEx.stopCapture(TIMEOUT);
+        LogEx.startAsync(16);
+
+        // Then
+        Assertions.assertThatThrownBy(() -> LogEx.startCapture(4096))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Should count backend failures as internal errors")
+    void shouldCountBackendFailures() {
+        // Given
+        long before = LogEx.getMetrics().getInternalErrors();
+        LogEx.setSink((logger, level, message) -> {
+            throw new IllegalStateException("backend down");
+        });
+        LogEx.startCapture(4096);
+
+        try {
+            // When
+            LogEx.info(new RecordingLogger(), "lost", 1);
+            Assertions.assertThat(LogEx.stopCapture(TIMEOUT)).as("Flushed").isTrue();
+        } finally {
+            LogEx.setSink(null);
+        }
+
+        // Then
+        Assertions.assertThat(LogEx.getMetrics().getInternalErrors() - before).isEqualTo(1);
+        Assertions.assertThat(LogEx.getMetrics().getLastInternalError())
+                .contains("captured event dropped");
+    }
+
+    @Test
+    @DisplayName("Should log synchronously when the backend logs from the drainer")
+    void shouldNotBlockDrainerOnItself() throws InterruptedException {
+        // Given
+        final int nested = 2_000;
+        RecordingLogger logger = new RecordingLogger();
+        Queue<String> written = new ConcurrentLinkedQueue<>();
+        LogEx.setSink((sinkLogger, level, message) -> {
+            written.add(message);
+            if (message.equals("outer")) {
+                // More than the buffer holds: a blocking reserve would wait for the drainer
+                for (int i = 0; i < nested; i++) {
+                    LogEx.info(logger, "nested", i);
+                }
+            }
+        });
+        LogEx.startCapture(BinaryCapture.MIN_CAPACITY);
+
+        try {
+            // When
+            LogEx.info(logger, "outer");
+            final long deadline = System.nanoTime() + TIMEOUT.toNanos();
+            while (written.size() < nested + 1 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+
+            // Then: written before the stop, which would release a blocked drainer
+            Assertions.assertThat(written).hasSize(nested + 1);
+            Assertions.assertThat(LogEx.stopCapture(TIMEOUT)).as("Flushed").isTrue();
+        } finally {
+            LogEx.setSink(null);
+        }
+    }
+
+    @Test
+    @DisplayName("Should not lose events while stopping")
+    void shouldNotLoseEventsWhileStopping() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            // Given
+            final int producers = 4;
+            final int eventsPerProducer = 2_000;
+            RecordingLogger logger = new RecordingLogger();
+            BinaryCapture capture = new BinaryCapture(BinaryCapture.MIN_CAPACITY,
+                    OverflowPolicy.block(), TIMEOUT);
+            ExecutorService executor = Executors.newFixedThreadPool(producers);
+            CountDownLatch start = new CountDownLatch(1);
+            for (int p = 0; p < producers; p++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < eventsPerProducer; i++) {
+                        if (!capture.publish(logger, Level.INFO, "e")) {
+                            LogEx.emit(logger, Level.INFO, "sync");
+                        }
+                    }
+                    return null;
+                });
+            }
+
+            // When
+            start.countDown();
+            boolean flushed = capture.stop(TIMEOUT);
+            executor.shutdown();
+            Assertions.assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+            // Then
+            Assertions.assertThat(flushed).as("Flushed").isTrue();
+            Assertions.assertThat(logger.messages()).as("Round %d", round)
+                    .hasSize(producers * eventsPerProducer);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Unit tests for BinaryLogFormat class.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("BinaryLogFormat Tests")
+class BinaryLogFormatTest {
+
+    /**
+     * Write one record the way the capture does and return the aligned record size.
+     */
+    private static int putRecord(ByteBuffer buffer, int offset, int siteId, Object... parts) {
+        int index = BinaryLogFormat.putHeader(buffer, offset, siteId, parts.length);
+        int size = BinaryLogFormat.HEADER_SIZE;
+        for (Object part : parts) {
+            Object value = BinaryLogFormat.normalize(part);
+            size += BinaryLogFormat.sizeOf(value);
+            index = BinaryLogFormat.put(buffer, index, value);
+        }
+        Assertions.assertThat(index - offset).as("Written size").isEqualTo(size);
+        int aligned = BinaryLogFormat.align(size);
+        buffer.putInt(offset, aligned);
+        return aligned;
+    }
+
+    @Test
+    @DisplayName("Should decode every argument type like String.valueOf()")
+    void shouldDecodeArgumentTypes() {
+        // Given
+        ByteBuffer buffer = ByteBuffer.allocateDirect(512);
+        Object[] parts = {"text", 42, -7L, 0.1f, 2.5, true, 'c', (short) 3, (byte) -1, null,
+                List.of(1, 2), "", "юникод"};
+
+        // When
+        int size = putRecord(buffer, 0, 5, parts);
+
+        // Then
+        StringBuilder expected = new StringBuilder();
+        for (Object part : parts) {
+            expected.append(expected.isEmpty() ? "" : ": ").append(String.valueOf(part));
+        }
+        Assertions.assertThat(size % BinaryLogFormat.ALIGNMENT).as("Alignment").isZero();
+        Assertions.assertThat(BinaryLogFormat.recordLength(buffer, 0)).isEqualTo(size);
+        Assertions.assertThat(BinaryLogFormat.siteId(buffer, 0)).as("Site").isEqualTo(5);
+        Assertions.assertThat(BinaryLogFormat.decodeMessage(buffer, 0))
+                .isEqualTo(expected.toString());
+    }
+
+    @Test
+    @DisplayName("Should decode consecutive records, skip padding and stop at uncommitted ones")
+    void shouldDecodeAll() {
+        // Given
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        int offset = putRecord(buffer, 0, 1, "first", 1);
+        buffer.putInt(offset, -16);
+        offset += 16;
+        offset += putRecord(buffer, offset, 2, "second", 2L);
+        putRecord(buffer, offset, 3, "uncommitted");
+        buffer.putInt(offset, 0);
+
+        // When
+        List<String> messages = BinaryLogFormat.decodeAll(buffer);
+
+        // Then
+        Assertions.assertThat(messages).containsExactly("first: 1", "second: 2");
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown argument tag")
+    void shouldRejectUnknownTag() {
+        // Given
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        BinaryLogFormat.putHeader(buffer, 0, 1, 1);
+        buffer.put(BinaryLogFormat.HEADER_SIZE, (byte) 99);
+        buffer.putInt(0, 16);
+
+        // Then
+        Assertions.assertThatThrownBy(() -> BinaryLogFormat.decodeMessage(buffer, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("99");
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.assertj.core.data.Percentage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.NOPLogger;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Unit tests for LatencyHistogram class and span latency recording.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("LatencyHistogram Tests")
+class LatencyHistogramTest {
+
+    @AfterEach
+    void restoreDefaults() {
+        LogEx.setLatencyRecording(false);
+        LogEx.setLatencySummaryInterval(null);
+        LogEx.clearLatencies();
+    }
+
+    @Test
+    @DisplayName("Should place values in buckets within their bounds")
+    void shouldPlaceValuesInBuckets() {
+        long[] values = {0, 1, 7, 8, 15, 16, 1_000, 123_456_789, 1L << 60};
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucket(value);
+            Assertions.assertThat(bucket).isBetween(0, LatencyHistogram.BUCKETS - 1);
+            Assertions.assertThat(LatencyHistogram.upperBound(bucket))
+                    .as("Upper bound of %d", value)
+                    .isGreaterThanOrEqualTo(value)
+                    .isLessThanOrEqualTo(value + value / LatencyHistogram.SUB_BUCKETS);
+            if (bucket > 0) {
+                Assertions.assertThat(LatencyHistogram.upperBound(bucket - 1))
+                        .as("Previous bucket of %d", value)
+                        .isLessThan(value);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should report percentiles within the bucket precision")
+    void shouldReportPercentiles() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram("a.b.Site#run", "Site#run", 0);
+
+        // When
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        // Then
+        Assertions.assertThat(histogram.getCount()).isEqualTo(100_000);
+        Assertions.assertThat(histogram.getMax()).isEqualTo(100_000_000);
+        Assertions.assertThat(histogram.getMean())
+                .isCloseTo(50_000_500L, Percentage.withPercentage(1));
+        Assertions.assertThat(histogram.getP50())
+                .isCloseTo(50_000_000L, Percentage.withPercentage(13));
+        Assertions.assertThat(histogram.getP90())
+                .isCloseTo(90_000_000L, Percentage.withPercentage(13));
+        Assertions.assertThat(histogram.getP99())
+                .isCloseTo(99_000_000L, Percentage.withPercentage(13));
+        Assertions.assertThat(histogram.getP999()).isLessThanOrEqualTo(histogram.getMax());
+        Assertions.assertThat(histogram.summary()).startsWith("Site#run: latency: count=100000, ");
+    }
+
+    @Test
+    @DisplayName("Should not lose records under contention")
+    void shouldRecordConcurrently() throws InterruptedException {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram("a.b.Site#run", "Site#run", 0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        for (int t = 0; t < 8; t++) {
+            final long value = (t + 1) * 100L;
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(value);
+                }
+            });
+        }
+        executor.shutdown();
+        Assertions.assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        Assertions.assertThat(histogram.getCount()).isEqualTo(80_000);
+        Assertions.assertThat(histogram.getMax()).isEqualTo(800);
+    }
+
+    @Test
+    @DisplayName("Should record spans and expose them over JMX")
+    void shouldExposeSpansOverJmx() throws Exception {
+        // Given
+        LogEx.setLatencyRecording(true);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            try (LogSpan span = LogEx.span(NOPLogger.NOP_LOGGER, Level.DEBUG)) {
+                span.elapsedNanos();
+            }
+        }
+
+        // Then
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name =
+                LatencyRecorder.objectName(LatencyHistogramTest.class.getName()
+                        + "#shouldExposeSpansOverJmx");
+        Assertions.assertThat(server.isRegistered(name)).as("Registered").isTrue();
+        Assertions.assertThat(server.getAttribute(name, "Count")).isEqualTo(10L);
+        Assertions.assertThat((Long) server.getAttribute(name, "P99"))
+                .isLessThanOrEqualTo((Long) server.getAttribute(name, "Max"));
+
+        LogEx.clearLatencies();
+        Assertions.assertThat(server.isRegistered(name)).as("Unregistered").isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep same-named classes of different packages apart")
+    void shouldKeyByFullyQualifiedName() throws Exception {
+        // When
+        LatencyHistogram first = LatencyRecorder.histogram("a.Foo#run", "Foo#run");
+        LatencyHistogram second = LatencyRecorder.histogram("b.Foo#run", "Foo#run");
+        first.record(100);
+
+        // Then
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Assertions.assertThat(second).isNotSameAs(first);
+        Assertions.assertThat(second.getCount()).isZero();
+        Assertions.assertThat(server.getAttribute(LatencyRecorder.objectName("a.Foo#run"),
+                "Count")).isEqualTo(1L);
+        Assertions.assertThat(server.getAttribute(LatencyRecorder.objectName("b.Foo#run"),
+                "CallSite")).isEqualTo("b.Foo#run");
+        Assertions.assertThat(first.summary()).startsWith("Foo#run: latency: count=1");
+    }
+
+    @Test
+    @DisplayName("Should replace span lines with a periodic summary")
+    void shouldLogPeriodicSummary() throws InterruptedException {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        LogEx.setLatencyRecording(true);
+        LogEx.setLatencySummaryInterval(Duration.ofMillis(50));
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            try (LogSpan span = LogEx.span(logger, Level.INFO)) {
+                span.elapsedNanos();
+            }
+        }
+        Thread.sleep(60);
+        try (LogSpan span = LogEx.span(logger, Level.INFO)) {
+            span.elapsedNanos();
+        }
+
+        // Then
+        Assertions.assertThat(logger.messages()).hasSize(1);
+        Assertions.assertThat(logger.messages().get(0))
+                .startsWith("LatencyHistogramTest#shouldLogPeriodicSummary: latency: count=4, ")
+                .endsWith(" ns");
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.NOPLogger;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Per-call allocation tests for the logging paths.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("Allocation Tests")
+class LogAllocationTest {
+
+    /**
+     * Short warm-up: long enough to load classes, short enough that most measured calls run before
+     * C2 escape analysis could hide a varargs array.
+     */
+    private static final int WARMUP_CALLS = 1_000;
+    private static final int MEASURED_CALLS = 20_000;
+
+    /** All levels are disabled. */
+    private static final Logger DISABLED = NOPLogger.NOP_LOGGER;
+
+    private static final Object PART = "part";
+
+    private static com.sun.management.ThreadMXBean threadMXBean;
+
+    @BeforeAll
+    static void setUp() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(bean instanceof com.sun.management.ThreadMXBean,
+                "Thread allocation counters are not available");
+        threadMXBean = (com.sun.management.ThreadMXBean) bean;
+        Assumptions.assumeTrue(threadMXBean.isThreadAllocatedMemorySupported(),
+                "Thread allocation counters are not supported");
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    /**
+     * Measure the average number of bytes allocated by the current thread per call.
+     */
+    private static double bytesPerCall(Runnable call) {
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            call.run();
+        }
+
+        final long before = threadMXBean.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            call.run();
+        }
+        final long after = threadMXBean.getCurrentThreadAllocatedBytes();
+
+        return (double) (after - before) / MEASURED_CALLS;
+    }
+
+    @Test
+    @DisplayName("Should not allocate on disabled LogEx fixed-arity calls")
+    void shouldNotAllocateOnDisabledLogExFixedArityCalls() {
+        double allocated = bytesPerCall(() -> {
+            LogEx.trace(DISABLED, PART);
+            LogEx.debug(DISABLED, PART, PART);
+            LogEx.info(DISABLED, PART, PART, PART);
+            LogEx.warn(DISABLED, PART, PART, PART, PART);
+            LogEx.error(DISABLED, PART, PART);
+        });
+
+        Assertions.assertThat(allocated)
+                .as("Disabled LogEx calls should allocate nothing")
+                .isLessThan(1.0);
+    }
+
+    @Test
+    @DisplayName("Should not allocate on disabled LogFx fixed-arity calls")
+    void shouldNotAllocateOnDisabledLogFxFixedArityCalls() {
+        double allocated = bytesPerCall(() -> {
+            LogFx.trace(DISABLED, "message");
+            LogFx.debug(DISABLED, "{}", PART);
+            LogFx.info(DISABLED, "{} {}", PART, PART);
+            LogFx.warn(DISABLED, "{} {} {}", PART, PART, PART);
+            LogFx.error(DISABLED, "{} {} {} {}", PART, PART, PART, PART);
+        });
+
+        Assertions.assertThat(allocated)
+                .as("Disabled LogFx calls should allocate nothing")
+                .isLessThan(1.0);
+    }
+
+    @Test
+    @DisplayName("Should not allocate on disabled spans")
+    void shouldNotAllocateOnDisabledSpans() {
+        double allocated = bytesPerCall(() -> {
+            try (LogSpan span = LogEx.span(DISABLED, Level.DEBUG)) {
+                span.elapsedNanos();
+            }
+        });
+
+        Assertions.assertThat(allocated)
+                .as("Disabled spans should allocate nothing")
+                .isLessThan(1.0);
+    }
+
+    @Test
+    @DisplayName("Should allocate less with primitive parts than with boxed parts")
+    void shouldAllocateLessWithPrimitivePartsThanWithBoxedParts() {
+        final Logger enabled = EnabledNopLogger.INSTANCE;
+        final long[] counter = {1_000_000L};
+
+        double boxed = bytesPerCall(() -> {
+            final long value = counter[0]++;
+            LogEx.debug(enabled, PART, value, value * 0.5, (int) value);
+        });
+        double primitive = bytesPerCall(() -> {
+            final long value = counter[0]++;
+            LogEx.parts(enabled, Level.DEBUG).add(PART).add(value).add(value * 0.5)
+                    .add((int) value).log();
+        });
+
+        Assertions.assertThat(primitive)
+                .as("Primitive parts should avoid boxing and String.valueOf() garbage")
+                .isLessThan(boxed);
+    }
+}
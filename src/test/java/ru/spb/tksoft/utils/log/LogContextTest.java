@@ -0,0 +1,186 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+
+/**
+ * Unit tests for LogContext class.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("LogContext Tests")
+class LogContextTest {
+
+    @AfterEach
+    void tearDown() {
+        LogEx.stopAsync(Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Should restore the outer context when a scope closes")
+    @SuppressWarnings("try")
+    void shouldRestoreOnClose() {
+        // Given
+        LogContext outer;
+        LogContext inner;
+
+        // When
+        try (LogContext.Scope a = LogContext.with("request", "r1")) {
+            outer = LogContext.current();
+            try (LogContext.Scope b = LogContext.with("request", "r2");
+                    LogContext.Scope c = LogContext.with("user", "bob")) {
+                inner = LogContext.current();
+            }
+            // Then
+            Assertions.assertThat(LogContext.current()).as("outer restored").isSameAs(outer);
+        }
+        Assertions.assertThat(LogContext.current()).isSameAs(LogContext.EMPTY);
+        Assertions.assertThat(outer.size()).isEqualTo(1);
+        Assertions.assertThat(inner.size()).as("key replaced, pair added").isEqualTo(2);
+        Assertions.assertThat(inner.value(0)).isEqualTo("r2");
+        Assertions.assertThat(inner.key(1)).isEqualTo("user");
+    }
+
+    @Test
+    @DisplayName("Should append the fields to LogEx messages only inside the scope")
+    void shouldAppendToMessages() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+
+        // When
+        LogContext.run("orderId", 42, () -> {
+            LogEx.info(logger, "ship", "done");
+            LogEx.parts(logger, Level.WARN).add("slow").add(17).log();
+            LogFx.template("took {} ms").info(logger, 5);
+        });
+        LogEx.info(logger, "after");
+
+        // Then
+        Assertions.assertThat(logger.messages()).containsExactly("ship: done orderId=42",
+                "slow: 17 orderId=42", "took 5 ms orderId=42", "after");
+    }
+
+    @Test
+    @DisplayName("Should pass the fields as fluent key-values from LogFx and LogEvent")
+    @SuppressWarnings("try")
+    void shouldPassKeyValues() {
+        // Given
+        Logger logger = Mockito.mock(Logger.class);
+        LoggingEventBuilder builder = Mockito.mock(LoggingEventBuilder.class);
+        Mockito.when(logger.isInfoEnabled()).thenReturn(true);
+        Mockito.when(logger.atLevel(Level.INFO)).thenReturn(builder);
+
+        // When
+        try (LogContext.Scope scope = LogContext.with("tenant", "t1")) {
+            LogFx.info(logger, "order {}", 42);
+            LogEx.at(logger, Level.INFO).kv("ms", 3).log("shipped");
+        }
+        LogFx.info(logger, "plain {}", 1);
+
+        // Then
+        Mockito.verify(builder, Mockito.times(2)).addKeyValue("tenant", "t1");
+        Mockito.verify(builder).log("order {}", (Object) 42);
+        Mockito.verify(builder).addKeyValue("ms", 3);
+        Mockito.verify(builder).log("shipped");
+        Mockito.verify(logger).info("plain {}", (Object) 1);
+    }
+
+    @Test
+    @DisplayName("Should write the fields into JSON events")
+    @SuppressWarnings("try")
+    void shouldWriteJsonFields() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+
+        // When
+        try (LogContext.Scope scope = LogContext.with("tenant", "t1")) {
+            LogEx.logJson(logger, Level.INFO, "hi");
+        }
+
+        // Then
+        Assertions.assertThat(logger.messages()).containsExactly("{\"method\":"
+                + "\"shouldWriteJsonFields\",\"level\":\"INFO\",\"message\":\"hi\","
+                + "\"tenant\":\"t1\"}");
+    }
+
+    @Test
+    @DisplayName("Should capture the context on the calling thread in async mode")
+    void shouldCaptureInAsyncMode() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        LogEx.startAsync(64);
+
+        // When
+        LogContext.run("job", 7, () -> {
+            LogEx.info(logger, "a", "b");
+            LogEx.log(logger, Level.INFO, new Object[] {"c", "d"});
+        });
+        LogEx.stopAsync(Duration.ofSeconds(5));
+
+        // Then
+        Assertions.assertThat(logger.messages()).containsExactly("a: b job=7", "c: d job=7");
+    }
+
+    @Test
+    @DisplayName("Should not leak into other threads unless handed over")
+    @SuppressWarnings("try")
+    void shouldNotLeakIntoOtherThreads() throws InterruptedException {
+        // Given
+        AtomicReference<LogContext> seen = new AtomicReference<>();
+        AtomicReference<LogContext> handed = new AtomicReference<>();
+
+        // When
+        try (LogContext.Scope scope = LogContext.with("k", "v")) {
+            Thread.ofVirtual().start(() -> seen.set(LogContext.current())).join();
+            Thread.ofVirtual().start(LogContext.current()
+                    .wrap(() -> handed.set(LogContext.current()))).join();
+        }
+
+        // Then
+        Assertions.assertThat(seen.get()).isSameAs(LogContext.EMPTY);
+        Assertions.assertThat(handed.get().value(0)).isEqualTo("v");
+    }
+
+    @Test
+    @DisplayName("Should ignore a second close and reject a null key")
+    void shouldHandleMisuse() {
+        // Given
+        LogContext.Scope outer = LogContext.with("a", 1);
+        LogContext.Scope inner = LogContext.with("b", 2);
+
+        // When
+        inner.close();
+        inner.close();
+
+        // Then
+        Assertions.assertThat(LogContext.current().size()).isEqualTo(1);
+        outer.close();
+        Assertions.assertThat(LogContext.current().isEmpty()).isTrue();
+        Assertions.assertThatThrownBy(() -> LogContext.EMPTY.and(null, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for LogEncoder class.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("LogEncoder Tests")
+class LogEncoderTest {
+
+    private static final Object[] PARTS = {"ascii", 0, -1, 42, Long.MAX_VALUE, Long.MIN_VALUE,
+            Integer.MIN_VALUE, (short) -7, (byte) 3, 1.5, 0.1f, true, false, 'é', null,
+            List.of(1, 2), "", "Latin-1 café", "Кириллица", "emoji 😀", "lone \uD800 x",
+            "a".repeat(300) + "ß" + "b".repeat(300), "c".repeat(256) + "😀"};
+
+    private static byte[] expected(Object... parts) {
+        return Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining(": "))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("Should encode like String.valueOf() joined and getBytes(UTF_8)")
+    void shouldEncodeLikeString() {
+        // Given
+        byte[] target = new byte[4096];
+
+        // When
+        int written = LogEncoder.encode(target, 3, PARTS);
+
+        // Then
+        Assertions.assertThat(Arrays.copyOfRange(target, 3, 3 + written))
+                .isEqualTo(expected(PARTS));
+    }
+
+    @Test
+    @DisplayName("Should encode every part alone")
+    void shouldEncodeEveryPart() {
+        for (Object part : PARTS) {
+            // Given
+            byte[] target = new byte[1024];
+
+            // When
+            int written = LogEncoder.encode(target, 0, part);
+
+            // Then
+            Assertions.assertThat(Arrays.copyOf(target, written)).as(String.valueOf(part))
+                    .isEqualTo(expected(part));
+        }
+    }
+
+    @Test
+    @DisplayName("Should write into heap, sliced and direct buffers and advance the position")
+    void shouldEncodeIntoByteBuffers() {
+        // Given
+        ByteBuffer sliced = ByteBuffer.allocate(4096).position(10).slice();
+        ByteBuffer direct = ByteBuffer.allocateDirect(4096);
+        sliced.put((byte) '>');
+        direct.put((byte) '>');
+
+        // When
+        int slicedWritten = LogEncoder.encode(sliced, PARTS);
+        int directWritten = LogEncoder.encode(direct, PARTS);
+
+        // Then
+        byte[] expected = expected(PARTS);
+        for (ByteBuffer buffer : List.of(sliced, direct)) {
+            Assertions.assertThat(buffer.position()).as("Position").isEqualTo(1 + expected.length);
+            byte[] actual = new byte[expected.length];
+            buffer.get(1, actual);
+            Assertions.assertThat(actual).isEqualTo(expected);
+        }
+        Assertions.assertThat(slicedWritten).isEqualTo(expected.length);
+        Assertions.assertThat(directWritten).isEqualTo(expected.length);
+    }
+
+    @Test
+    @DisplayName("Should throw on overflow at every cut and keep the buffer position")
+    void shouldThrowOnOverflow() {
+        byte[] expected = expected(PARTS);
+        for (int size = 0; size < expected.length; size++) {
+            // Given
+            ByteBuffer heap = ByteBuffer.allocate(size);
+            ByteBuffer direct = ByteBuffer.allocateDirect(size);
+
+            // Then
+            Assertions.assertThatThrownBy(() -> LogEncoder.encode(heap, PARTS))
+                    .isInstanceOf(BufferOverflowException.class);
+            Assertions.assertThatThrownBy(() -> LogEncoder.encode(direct, PARTS))
+                    .isInstanceOf(BufferOverflowException.class);
+            Assertions.assertThat(heap.position()).isZero();
+            Assertions.assertThat(direct.position()).isZero();
+        }
+        Assertions.assertThat(LogEncoder.encode(new byte[expected.length], 0, PARTS))
+                .as("Exact fit").isEqualTo(expected.length);
+    }
+
+    @Test
+    @DisplayName("Should grow pooled buffers and reuse released ones")
+    void shouldUsePooledBuffers() {
+        // Given
+        String large = "x".repeat(LogEncoder.INITIAL_CAPACITY * 3);
+
+        // When
+        ByteBuffer grown = LogEncoder.encodePooled("big", large);
+        byte[] actual = new byte[grown.remaining()];
+        grown.get(actual);
+        LogEncoder.release(grown);
+        ByteBuffer reused = LogEncoder.encodePooled("small", 1);
+
+        // Then
+        Assertions.assertThat(actual).isEqualTo(expected("big", large));
+        Assertions.assertThat(grown.capacity()).as("Grown").isGreaterThan(large.length());
+        Assertions.assertThat(reused.position()).isZero();
+        Assertions.assertThat(reused.remaining()).isEqualTo("small: 1".length());
+        LogEncoder.release(reused);
+    }
+}
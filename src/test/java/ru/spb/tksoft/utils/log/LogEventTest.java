@@ -0,0 +1,173 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+
+/**
+ * Unit tests for LogEvent class.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("LogEvent Tests")
+class LogEventTest {
+
+    @AfterEach
+    void tearDown() {
+        LogEx.setSink(null);
+    }
+
+    @Test
+    @DisplayName("Should pass key-values through the fluent API")
+    void shouldPassKeyValues() {
+        // Given
+        Logger logger = Mockito.mock(Logger.class);
+        LoggingEventBuilder builder = Mockito.mock(LoggingEventBuilder.class);
+        Mockito.when(logger.isInfoEnabled()).thenReturn(true);
+        Mockito.when(logger.atLevel(Level.INFO)).thenReturn(builder);
+        IllegalStateException cause = new IllegalStateException("boom");
+
+        // When
+        LogEx.at(logger, Level.INFO).kv("orderId", 42).kv("ms", 17L).cause(cause)
+                .log("order", "shipped");
+
+        // Then
+        Mockito.verify(builder).addKeyValue("orderId", 42);
+        Mockito.verify(builder).addKeyValue("ms", 17L);
+        Mockito.verify(builder).setCause(cause);
+        Mockito.verify(builder).log("order: shipped");
+    }
+
+    @Test
+    @DisplayName("Should return the shared no-op builder for a disabled level")
+    void shouldReturnNoOpWhenDisabled() {
+        // Given
+        Logger logger = Mockito.mock(Logger.class);
+        LogAppendable part = (sb, budget) -> {
+            throw new AssertionError("rendered");
+        };
+
+        // When
+        LogEvent event = LogEx.at(logger, Level.DEBUG);
+        event.kv("k", part).cause(new RuntimeException()).log(part);
+
+        // Then
+        Assertions.assertThat(event).isSameAs(LogEvent.DISABLED);
+        Mockito.verify(logger).isDebugEnabled();
+        Mockito.verifyNoMoreInteractions(logger);
+    }
+
+    @Test
+    @DisplayName("Should reuse a pooled builder after logging")
+    void shouldReuseBuilder() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        LogEvent first = LogEx.at(logger, Level.INFO).kv("a", 1);
+        first.log();
+
+        // When
+        LogEvent second = LogEx.at(logger, Level.INFO);
+
+        // Then
+        Assertions.assertThat(second.size()).as("cleared").isZero();
+        second.kv("b", 2).log("msg");
+        Assertions.assertThat(logger.messages()).hasSize(2);
+        Assertions.assertThat(logger.messages().get(1)).contains("b=2").contains("msg");
+    }
+
+    @Test
+    @DisplayName("Should grow beyond the initial number of pairs")
+    void shouldGrow() {
+        // Given
+        List<String> written = new ArrayList<>();
+        LogEx.setSink((logger, level, message) -> written.add(message));
+        LogEvent event = LogEx.at(new RecordingLogger(), Level.WARN);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            event.kv("k" + i, i);
+        }
+        event.log("many");
+
+        // Then
+        Assertions.assertThat(written).hasSize(1);
+        Assertions.assertThat(written.get(0)).startsWith("many k0=0 k1=1").endsWith(" k19=19");
+    }
+
+    @Test
+    @DisplayName("Should append key-values to the sink message")
+    void shouldWriteToSink() {
+        // Given
+        List<String> written = new ArrayList<>();
+        LogEx.setSink((logger, level, message) -> written.add(level + " " + message));
+
+        // When
+        LogEx.at(new RecordingLogger(), Level.ERROR).kv("user", "bob").kv("n", null).log();
+
+        // Then
+        Assertions.assertThat(written).containsExactly("ERROR user=bob n=null");
+    }
+
+    @Test
+    @DisplayName("Should pass the cause to the sink with its stack trace")
+    void shouldWriteCauseToSink() {
+        // Given
+        List<String> written = new ArrayList<>();
+        List<Throwable> causes = new ArrayList<>();
+        IllegalStateException cause = new IllegalStateException("boom");
+        LogEx.setSink(new LogSink() {
+            @Override
+            public void write(Logger logger, Level level, String message) {
+                written.add(message);
+            }
+
+            @Override
+            public void write(Logger logger, Level level, String message, Throwable throwable) {
+                written.add(message);
+                causes.add(throwable);
+            }
+        });
+
+        // When
+        LogEx.at(new RecordingLogger(), Level.ERROR).kv("user", "bob").cause(cause).log("failed");
+
+        // Then
+        Assertions.assertThat(written).containsExactly("failed user=bob");
+        Assertions.assertThat(causes).containsExactly(cause);
+    }
+
+    @Test
+    @DisplayName("Should reject a null key")
+    void shouldRejectNullKey() {
+        // Given
+        LogEvent event = LogEx.at(new RecordingLogger(), Level.INFO);
+
+        // Then
+        Assertions.assertThatThrownBy(() -> event.kv(null, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        event.log();
+    }
+}
@@ -17,6 +17,7 @@
 package ru.spb.tksoft.utils.log;
 
 import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,7 +26,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
 import org.slf4j.event.Level;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Unit tests for LogEx class.
@@ -40,6 +48,15 @@ class LogExTest {
     @Mock
     private Logger mockLogger;
 
+    @BeforeEach
+    void enableAllLevels() {
+        lenient().when(mockLogger.isTraceEnabled()).thenReturn(true);
+        lenient().when(mockLogger.isDebugEnabled()).thenReturn(true);
+        lenient().when(mockLogger.isInfoEnabled()).thenReturn(true);
+        lenient().when(mockLogger.isWarnEnabled()).thenReturn(true);
+        lenient().when(mockLogger.isErrorEnabled()).thenReturn(true);
+    }
+
     @Test
     @DisplayName("Should return correct method name")
     void shouldReturnCorrectMethodName() {
@@ -52,6 +69,133 @@ class LogExTest {
                 .isEqualTo("shouldReturnCorrectMethodName");
     }
 
+    @Test
+    @DisplayName("Should return method name of the immediate caller")
+    void shouldReturnMethodNameOfImmediateCaller() {
+        // When
+        String methodName = nestedMe();
+
+        // Then
+        Assertions.assertThat(methodName)
+                .as("Method name should be the one calling me()")
+                .isEqualTo("nestedMe");
+    }
+
+    @Test
+    @DisplayName("Should return class-qualified method name")
+    void shouldReturnClassQualifiedMethodName() {
+        // When
+        String first = LogEx.meQualified();
+        String second = nestedMeQualified();
+
+        // Then
+        Assertions.assertThat(first)
+                .as("Qualified name should contain simple class name and method name")
+                .isEqualTo("LogExTest#shouldReturnClassQualifiedMethodName");
+        Assertions.assertThat(second)
+                .isEqualTo("LogExTest#nestedMeQualified");
+    }
+
+    @Test
+    @DisplayName("Should return line number of the call")
+    void shouldReturnLineNumberOfTheCall() {
+        // When
+        int expected = new Throwable().getStackTrace()[0].getLineNumber() + 1;
+        int line = LogEx.meLine();
+
+        // Then
+        Assertions.assertThat(line)
+                .as("Line number should point to the meLine() call")
+                .isEqualTo(expected);
+    }
+
+    /**
+     * Overloads with the meLine() call at the same bytecode index; returns the expected and the
+     * resolved line.
+     */
+    private static int[] lineOf(int unused) {
+        return new int[] {new Throwable().getStackTrace()[0].getLineNumber(), LogEx.meLine()};
+    }
+
+    private static int[] lineOf(String unused) {
+        return new int[] {new Throwable().getStackTrace()[0].getLineNumber(), LogEx.meLine()};
+    }
+
+    @Test
+    @DisplayName("Should tell overloads with the same call offset apart")
+    void shouldTellOverloadsApart() {
+        // Given
+        LogEx.clearMethodCache();
+
+        // When
+        int[] first = lineOf(1);
+        int[] second = lineOf("1");
+
+        // Then
+        Assertions.assertThat(first[1]).as("int overload").isEqualTo(first[0]);
+        Assertions.assertThat(second[1]).as("String overload").isEqualTo(second[0]);
+        Assertions.assertThat(second[0]).isNotEqualTo(first[0]);
+    }
+
+    @Test
+    @DisplayName("Should cache qualified names per call site")
+    void shouldCacheQualifiedNamesPerCallSite() {
+        // Given
+        LogEx.clearMethodCache();
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            LogEx.meQualified();
+        }
+
+        // Then
+        Assertions.assertThat(LogEx.getCacheSize())
+                .as("Repeated calls from one call site should share one cache entry")
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should expose cache statistics and maximum size")
+    void shouldExposeCacheStatisticsAndMaximumSize() {
+        // Given
+        MethodCacheStats before = LogEx.getCacheStats();
+
+        try {
+            // When
+            LogEx.setCacheMaxSize(2);
+            for (int i = 0; i < 3; i++) {
+                LogEx.meQualified();
+            }
+            for (int i = 0; i < 2; i++) {
+                LogEx.meLine();
+            }
+
+            // Then
+            MethodCacheStats after = LogEx.getCacheStats();
+            Assertions.assertThat(LogEx.isCacheEnabled()).isTrue();
+            Assertions.assertThat(after.maxSize()).isEqualTo(2);
+            Assertions.assertThat(after.size()).isEqualTo(2);
+            Assertions.assertThat(after.misses() - before.misses()).isEqualTo(2);
+            Assertions.assertThat(after.hits() - before.hits()).isEqualTo(3);
+
+            LogEx.setCacheMaxSize(0);
+            Assertions.assertThat(LogEx.isCacheEnabled()).isFalse();
+            Assertions.assertThat(LogEx.meQualified())
+                    .isEqualTo("LogExTest#shouldExposeCacheStatisticsAndMaximumSize");
+            Assertions.assertThat(LogEx.getCacheSize()).isZero();
+        } finally {
+            LogEx.setCacheMaxSize(MethodNameCache.DEFAULT_MAX_SIZE);
+        }
+    }
+
+    private static String nestedMe() {
+        return LogEx.me();
+    }
+
+    private static String nestedMeQualified() {
+        return LogEx.meQualified();
+    }
+
     @Test
     @DisplayName("Should log trace level message correctly")
     void shouldLogTraceLevelMessageCorrectly() {
@@ -215,6 +359,24 @@ class LogExTest {
         verify(mockLogger).info("part1: part2: part3");
     }
 
+    @Test
+    @DisplayName("Should join fixed-arity parts like varargs")
+    void shouldJoinFixedArityPartsLikeVarargs() {
+        // When
+        LogEx.trace(mockLogger, "one");
+        LogEx.debug(mockLogger, "one", 2);
+        LogEx.info(mockLogger, "one", 2, null);
+        LogEx.warn(mockLogger, "one", 2, null, 4.5);
+        LogEx.error(mockLogger, "one", 2, null, 4.5, "five");
+
+        // Then
+        verify(mockLogger).trace("one");
+        verify(mockLogger).debug("one: 2");
+        verify(mockLogger).info("one: 2: null");
+        verify(mockLogger).warn("one: 2: null: 4.5");
+        verify(mockLogger).error("one: 2: null: 4.5: five");
+    }
+
     @Test
     @DisplayName("Should handle complex object conversion")
     void shouldHandleComplexObjectConversion() {
@@ -274,4 +436,122 @@ class LogExTest {
         verify(mockLogger).warn("second: call");
         verify(mockLogger).error("third: call");
     }
+
+    @Test
+    @DisplayName("Should not build message when level is disabled")
+    void shouldNotBuildMessageWhenLevelIsDisabled() {
+        // Given
+        when(mockLogger.isTraceEnabled()).thenReturn(false);
+        when(mockLogger.isDebugEnabled()).thenReturn(false);
+        AtomicInteger toStringCalls = new AtomicInteger();
+        Object part = new Object() {
+            @Override
+            public String toString() {
+                toStringCalls.incrementAndGet();
+                return "expensive";
+            }
+        };
+
+        // When
+        LogEx.trace(mockLogger, LogEx.STARTING, part);
+        LogEx.debug(mockLogger, LogEx.STARTING, part);
+        LogEx.log(mockLogger, Level.TRACE, new Object[] {part});
+
+        // Then
+        Assertions.assertThat(toStringCalls.get())
+                .as("Parts should not be converted to strings for disabled levels")
+                .isZero();
+        verify(mockLogger, never()).trace(anyString());
+        verify(mockLogger, never()).debug(anyString());
+    }
+
+    @Test
+    @DisplayName("Should log enabled levels when other levels are disabled")
+    void shouldLogEnabledLevelsWhenOtherLevelsAreDisabled() {
+        // Given
+        when(mockLogger.isDebugEnabled()).thenReturn(false);
+
+        // When
+        LogEx.debug(mockLogger, "debug", "message");
+        LogEx.info(mockLogger, "info", "message");
+
+        // Then
+        verify(mockLogger, never()).debug(anyString());
+        verify(mockLogger).info("info: message");
+    }
+
+    @Test
+    @DisplayName("Should prefix message with calling method name")
+    void shouldPrefixMessageWithCallingMethodName() {
+        // When
+        LogEx.traceHere(mockLogger, LogEx.STARTING);
+        LogEx.debugHere(mockLogger, "debug", 1);
+        LogEx.infoHere(mockLogger);
+        LogEx.warnHere(mockLogger, "warn", null);
+        LogEx.errorHere(mockLogger, LogEx.EXCEPTION_THROWN);
+
+        // Then
+        verify(mockLogger).trace("shouldPrefixMessageWithCallingMethodName: starting");
+        verify(mockLogger).debug("shouldPrefixMessageWithCallingMethodName: debug: 1");
+        verify(mockLogger).info("shouldPrefixMessageWithCallingMethodName");
+        verify(mockLogger).warn("shouldPrefixMessageWithCallingMethodName: warn: null");
+        verify(mockLogger).error("shouldPrefixMessageWithCallingMethodName: exception thrown");
+    }
+
+    @Test
+    @DisplayName("Should match eager me() pattern")
+    void shouldMatchEagerMePattern() {
+        // When
+        LogEx.info(mockLogger, LogEx.me(), LogEx.STOPPED);
+        LogEx.infoHere(mockLogger, LogEx.STOPPED);
+
+        // Then
+        verify(mockLogger, times(2)).info("shouldMatchEagerMePattern: finished");
+    }
+
+    @Test
+    @DisplayName("Should not capture caller when level is disabled")
+    void shouldNotCaptureCallerWhenLevelIsDisabled() {
+        // Given
+        when(mockLogger.isTraceEnabled()).thenReturn(false);
+        AtomicInteger toStringCalls = new AtomicInteger();
+        Object part = new Object() {
+            @Override
+            public String toString() {
+                toStringCalls.incrementAndGet();
+                return "expensive";
+            }
+        };
+        long walksBefore = LogEx.getMetrics().getStackWalks();
+
+        // When
+        LogEx.traceHere(mockLogger, LogEx.STARTING, part);
+
+        // Then
+        Assertions.assertThat(LogEx.getMetrics().getStackWalks())
+                .as("The stack should not be walked for a disabled level")
+                .isEqualTo(walksBefore);
+        Assertions.assertThat(toStringCalls.get()).isZero();
+        verify(mockLogger, never()).trace(anyString());
+    }
+
+    @Test
+    @DisplayName("Should not clobber message when a part logs by itself")
+    void shouldNotClobberMessageWhenPartLogsByItself() {
+        // Given
+        Object selfLogging = new Object() {
+            @Override
+            public String toString() {
+                LogEx.debug(mockLogger, "inner", "message");
+                return "part";
+            }
+        };
+
+        // When
+        LogEx.info(mockLogger, "outer", selfLogging, "end");
+
+        // Then
+        verify(mockLogger).debug("inner: message");
+        verify(mockLogger).info("outer: part: end");
+    }
 }
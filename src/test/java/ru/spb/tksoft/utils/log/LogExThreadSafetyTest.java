@@ -17,18 +17,21 @@
 package ru.spb.tksoft.utils.log;
 
 import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.slf4j.Logger;
+import org.slf4j.event.Level;
 
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -43,6 +46,15 @@ class LogExThreadSafetyTest {
     @Mock
     private Logger mockLogger;
 
+    @BeforeEach
+    void enableAllLevels() {
+        lenient().when(mockLogger.isTraceEnabled()).thenReturn(true);
+        lenient().when(mockLogger.isDebugEnabled()).thenReturn(true);
+        lenient().when(mockLogger.isInfoEnabled()).thenReturn(true);
+        lenient().when(mockLogger.isWarnEnabled()).thenReturn(true);
+        lenient().when(mockLogger.isErrorEnabled()).thenReturn(true);
+    }
+
     @Test
     @DisplayName("Should handle concurrent method name retrieval safely")
     void shouldHandleConcurrentMethodNameRetrievalSafely() throws InterruptedException {
@@ -126,9 +138,9 @@ class LogExThreadSafetyTest {
         for (int i = 0; i < threadCount; i++) {
             executor.submit(() -> {
                 try {
-                    // Каждый поток вызывает me() несколько раз
+                    // Каждый поток вызывает meQualified() несколько раз
                     for (int j = 0; j < 20; j++) {
-                        LogEx.me();
+                        LogEx.meQualified();
                     }
                 } finally {
                     latch.countDown();
@@ -148,10 +160,10 @@ class LogExThreadSafetyTest {
                 .isGreaterThan(0);
 
         // Проверяем, что кэш работает корректно
-        String methodName = LogEx.me();
+        String methodName = LogEx.meQualified();
         Assertions.assertThat(methodName)
                 .as("Method name should be correctly retrieved")
-                .isEqualTo("shouldMaintainCacheConsistencyUnderConcurrentAccess");
+                .isEqualTo("LogExThreadSafetyTest#shouldMaintainCacheConsistencyUnderConcurrentAccess");
     }
 
     @Test
@@ -215,7 +227,7 @@ class LogExThreadSafetyTest {
                 try {
                     // Смешиваем операции чтения и записи кэша
                     for (int j = 0; j < 10; j++) {
-                        LogEx.me(); // Запись в кэш
+                        LogEx.meQualified(); // Запись в кэш
                         LogEx.getCacheSize(); // Чтение размера кэша
                         LogEx.isCacheEnabled(); // Проверка состояния кэша
                     }
@@ -236,4 +248,35 @@ class LogExThreadSafetyTest {
                 .as("Cache should contain entries after operations")
                 .isGreaterThan(0);
     }
+
+    @Test
+    @DisplayName("Should log from many virtual threads with pooled buffers")
+    void shouldLogFromManyVirtualThreadsWithPooledBuffers() throws InterruptedException {
+        // Given
+        LogEx.setBufferStrategy(BufferStrategy.POOLED);
+        int threadCount = 1_000;
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // When
+            for (int i = 0; i < threadCount; i++) {
+                final int threadId = i;
+                executor.submit(() -> {
+                    try {
+                        LogEx.info(mockLogger, "virtual", threadId);
+                        LogEx.parts(mockLogger, Level.INFO).add("parts").add(threadId).log();
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+            latch.await();
+        } finally {
+            LogEx.setBufferStrategy(BufferStrategy.THREAD_LOCAL);
+        }
+
+        // Then
+        verify(mockLogger).info("virtual: 0");
+        verify(mockLogger).info("parts: 999");
+    }
 }
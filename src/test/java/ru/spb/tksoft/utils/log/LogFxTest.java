@@ -28,8 +28,10 @@ import org.slf4j.Logger;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 
 /**
@@ -62,8 +64,7 @@ class LogFxTest {
             LogFx.trace(mockLogger, "Message with {} and {}", "arg1", "arg2");
 
             // Then
-            verify(mockLogger).trace(eq("Message with {} and {}"), argsCaptor.capture());
-            Assertions.assertThat(argsCaptor.getValue()).containsExactly("arg1", "arg2");
+            verify(mockLogger).trace("Message with {} and {}", "arg1", "arg2");
         }
 
         @Test
@@ -76,7 +77,8 @@ class LogFxTest {
             LogFx.trace(mockLogger, "Message with {} and {}", "arg1", "arg2");
 
             // Then
-            verify(mockLogger, never()).trace(any(String.class), any(Object[].class));
+            verify(mockLogger).isTraceEnabled();
+            verifyNoMoreInteractions(mockLogger);
         }
     }
 
@@ -94,8 +96,7 @@ class LogFxTest {
             LogFx.debug(mockLogger, "Debug message: {}", "value");
 
             // Then
-            verify(mockLogger).debug(eq("Debug message: {}"), argsCaptor.capture());
-            Assertions.assertThat(argsCaptor.getValue()).containsExactly("value");
+            verify(mockLogger).debug("Debug message: {}", "value");
         }
 
         @Test
@@ -108,7 +109,8 @@ class LogFxTest {
             LogFx.debug(mockLogger, "Debug message: {}", "value");
 
             // Then
-            verify(mockLogger, never()).debug(any(String.class), any(Object[].class));
+            verify(mockLogger).isDebugEnabled();
+            verifyNoMoreInteractions(mockLogger);
         }
     }
 
@@ -126,8 +128,7 @@ class LogFxTest {
             LogFx.info(mockLogger, "Info message: {}", "data");
 
             // Then
-            verify(mockLogger).info(eq("Info message: {}"), argsCaptor.capture());
-            Assertions.assertThat(argsCaptor.getValue()).containsExactly("data");
+            verify(mockLogger).info("Info message: {}", "data");
         }
 
         @Test
@@ -140,7 +141,8 @@ class LogFxTest {
             LogFx.info(mockLogger, "Info message: {}", "data");
 
             // Then
-            verify(mockLogger, never()).info(any(String.class), any(Object[].class));
+            verify(mockLogger).isInfoEnabled();
+            verifyNoMoreInteractions(mockLogger);
         }
     }
 
@@ -158,8 +160,7 @@ class LogFxTest {
             LogFx.warn(mockLogger, "Warning: {}", "issue");
 
             // Then
-            verify(mockLogger).warn(eq("Warning: {}"), argsCaptor.capture());
-            Assertions.assertThat(argsCaptor.getValue()).containsExactly("issue");
+            verify(mockLogger).warn("Warning: {}", "issue");
         }
 
         @Test
@@ -172,7 +173,8 @@ class LogFxTest {
             LogFx.warn(mockLogger, "Warning: {}", "issue");
 
             // Then
-            verify(mockLogger, never()).warn(any(String.class), any(Object[].class));
+            verify(mockLogger).isWarnEnabled();
+            verifyNoMoreInteractions(mockLogger);
         }
     }
 
@@ -190,8 +192,7 @@ class LogFxTest {
             LogFx.error(mockLogger, "Error occurred: {}", "details");
 
             // Then
-            verify(mockLogger).error(eq("Error occurred: {}"), argsCaptor.capture());
-            Assertions.assertThat(argsCaptor.getValue()).containsExactly("details");
+            verify(mockLogger).error("Error occurred: {}", "details");
         }
 
         @Test
@@ -204,7 +205,8 @@ class LogFxTest {
             LogFx.error(mockLogger, "Error occurred: {}", "details");
 
             // Then
-            verify(mockLogger, never()).error(any(String.class), any(Object[].class));
+            verify(mockLogger).isErrorEnabled();
+            verifyNoMoreInteractions(mockLogger);
         }
     }
 
@@ -226,6 +228,34 @@ class LogFxTest {
             Assertions.assertThat(argsCaptor.getValue()).containsExactly("a", "b", "c", "d");
         }
 
+        @Test
+        @DisplayName("Should handle three arguments")
+        void shouldHandleThreeArguments() {
+            // Given
+            when(mockLogger.isDebugEnabled()).thenReturn(true);
+
+            // When
+            LogFx.debug(mockLogger, "Values: {}, {}, {}", "a", "b", "c");
+
+            // Then
+            verify(mockLogger).debug(eq("Values: {}, {}, {}"), argsCaptor.capture());
+            Assertions.assertThat(argsCaptor.getValue()).containsExactly("a", "b", "c");
+        }
+
+        @Test
+        @DisplayName("Should handle more than four arguments")
+        void shouldHandleMoreThanFourArguments() {
+            // Given
+            when(mockLogger.isWarnEnabled()).thenReturn(true);
+
+            // When
+            LogFx.warn(mockLogger, "{} {} {} {} {}", 1, 2, 3, 4, 5);
+
+            // Then
+            verify(mockLogger).warn(eq("{} {} {} {} {}"), argsCaptor.capture());
+            Assertions.assertThat(argsCaptor.getValue()).containsExactly(1, 2, 3, 4, 5);
+        }
+
         @Test
         @DisplayName("Should handle no arguments")
         void shouldHandleNoArguments() {
@@ -236,8 +266,7 @@ class LogFxTest {
             LogFx.info(mockLogger, "Simple message without arguments");
 
             // Then
-            verify(mockLogger).info(eq("Simple message without arguments"), argsCaptor.capture());
-            Assertions.assertThat(argsCaptor.getValue()).isEmpty();
+            verify(mockLogger).info("Simple message without arguments");
         }
 
         @Test
@@ -250,8 +279,7 @@ class LogFxTest {
             LogFx.info(mockLogger, "Value is: {}", (Object) null);
 
             // Then
-            verify(mockLogger).info(eq("Value is: {}"), argsCaptor.capture());
-            Assertions.assertThat(argsCaptor.getValue()).containsExactly((Object) null);
+            verify(mockLogger).info("Value is: {}", (Object) null);
         }
 
         @Test
@@ -281,8 +309,7 @@ class LogFxTest {
             LogFx.error(mockLogger, "Exception occurred: {}", testException);
 
             // Then
-            verify(mockLogger).error(eq("Exception occurred: {}"), argsCaptor.capture());
-            Assertions.assertThat(argsCaptor.getValue()).containsExactly(testException);
+            verify(mockLogger).error("Exception occurred: {}", (Object) testException);
         }
     }
 
@@ -340,9 +367,7 @@ class LogFxTest {
             LogFx.info(mockLogger, "Status: {} -> {}", LogFx.STARTING, LogFx.STOPPED);
 
             // Then
-            verify(mockLogger).info(eq("Status: {} -> {}"), argsCaptor.capture());
-            Assertions.assertThat(argsCaptor.getValue())
-                    .containsExactly(LogFx.STARTING, LogFx.STOPPED);
+            verify(mockLogger).info("Status: {} -> {}", LogFx.STARTING, LogFx.STOPPED);
         }
     }
 
@@ -353,6 +378,9 @@ class LogFxTest {
         @Captor
         private ArgumentCaptor<String> formatCaptor;
 
+        @Captor
+        private ArgumentCaptor<Object> argCaptor;
+
         @Test
         @DisplayName("Should handle multiple calls with different levels")
         void shouldHandleMultipleCallsWithDifferentLevels() {
@@ -367,9 +395,9 @@ class LogFxTest {
             LogFx.error(mockLogger, "Third call: {}", "error");
 
             // Then
-            verify(mockLogger).info(eq("First call: {}"), any(Object[].class));
-            verify(mockLogger).warn(eq("Second call: {}"), any(Object[].class));
-            verify(mockLogger).error(eq("Third call: {}"), any(Object[].class));
+            verify(mockLogger).info("First call: {}", "info");
+            verify(mockLogger).warn("Second call: {}", "warn");
+            verify(mockLogger).error("Third call: {}", "error");
         }
 
         @Test
@@ -384,14 +412,10 @@ class LogFxTest {
             LogFx.info(mockLogger, "Message {}", 3);
 
             // Then
-            verify(mockLogger, times(3)).info(formatCaptor.capture(), argsCaptor.capture());
+            verify(mockLogger, times(3)).info(formatCaptor.capture(), argCaptor.capture());
             Assertions.assertThat(formatCaptor.getAllValues())
                     .containsExactly("Message {}", "Message {}", "Message {}");
-            Assertions.assertThat(argsCaptor.getAllValues())
-                    .containsExactly(
-                            new Object[] {1},
-                            new Object[] {2},
-                            new Object[] {3});
+            Assertions.assertThat(argCaptor.getAllValues()).containsExactly(1, 2, 3);
         }
 
         @Test
@@ -412,13 +436,13 @@ class LogFxTest {
             LogFx.error(mockLogger, "Error: {}", "value");
 
             // Then - trace and debug should not be logged
-            verify(mockLogger, never()).trace(any(String.class), any(Object[].class));
-            verify(mockLogger, never()).debug(any(String.class), any(Object[].class));
+            verify(mockLogger, never()).trace(anyString(), any(Object.class));
+            verify(mockLogger, never()).debug(anyString(), any(Object.class));
 
             // info, warn, error should be logged
-            verify(mockLogger).info(eq("Info: {}"), any(Object[].class));
-            verify(mockLogger).warn(eq("Warn: {}"), any(Object[].class));
-            verify(mockLogger).error(eq("Error: {}"), any(Object[].class));
+            verify(mockLogger).info("Info: {}", "value");
+            verify(mockLogger).warn("Warn: {}", "value");
+            verify(mockLogger).error("Error: {}", "value");
         }
     }
 }
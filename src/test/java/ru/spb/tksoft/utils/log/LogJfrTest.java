@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Unit tests for the JFR events of LogEx and LogFx.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("LogJfr Tests")
+class LogJfrTest {
+
+    @AfterEach
+    void restoreDefaults() {
+        LogEx.setJfrEvents(false);
+    }
+
+    @Test
+    @DisplayName("Should emit log call and stack walk events")
+    void shouldEmitEvents() throws InterruptedException {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        List<RecordedEvent> calls = new CopyOnWriteArrayList<>();
+        List<RecordedEvent> walks = new CopyOnWriteArrayList<>();
+        CountDownLatch received = new CountDownLatch(4);
+
+        try (RecordingStream stream = new RecordingStream()) {
+            stream.enable(LogCallEvent.NAME).withoutThreshold();
+            stream.enable(StackWalkEvent.NAME).withoutThreshold();
+            stream.onEvent(LogCallEvent.NAME, event -> {
+                calls.add(event);
+                received.countDown();
+            });
+            stream.onEvent(StackWalkEvent.NAME, event -> {
+                walks.add(event);
+                received.countDown();
+            });
+            stream.setMaxAge(Duration.ofMinutes(1));
+            stream.startAsync();
+            LogEx.setJfrEvents(true);
+
+            // When
+            LogEx.warn(logger, "jfr", 42);
+            LogEx.infoHere(logger, "here");
+            LogFx.error(logger, "{}", "fx");
+
+            // Then
+            Assertions.assertThat(received.await(30, TimeUnit.SECONDS)).as("Received").isTrue();
+        }
+
+        Assertions.assertThat(calls).hasSizeGreaterThanOrEqualTo(3);
+        RecordedEvent warn = calls.stream()
+                .filter(e -> "WARN".equals(e.getString("level")))
+                .findFirst().orElseThrow();
+        Assertions.assertThat(warn.getString("logger")).isEqualTo("recording");
+        Assertions.assertThat(warn.getString("callSite")).isEqualTo("LogJfrTest#shouldEmitEvents");
+        Assertions.assertThat(warn.getInt("messageLength")).isEqualTo("jfr: 42".length());
+        Assertions.assertThat(warn.getDuration("formatDuration")).isPositive();
+        Assertions.assertThat(calls).extracting(e -> e.getString("level"))
+                .contains("WARN", "INFO", "ERROR");
+
+        Assertions.assertThat(walks).isNotEmpty();
+        Assertions.assertThat(walks.get(0).getString("callSite"))
+                .endsWith("LogJfrTest#shouldEmitEvents");
+    }
+
+    @Test
+    @DisplayName("Should not create events when the mode is off")
+    void shouldNotCreateEventsWhenOff() {
+        Assertions.assertThat(LogEx.isJfrEvents()).isFalse();
+        Assertions.assertThat(LogJfr.beginCall()).isNull();
+        Assertions.assertThat(LogJfr.beginWalk()).isNull();
+    }
+}
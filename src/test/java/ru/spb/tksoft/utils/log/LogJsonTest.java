@@ -0,0 +1,222 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.Level;
+
+/**
+ * Unit tests for LogJson class.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("LogJson Tests")
+class LogJsonTest {
+
+    /** Chars the fuzzer favours: escapes, controls, boundaries of the UTF-8 lengths, surrogates. */
+    private static final char[] SPECIAL = {'"', '\\', '/', '\b', '\f', '\n', '\r', '\t', 0, 0x1F,
+            0x7F, 0x80, 0x7FF, 0x800, 0xFFFF, '\uD83D', '\uDE00', '\uDBFF', '\uDC00', 'a', ' '};
+
+    /**
+     * Reference escaping, char by char.
+     */
+    private static byte[] reference(String s) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\b' -> builder.append("\\b");
+                case '\f' -> builder.append("\\f");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20 || c == 0x7F) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        return builder.append('"').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Unescape a JSON string literal.
+     */
+    private static String unescape(String literal) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 1; i < literal.length() - 1; i++) {
+            char c = literal.charAt(i);
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            char e = literal.charAt(++i);
+            switch (e) {
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'u' -> {
+                    builder.append((char) Integer.parseInt(literal.substring(i + 1, i + 5), 16));
+                    i += 4;
+                }
+                default -> builder.append(e);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static byte[] encode(String s) {
+        LogJson json = LogJson.acquire();
+        try {
+            json.value(s);
+            ByteBuffer buffer = json.buffer();
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            return bytes;
+        } finally {
+            json.release();
+        }
+    }
+
+    @Test
+    @DisplayName("Should escape random strings like the reference")
+    void shouldEscapeRandomStrings() {
+        // Given
+        Random random = new Random(20251016L);
+
+        for (int round = 0; round < 5000; round++) {
+            int length = random.nextInt(round % 10 == 0 ? 1200 : 40);
+            StringBuilder builder = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                builder.append(switch (random.nextInt(4)) {
+                    case 0 -> SPECIAL[random.nextInt(SPECIAL.length)];
+                    case 1 -> (char) random.nextInt(0x80);
+                    case 2 -> (char) random.nextInt(0x10000);
+                    default -> (char) ('a' + random.nextInt(26));
+                });
+            }
+            String s = builder.toString();
+
+            // When
+            byte[] encoded = encode(s);
+
+            // Then
+            Assertions.assertThat(encoded).as("round %d", round).isEqualTo(reference(s));
+            String decoded = new String(encoded, StandardCharsets.UTF_8);
+            String expected = new String(s.getBytes(StandardCharsets.UTF_8),
+                    StandardCharsets.UTF_8);
+            Assertions.assertThat(unescape(decoded)).as("round trip %d", round)
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Should keep a surrogate pair straddling the chunk end")
+    void shouldKeepSurrogatePairAcrossChunks() {
+        // Given
+        String s = "x".repeat(255) + "😀" + "y";
+
+        // Then
+        Assertions.assertThat(encode(s)).isEqualTo(reference(s));
+    }
+
+    @Test
+    @DisplayName("Should write an event object with typed fields")
+    void shouldWriteEvent() {
+        // Given
+        LogJson json = LogJson.acquire();
+
+        // When
+        json.beginEvent("ship", Level.WARN, "order", 42, true, List.of(1, 2), null)
+                .field("id", -7L).field("ok", false).field("name", (String) null)
+                .field("ratio", 0.5).field("nan", Double.NaN).field("list", List.of("a"))
+                .name("nested").beginObject().field("k", "v").endObject().endObject();
+
+        // Then
+        Assertions.assertThat(json.toString()).isEqualTo("{\"method\":\"ship\",\"level\":\"WARN\","
+                + "\"message\":\"order: 42: true: [1, 2]: null\",\"id\":-7,\"ok\":false,"
+                + "\"name\":null,\"ratio\":0.5,\"nan\":\"NaN\",\"list\":\"[a]\","
+                + "\"nested\":{\"k\":\"v\"}}");
+        Assertions.assertThat(json.length()).isEqualTo(json.toString().length());
+        json.release();
+    }
+
+    @Test
+    @DisplayName("Should copy into a byte buffer or refuse when it does not fit")
+    void shouldWriteToBuffer() {
+        // Given
+        LogJson json = LogJson.acquire();
+        json.beginObject().field("m", "é").endObject();
+        ByteBuffer small = ByteBuffer.allocateDirect(4);
+        ByteBuffer large = ByteBuffer.allocateDirect(64);
+
+        // When
+        int written = json.writeTo(large);
+
+        // Then
+        Assertions.assertThat(written).isEqualTo(10);
+        Assertions.assertThat(large.position()).isEqualTo(10);
+        Assertions.assertThatThrownBy(() -> json.writeTo(small))
+                .isInstanceOf(BufferOverflowException.class);
+        Assertions.assertThat(small.position()).isZero();
+        json.release();
+    }
+
+    @Test
+    @DisplayName("Should log JSON through LogEx and LogEvent")
+    void shouldLogJson() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+
+        // When
+        LogEx.logJson(logger, Level.INFO, "shipped", 3);
+        LogEx.at(logger, Level.ERROR).kv("orderId", 42).cause(new IllegalStateException("x"))
+                .logJson("failed");
+
+        // Then
+        Assertions.assertThat(logger.messages()).containsExactly(
+                "{\"method\":\"shouldLogJson\",\"level\":\"INFO\",\"message\":\"shipped: 3\"}",
+                "{\"method\":\"shouldLogJson\",\"level\":\"ERROR\",\"message\":\"failed\","
+                        + "\"orderId\":42,\"cause\":\"java.lang.IllegalStateException: x\"}");
+    }
+
+    @Test
+    @DisplayName("Should reject a null field name")
+    void shouldRejectNullName() {
+        // Given
+        LogJson json = LogJson.acquire().beginObject();
+
+        // Then
+        Assertions.assertThatThrownBy(() -> json.name(null))
+                .isInstanceOf(IllegalArgumentException.class);
+        json.release();
+    }
+}
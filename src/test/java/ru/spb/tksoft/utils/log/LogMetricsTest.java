@@ -0,0 +1,112 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.helpers.NOPLogger;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Unit tests for LogMetrics class.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("LogMetrics Tests")
+class LogMetricsTest {
+
+    private final LogUtilsMXBean metrics = LogEx.getMetrics();
+
+    @BeforeEach
+    void reset() {
+        metrics.reset();
+    }
+
+    @Test
+    @DisplayName("Should count emitted and suppressed events per level")
+    void shouldCountEvents() {
+        // Given
+        RecordingLogger enabled = new RecordingLogger();
+
+        // When
+        LogEx.info(enabled, "abc", "de");
+        LogEx.warn(enabled, "x");
+        LogEx.debug(NOPLogger.NOP_LOGGER, "dropped");
+        LogFx.error(enabled, "{}", "fx");
+        LogFx.trace(NOPLogger.NOP_LOGGER, "dropped");
+
+        // Then
+        Assertions.assertThat(metrics.getEmittedEvents())
+                .containsEntry("INFO", 1L).containsEntry("WARN", 1L).containsEntry("ERROR", 1L)
+                .containsEntry("DEBUG", 0L);
+        Assertions.assertThat(metrics.getSuppressedEvents())
+                .containsEntry("DEBUG", 1L).containsEntry("TRACE", 1L);
+        Assertions.assertThat(metrics.getEmittedTotal()).isEqualTo(3);
+        Assertions.assertThat(metrics.getSuppressedTotal()).isEqualTo(2);
+        Assertions.assertThat(metrics.getCharsFormatted()).as("'abc: de' + 'x'").isEqualTo(8);
+    }
+
+    @Test
+    @DisplayName("Should count stack walks and buffer capacity")
+    void shouldCountStackWalksAndBuffers() {
+        // When
+        LogEx.me();
+        LogEx.meQualified();
+        LogEx.info(EnabledNopLogger.INSTANCE, "x".repeat(1000));
+
+        // Then
+        Assertions.assertThat(metrics.getStackWalks()).isEqualTo(2);
+        Assertions.assertThat(metrics.getPeakBufferCapacity()).isGreaterThanOrEqualTo(1000);
+        Assertions.assertThat(metrics.getMethodCacheHits() + metrics.getMethodCacheMisses())
+                .isPositive();
+    }
+
+    @Test
+    @DisplayName("Should count internal errors instead of printing them")
+    void shouldCountInternalErrors() {
+        // When
+        LogMetrics.internalError("test failure", new IllegalStateException("boom"));
+
+        // Then
+        Assertions.assertThat(metrics.getInternalErrors()).isEqualTo(1);
+        Assertions.assertThat(metrics.getLastInternalError())
+                .isEqualTo("test failure: java.lang.IllegalStateException: boom");
+        metrics.reset();
+        Assertions.assertThat(metrics.getInternalErrors()).isZero();
+        Assertions.assertThat(metrics.getLastInternalError()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should be registered in the platform MBean server")
+    void shouldBeRegistered() throws Exception {
+        // Given
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(LogMetrics.OBJECT_NAME);
+
+        // When
+        LogEx.error(EnabledNopLogger.INSTANCE, "counted");
+
+        // Then
+        Assertions.assertThat(server.isRegistered(name)).isTrue();
+        Assertions.assertThat((Long) server.getAttribute(name, "EmittedTotal")).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for LogParts class.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LogParts Tests")
+class LogPartsTest {
+
+    @Mock
+    private Logger mockLogger;
+
+    @Test
+    @DisplayName("Should join primitive and object parts")
+    void shouldJoinPrimitiveAndObjectParts() {
+        // Given
+        when(mockLogger.isDebugEnabled()).thenReturn(true);
+
+        // When
+        LogEx.parts(mockLogger, Level.DEBUG)
+                .add(LogEx.me())
+                .add(42)
+                .add(1_234_567_890_123L)
+                .add(0.5)
+                .add(true)
+                .add('x')
+                .add((Object) null)
+                .add((String) null)
+                .log();
+
+        // Then
+        verify(mockLogger).debug(
+                "shouldJoinPrimitiveAndObjectParts: 42: 1234567890123: 0.5: true: x: null: null");
+    }
+
+    @Test
+    @DisplayName("Should log empty message without parts")
+    void shouldLogEmptyMessageWithoutParts() {
+        // Given
+        when(mockLogger.isInfoEnabled()).thenReturn(true);
+
+        // When
+        LogEx.parts(mockLogger, Level.INFO).log();
+
+        // Then
+        verify(mockLogger).info("");
+    }
+
+    @Test
+    @DisplayName("Should return shared no-op builder when level is disabled")
+    void shouldReturnSharedNoOpBuilderWhenLevelIsDisabled() {
+        // Given
+        when(mockLogger.isTraceEnabled()).thenReturn(false);
+
+        // When
+        LogParts parts = LogEx.parts(mockLogger, Level.TRACE);
+        parts.add("a").add(1).add(2L).add(3.0).add(false).add('c').log();
+
+        // Then
+        Assertions.assertThat(parts).isSameAs(LogParts.DISABLED);
+        verify(mockLogger).isTraceEnabled();
+        verifyNoMoreInteractions(mockLogger);
+    }
+
+    @Test
+    @DisplayName("Should log only once per chain")
+    void shouldLogOnlyOncePerChain() {
+        // Given
+        when(mockLogger.isWarnEnabled()).thenReturn(true);
+
+        // When
+        LogParts parts = LogEx.parts(mockLogger, Level.WARN).add("once");
+        parts.log();
+        parts.add("again").log();
+
+        // Then
+        verify(mockLogger).isWarnEnabled();
+        verify(mockLogger).warn("once");
+        verifyNoMoreInteractions(mockLogger);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.NOPLogger;
+
+/**
+ * Unit tests for LogSpan class.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("LogSpan Tests")
+class LogSpanTest {
+
+    @Test
+    @DisplayName("Should log starting and finished with the elapsed time")
+    void shouldLogStartAndStop() throws InterruptedException {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+
+        // When
+        try (LogSpan span = LogEx.span(logger, Level.DEBUG)) {
+            Thread.sleep(5);
+            Assertions.assertThat(span.elapsedNanos()).isGreaterThanOrEqualTo(5_000_000L);
+        }
+
+        // Then
+        Assertions.assertThat(logger.messages()).hasSize(2);
+        Assertions.assertThat(logger.messages().get(0))
+                .isEqualTo("shouldLogStartAndStop: " + LogEx.STARTING);
+        Assertions.assertThat(logger.messages().get(1))
+                .matches("shouldLogStartAndStop: " + LogEx.STOPPED + ": \\d+ ns");
+        long elapsed = Long.parseLong(logger.messages().get(1).replaceAll("\\D", ""));
+        Assertions.assertThat(elapsed).as("Elapsed").isGreaterThanOrEqualTo(5_000_000L);
+        Assertions.assertThat(logger.events())
+                .extracting(RecordingLogger.Event::level)
+                .containsOnly(Level.DEBUG);
+    }
+
+    @Test
+    @DisplayName("Should return the shared no-op span when the level is disabled")
+    void shouldReturnNoOpSpanWhenDisabled() {
+        // When
+        LogSpan span = LogEx.span(NOPLogger.NOP_LOGGER, Level.INFO);
+        span.close();
+
+        // Then
+        Assertions.assertThat(span).isSameAs(LogSpan.DISABLED);
+        Assertions.assertThat(span.elapsedNanos()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should reuse closed spans and ignore a second close")
+    void shouldReuseClosedSpans() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+
+        // When
+        LogSpan first = LogEx.span(logger, Level.INFO);
+        first.close();
+        first.close();
+        LogSpan second = LogEx.span(logger, Level.INFO);
+        second.close();
+
+        // Then
+        Assertions.assertThat(second).as("Pooled span").isSameAs(first);
+        Assertions.assertThat(logger.messages()).hasSize(4);
+    }
+}
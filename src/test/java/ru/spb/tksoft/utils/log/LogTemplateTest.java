@@ -0,0 +1,191 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.MessageFormatter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unit tests for LogTemplate class.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("LogTemplate Tests")
+class LogTemplateTest {
+
+    private static final LogTemplate SHIPPED = LogFx.template("order {} shipped in {} ms");
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @Test
+    @DisplayName("Should render like SLF4J including escapes")
+    void shouldRenderLikeSlf4j() {
+        String[] formats = {"", "plain", "{}", "{}{}", "a {} b {} c", "{ } {", "\\{} {}",
+                "\\\\{} {}", "x\\y {}", "{}}"};
+        for (String format : formats) {
+            // Given
+            LogTemplate template = LogFx.template(format);
+            Object[] args = new Object[template.getArgumentCount()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = "v" + i;
+            }
+
+            // Then
+            Assertions.assertThat(template.format(args)).as(format)
+                    .isEqualTo(MessageFormatter.arrayFormat(format, args).getMessage());
+        }
+    }
+
+    @Test
+    @DisplayName("Should log through the fixed-arity and varargs variants")
+    void shouldLog() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        LogTemplate three = LogFx.template("{} + {} = {}");
+
+        // When
+        SHIPPED.info(logger, 42, 17L);
+        SHIPPED.warn(logger, "a", new int[] {1});
+        three.error(logger, 1, 2, 3);
+        LogFx.template("done").debug(logger);
+        LogFx.template("{}").log(logger, Level.TRACE, "lvl");
+
+        // Then
+        Assertions.assertThat(logger.messages()).containsExactly(
+                "order 42 shipped in 17 ms", "order a shipped in [1] ms", "1 + 2 = 3", "done",
+                "lvl");
+        Assertions.assertThat(logger.events()).extracting(RecordingLogger.Event::level)
+                .containsExactly(Level.INFO, Level.WARN, Level.ERROR, Level.DEBUG, Level.TRACE);
+        Assertions.assertThat(SHIPPED.getArgumentCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should validate the argument count even when the level is disabled")
+    void shouldValidateArgumentCount() {
+        // Given
+        Logger logger = Mockito.mock(Logger.class);
+
+        // Then
+        Assertions.assertThatThrownBy(() -> SHIPPED.info(logger, 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("takes 2 arguments, got 1");
+        Assertions.assertThatThrownBy(() -> SHIPPED.debug(logger, 1, 2, 3))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> LogFx.template(null))
+                .isInstanceOf(IllegalArgumentException.class);
+        Mockito.verifyNoInteractions(logger);
+    }
+
+    @Test
+    @DisplayName("Should pass a trailing throwable to the logger")
+    void shouldPassThrowable() {
+        // Given
+        Logger logger = Mockito.mock(Logger.class);
+        Mockito.when(logger.isErrorEnabled()).thenReturn(true);
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        // When
+        SHIPPED.error(logger, 1, 2, failure);
+        LogFx.template("failed").error(logger, failure);
+
+        // Then
+        Mockito.verify(logger).error("order 1 shipped in 2 ms", failure);
+        Mockito.verify(logger).error("failed", failure);
+    }
+
+    @Test
+    @DisplayName("Should queue a call with a throwable in async mode")
+    void shouldQueueThrowableInAsyncMode() {
+        // Given
+        Logger logger = Mockito.mock(Logger.class);
+        Mockito.when(logger.isErrorEnabled()).thenReturn(true);
+        IllegalStateException failure = new IllegalStateException("boom");
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        Mockito.doAnswer(invocation -> {
+            thread.set(Thread.currentThread());
+            return null;
+        }).when(logger).error(Mockito.anyString(), Mockito.any(Throwable.class));
+
+        // When
+        LogEx.startAsync(16);
+        try {
+            SHIPPED.error(logger, 1, 2, failure);
+        } finally {
+            Assertions.assertThat(LogEx.stopAsync(TIMEOUT)).as("Flushed").isTrue();
+        }
+
+        // Then
+        Mockito.verify(logger).error("order 1 shipped in 2 ms", failure);
+        Assertions.assertThat(thread.get()).as("Drainer thread")
+                .isNotSameAs(Thread.currentThread());
+    }
+
+    @Test
+    @DisplayName("Should hand a call with a throwable to the sink with the stack trace")
+    void shouldWriteThrowableToSink() {
+        // Given
+        Logger logger = Mockito.mock(Logger.class);
+        Mockito.when(logger.isErrorEnabled()).thenReturn(true);
+        IllegalStateException failure = new IllegalStateException("boom");
+        List<String> written = new ArrayList<>();
+
+        // When
+        LogEx.setSink((sinkLogger, level, message) -> written.add(message));
+        try {
+            SHIPPED.error(logger, 1, 2, failure);
+        } finally {
+            LogEx.setSink(null);
+        }
+
+        // Then
+        Assertions.assertThat(written).hasSize(1);
+        Assertions.assertThat(written.get(0))
+                .startsWith("order 1 shipped in 2 ms" + System.lineSeparator()
+                        + "java.lang.IllegalStateException: boom")
+                .contains("LogTemplateTest.shouldWriteThrowableToSink")
+                .doesNotEndWith(System.lineSeparator());
+        Mockito.verify(logger, Mockito.never())
+                .error(Mockito.anyString(), Mockito.any(Throwable.class));
+    }
+
+    @Test
+    @DisplayName("Should not render when the level is disabled")
+    void shouldSkipDisabled() {
+        // Given
+        Logger logger = Mockito.mock(Logger.class);
+        LogAppendable arg = (builder, budget) -> {
+            throw new AssertionError("Must not be rendered");
+        };
+
+        // When
+        SHIPPED.trace(logger, arg, arg);
+
+        // Then
+        Mockito.verify(logger).isTraceEnabled();
+        Mockito.verifyNoMoreInteractions(logger);
+    }
+}
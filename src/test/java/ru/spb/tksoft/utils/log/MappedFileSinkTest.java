@@ -0,0 +1,201 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.event.Level;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for MappedFileSink and MappedFileTailer classes.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("MappedFileSink Tests")
+class MappedFileSinkTest {
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void resetSink() {
+        LogEx.setSink(null);
+    }
+
+    private static List<MappedFileTailer.Entry> readAll(MappedFileTailer tailer)
+            throws IOException {
+        List<MappedFileTailer.Entry> entries = new ArrayList<>();
+        MappedFileTailer.Entry entry;
+        while ((entry = tailer.poll()) != null) {
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    @Test
+    @DisplayName("Should write records that the tailer reads back")
+    void shouldReadBack() throws IOException {
+        // Given
+        try (MappedFileSink sink = new MappedFileSink(directory, "app", 4096);
+                MappedFileTailer tailer = new MappedFileTailer(directory, "app")) {
+
+            // When
+            sink.append("main", Level.INFO, "hello");
+            sink.append("ünïcödé", Level.ERROR, "€ 😀 \uD800 end");
+            List<MappedFileTailer.Entry> first = readAll(tailer);
+            sink.append("main", Level.TRACE, "later");
+            List<MappedFileTailer.Entry> second = readAll(tailer);
+
+            // Then
+            Assertions.assertThat(first).extracting(MappedFileTailer.Entry::message)
+                    .containsExactly("hello", "€ 😀 ? end");
+            Assertions.assertThat(first).extracting(MappedFileTailer.Entry::loggerName)
+                    .containsExactly("main", "ünïcödé");
+            Assertions.assertThat(first).extracting(MappedFileTailer.Entry::level)
+                    .containsExactly(Level.INFO, Level.ERROR);
+            Assertions.assertThat(first.get(0).timestamp()).as("Timestamp").isPositive();
+            Assertions.assertThat(second).extracting(MappedFileTailer.Entry::message)
+                    .containsExactly("later");
+        }
+    }
+
+    @Test
+    @DisplayName("Should roll to new segments and keep per-writer order across them")
+    void shouldRollConcurrently() throws Exception {
+        // Given
+        final int writers = 8;
+        final int recordsPerWriter = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try (MappedFileSink sink = new MappedFileSink(directory, "app", 4096)) {
+
+            // When
+            for (int w = 0; w < writers; w++) {
+                final String writer = "w" + w;
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < recordsPerWriter; i++) {
+                        sink.append(writer, Level.INFO, i + "-".repeat(i % 13));
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            Assertions.assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+            // Then
+            Assertions.assertThat(sink.getSegmentIndex()).as("Rolled").isGreaterThan(10);
+            Assertions.assertThat(sink.getDroppedCount()).as("Dropped").isZero();
+        }
+
+        Map<String, List<Integer>> sequences = new HashMap<>();
+        try (MappedFileTailer tailer = new MappedFileTailer(directory, "app")) {
+            for (MappedFileTailer.Entry entry : readAll(tailer)) {
+                sequences.computeIfAbsent(entry.loggerName(), k -> new ArrayList<>())
+                        .add(Integer.parseInt(entry.message().replace("-", "")));
+            }
+        }
+        Assertions.assertThat(sequences).as("Writers").hasSize(writers);
+        for (List<Integer> sequence : sequences.values()) {
+            Assertions.assertThat(sequence).as("Sequence").hasSize(recordsPerWriter).isSorted();
+        }
+    }
+
+    @Test
+    @DisplayName("Should start after existing segments and stamp the header")
+    void shouldStartNewSegment() throws IOException {
+        // Given
+        new MappedFileSink(directory, "app", 4096).close();
+
+        // When
+        try (MappedFileSink sink = new MappedFileSink(directory, "app", 5000)) {
+
+            // Then
+            Assertions.assertThat(sink.getSegmentIndex()).isEqualTo(1);
+            Assertions.assertThat(sink.getSegmentSize()).as("Aligned size").isEqualTo(5000);
+        }
+        ByteBuffer header =
+                ByteBuffer.wrap(Files.readAllBytes(directory.resolve("app-000001.seg")));
+        Assertions.assertThat(header.getInt(0)).as("Magic").isEqualTo(MappedFileSink.MAGIC);
+        Assertions.assertThat(header.getLong(8)).as("Index").isEqualTo(1);
+        Assertions.assertThat(header.capacity()).as("File size").isEqualTo(5000);
+    }
+
+    @Test
+    @DisplayName("Should truncate oversized messages and drop after close")
+    void shouldTruncateAndDropAfterClose() throws IOException {
+        // Given
+        MappedFileSink sink = new MappedFileSink(directory, "app", 4096);
+        String huge = "é".repeat(4096);
+
+        // When
+        boolean written = sink.append("main", Level.WARN, huge);
+        sink.close();
+        boolean afterClose = sink.append("main", Level.WARN, "late");
+
+        // Then
+        Assertions.assertThat(written).as("Written").isTrue();
+        Assertions.assertThat(afterClose).as("After close").isFalse();
+        Assertions.assertThat(sink.getDroppedCount()).isEqualTo(1);
+        try (MappedFileTailer tailer = new MappedFileTailer(directory, "app")) {
+            String message = tailer.poll().message();
+            Assertions.assertThat(message).as("Truncated").startsWith("éé").endsWith("é");
+            Assertions.assertThat(message.getBytes(StandardCharsets.UTF_8).length)
+                    .isLessThanOrEqualTo(4096 - MappedFileSink.SEGMENT_HEADER_SIZE);
+        }
+    }
+
+    @Test
+    @DisplayName("Should be a LogEx target instead of the logger")
+    void shouldBeLogExSink() throws IOException {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        try (MappedFileSink sink = new MappedFileSink(directory, "app", 4096);
+                MappedFileTailer tailer = new MappedFileTailer(directory, "app")) {
+            LogEx.setSink(sink);
+
+            // When
+            LogEx.warn(logger, "disk", 42);
+
+            // Then
+            Assertions.assertThat(logger.messages()).as("Logger").isEmpty();
+            MappedFileTailer.Entry entry = tailer.poll();
+            Assertions.assertThat(entry.loggerName()).isEqualTo("recording");
+            Assertions.assertThat(entry.level()).isEqualTo(Level.WARN);
+            Assertions.assertThat(entry.message()).isEqualTo("disk: 42");
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unit tests for MessageBuffers and StripedPool classes.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("MessageBuffers Tests")
+class MessageBuffersTest {
+
+    @AfterEach
+    void restoreDefaults() {
+        LogEx.setBufferStrategy(BufferStrategy.THREAD_LOCAL);
+        LogEx.setMaxBufferCapacity(MessageBuffers.DEFAULT_MAX_CAPACITY);
+        LogEx.cleanupThreadLocal();
+    }
+
+    @Test
+    @DisplayName("Should reuse thread-local buffer")
+    void shouldReuseThreadLocalBuffer() {
+        // When
+        StringBuilder first = MessageBuffers.acquire();
+        first.append("content");
+        MessageBuffers.release(first);
+        StringBuilder second = MessageBuffers.acquire();
+        MessageBuffers.release(second);
+
+        // Then
+        Assertions.assertThat(second).isSameAs(first).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should give nested acquire a separate buffer")
+    void shouldGiveNestedAcquireSeparateBuffer() {
+        // When
+        StringBuilder outer = MessageBuffers.acquire();
+        StringBuilder inner = MessageBuffers.acquire();
+        MessageBuffers.release(inner);
+        MessageBuffers.release(outer);
+
+        // Then
+        Assertions.assertThat(inner).isNotSameAs(outer);
+    }
+
+    @Test
+    @DisplayName("Should drop buffer that grew over the capacity cap")
+    void shouldDropBufferThatGrewOverTheCapacityCap() {
+        // Given
+        LogEx.setMaxBufferCapacity(1024);
+        StringBuilder huge = MessageBuffers.acquire();
+        huge.append("x".repeat(10_000));
+
+        // When
+        MessageBuffers.release(huge);
+        StringBuilder next = MessageBuffers.acquire();
+        MessageBuffers.release(next);
+
+        // Then
+        Assertions.assertThat(next).isNotSameAs(huge);
+        Assertions.assertThat(next.capacity()).isLessThanOrEqualTo(1024);
+    }
+
+    @Test
+    @DisplayName("Should reuse pooled buffer")
+    void shouldReusePooledBuffer() {
+        // Given
+        LogEx.setBufferStrategy(BufferStrategy.POOLED);
+
+        // When
+        StringBuilder first = MessageBuffers.acquire();
+        MessageBuffers.release(first);
+        StringBuilder second = MessageBuffers.acquire();
+        MessageBuffers.release(second);
+
+        // Then
+        Assertions.assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    @DisplayName("Should use pool for virtual threads in adaptive mode")
+    void shouldUsePoolForVirtualThreadsInAdaptiveMode() throws InterruptedException {
+        // Given
+        LogEx.setBufferStrategy(BufferStrategy.ADAPTIVE);
+        AtomicReference<Boolean> virtualUsesThreadLocal = new AtomicReference<>();
+
+        // When
+        Thread thread = Thread.ofVirtual()
+                .start(() -> virtualUsesThreadLocal.set(MessageBuffers.isThreadLocal()));
+        thread.join();
+
+        // Then
+        Assertions.assertThat(virtualUsesThreadLocal.get()).isFalse();
+        Assertions.assertThat(MessageBuffers.isThreadLocal()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject invalid settings")
+    void shouldRejectInvalidSettings() {
+        Assertions.assertThatThrownBy(() -> LogEx.setBufferStrategy(null))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> LogEx.setMaxBufferCapacity(16))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should bound the number of pooled objects")
+    void shouldBoundTheNumberOfPooledObjects() {
+        // Given
+        StripedPool<Object> pool = new StripedPool<>(4);
+
+        // When
+        int pooled = 0;
+        for (int i = 0; i < 100; i++) {
+            if (pool.offer(new Object())) {
+                pooled++;
+            }
+        }
+        int polled = 0;
+        while (pool.poll() != null) {
+            polled++;
+        }
+
+        // Then
+        Assertions.assertThat(pool.capacity()).isEqualTo(4);
+        Assertions.assertThat(pooled).isEqualTo(4);
+        Assertions.assertThat(polled).isEqualTo(4);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.Level;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Unit tests for MessageParts class and LogAppendable parts.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("MessageParts Tests")
+class MessagePartsTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    /** Order DTO that renders itself and counts how often it was asked to. */
+    private static final class Order implements LogAppendable {
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public void appendTo(StringBuilder builder, int budget) {
+            calls.incrementAndGet();
+            builder.append("Order{id=").append(7).append('}');
+        }
+
+        @Override
+        public String toString() {
+            throw new AssertionError("toString() must not be called");
+        }
+    }
+
+    @AfterEach
+    void resetBudget() {
+        LogEx.setPartBudget(MessageParts.DEFAULT_PART_BUDGET);
+    }
+
+    @Test
+    @DisplayName("Should render appendable parts without toString() on every path")
+    void shouldRenderAppendable() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        Order order = new Order();
+
+        // When
+        LogEx.info(logger, "shipped", order);
+        LogEx.info(logger, "a", "b", "c", "d", order);
+        LogEx.infoHere(logger, order);
+        LogEx.parts(logger, Level.INFO).add("parts").add((Object) order).log();
+        LogEx.startAsync(16);
+        LogEx.info(logger, "async", order);
+        LogEx.stopAsync(TIMEOUT);
+        LogEx.startCapture(4096);
+        LogEx.info(logger, "capture", order);
+        LogEx.stopCapture(TIMEOUT);
+        byte[] encoded = new byte[64];
+        int length = LogEncoder.encode(encoded, 0, "encoded", order);
+
+        // Then
+        Assertions.assertThat(logger.messages()).containsExactly(
+                "shipped: Order{id=7}", "a: b: c: d: Order{id=7}",
+                "shouldRenderAppendable: Order{id=7}", "parts: Order{id=7}",
+                "async: Order{id=7}", "capture: Order{id=7}");
+        Assertions.assertThat(new String(encoded, 0, length, StandardCharsets.UTF_8))
+                .isEqualTo("encoded: Order{id=7}");
+        Assertions.assertThat(order.calls.get()).as("Calls").isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Should pass the budget and cut output over it")
+    void shouldEnforceBudget() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        AtomicInteger seenBudget = new AtomicInteger();
+        LogAppendable greedy = (builder, budget) -> {
+            seenBudget.set(budget);
+            builder.append("x".repeat(100));
+        };
+        LogEx.setPartBudget(10);
+
+        // When
+        LogEx.warn(logger, "head", greedy, "tail");
+
+        // Then
+        Assertions.assertThat(seenBudget.get()).as("Budget").isEqualTo(10);
+        Assertions.assertThat(logger.messages())
+                .containsExactly("head: " + "x".repeat(10) + "...: tail");
+    }
+
+    @Test
+    @DisplayName("Should not split a surrogate pair at the budget")
+    void shouldNotSplitSurrogatePair() {
+        // Given
+        StringBuilder builder = new StringBuilder("> ");
+        builder.append("abc😀");
+
+        // When
+        MessageParts.truncate(builder, 2, 4);
+
+        // Then
+        Assertions.assertThat(builder.toString()).isEqualTo("> abc...");
+    }
+
+    @Test
+    @DisplayName("Should reject a non-positive budget")
+    void shouldRejectInvalidBudget() {
+        Assertions.assertThatThrownBy(() -> LogEx.setPartBudget(0))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThat(LogEx.getPartBudget())
+                .isEqualTo(MessageParts.DEFAULT_PART_BUDGET);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Unit tests for MethodNameCache class.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("MethodNameCache Tests")
+class MethodNameCacheTest {
+
+    private static CallSite.Key key(int i) {
+        return new CallSite.Key("a.b.Service", "method" + i, "()V", i);
+    }
+
+    private static CallSite site(int i) {
+        return new CallSite("a.b.Service", "method" + i, i, "Service#method" + i,
+                "a.b.Service#method" + i);
+    }
+
+    @Test
+    @DisplayName("Should return cached value and count hits and misses")
+    void shouldReturnCachedValueAndCountHitsAndMisses() {
+        // Given
+        MethodNameCache cache = new MethodNameCache(8);
+
+        // When
+        CallSite missed = cache.get(key(1));
+        cache.putIfAbsent(key(1), site(1));
+        CallSite hit = cache.get(key(1));
+
+        // Then
+        Assertions.assertThat(missed).isNull();
+        Assertions.assertThat(hit).isEqualTo(site(1));
+        Assertions.assertThat(cache.stats())
+                .isEqualTo(new MethodCacheStats(1, 1, 0, 1, 8));
+        Assertions.assertThat(cache.stats().hitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("Should keep first value for the same key")
+    void shouldKeepFirstValueForTheSameKey() {
+        // Given
+        MethodNameCache cache = new MethodNameCache(8);
+        CallSite first = site(1);
+
+        // When
+        cache.putIfAbsent(key(1), first);
+        CallSite second = cache.putIfAbsent(key(1), site(1));
+
+        // Then
+        Assertions.assertThat(second).isSameAs(first);
+        Assertions.assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should evict unused entry before frequently used ones")
+    void shouldEvictUnusedEntryBeforeFrequentlyUsedOnes() {
+        // Given
+        MethodNameCache cache = new MethodNameCache(3);
+        for (int i = 1; i <= 3; i++) {
+            cache.putIfAbsent(key(i), site(i));
+        }
+        cache.get(key(1));
+        cache.get(key(1));
+        cache.get(key(2));
+
+        // When
+        cache.putIfAbsent(key(4), site(4));
+
+        // Then
+        Assertions.assertThat(cache.get(key(3))).as("Unused entry should be evicted").isNull();
+        Assertions.assertThat(cache.get(key(1))).isNotNull();
+        Assertions.assertThat(cache.get(key(2))).isNotNull();
+        Assertions.assertThat(cache.get(key(4))).isNotNull();
+        Assertions.assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should stay within maximum size")
+    void shouldStayWithinMaximumSize() {
+        // Given
+        MethodNameCache cache = new MethodNameCache(100);
+
+        // When
+        for (int i = 0; i < 10_000; i++) {
+            cache.putIfAbsent(key(i), site(i));
+        }
+
+        // Then
+        Assertions.assertThat(cache.size()).isEqualTo(100);
+        Assertions.assertThat(cache.stats().evictions()).isEqualTo(9_900);
+    }
+
+    @Test
+    @DisplayName("Should not store entries when disabled")
+    void shouldNotStoreEntriesWhenDisabled() {
+        // Given
+        MethodNameCache cache = new MethodNameCache(8);
+        cache.putIfAbsent(key(1), site(1));
+
+        // When
+        cache.setMaxSize(0);
+        CallSite returned = cache.putIfAbsent(key(2), site(2));
+
+        // Then
+        Assertions.assertThat(returned).isEqualTo(site(2));
+        Assertions.assertThat(cache.size()).isZero();
+        Assertions.assertThat(cache.get(key(2))).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject negative maximum size")
+    void shouldRejectNegativeMaximumSize() {
+        Assertions.assertThatThrownBy(() -> new MethodNameCache(-1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should hand evicted values to the eviction callback")
+    void shouldHandEvictedValuesToCallback() {
+        // Given
+        List<String> evicted = new ArrayList<>();
+        GClockCache<Integer, String> cache = new GClockCache<>(2, evicted::add);
+        cache.putIfAbsent(1, "one");
+        cache.putIfAbsent(2, "two");
+        cache.get(2);
+
+        // When
+        cache.putIfAbsent(3, "three");
+
+        // Then
+        Assertions.assertThat(evicted).containsExactly("one");
+        Assertions.assertThat(cache.get(1)).isNull();
+        Assertions.assertThat(cache.get(3)).isEqualTo("three");
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.Level;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+/**
+ * Unit tests for OverflowPolicy class.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("OverflowPolicy Tests")
+class OverflowPolicyTest {
+
+    @Test
+    @DisplayName("Should wait according to the blocking policies")
+    void shouldWaitWhenBlocking() {
+        Assertions.assertThat(OverflowPolicy.block().onOverflow(Level.TRACE))
+                .isEqualTo(OverflowPolicy.WAIT_FOREVER);
+        Assertions.assertThat(OverflowPolicy.block(Duration.ofMillis(5)).onOverflow(Level.TRACE))
+                .isEqualTo(5_000_000L);
+        Assertions.assertThat(OverflowPolicy.dropNewest().onOverflow(Level.ERROR)).isZero();
+    }
+
+    @Test
+    @DisplayName("Should drop only levels below the threshold")
+    void shouldDropBelowThreshold() {
+        // Given
+        OverflowPolicy policy = OverflowPolicy.dropBelow(Level.WARN);
+
+        // Then
+        Assertions.assertThat(policy.onOverflow(Level.TRACE)).isZero();
+        Assertions.assertThat(policy.onOverflow(Level.DEBUG)).isZero();
+        Assertions.assertThat(policy.onOverflow(Level.INFO)).isZero();
+        Assertions.assertThat(policy.onOverflow(Level.WARN)).isEqualTo(OverflowPolicy.WAIT_FOREVER);
+        Assertions.assertThat(policy.onOverflow(Level.ERROR))
+                .isEqualTo(OverflowPolicy.WAIT_FOREVER);
+    }
+
+    @Test
+    @DisplayName("Should keep one of every N events when sampling")
+    void shouldSample() {
+        // Given
+        OverflowPolicy policy = OverflowPolicy.sample(4);
+
+        // When
+        long kept = IntStream.range(0, 100)
+                .filter(i -> policy.onOverflow(Level.INFO) == OverflowPolicy.WAIT_FOREVER)
+                .count();
+
+        // Then
+        Assertions.assertThat(kept).isEqualTo(25);
+    }
+
+    @Test
+    @DisplayName("Should reject invalid arguments")
+    void shouldRejectInvalidArguments() {
+        Assertions.assertThatThrownBy(() -> OverflowPolicy.sample(0))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> OverflowPolicy.dropBelow(null))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> OverflowPolicy.block(Duration.ofSeconds(-1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThat(OverflowPolicy.dropBelow(Level.WARN)).hasToString("dropBelow(WARN)");
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for RateLimiter class and the rate-limited LogEx methods.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("RateLimiter Tests")
+class RateLimiterTest {
+
+    private static final long WINDOW = 1_000;
+
+    @Test
+    @DisplayName("Should pass up to the limit per window and report suppressed events")
+    void shouldLimitPerWindow() {
+        // Given
+        RateLimiter limiter = new RateLimiter(2, WINDOW, "Site#run", 0);
+
+        // When / Then
+        Assertions.assertThat(limiter.tryAcquire(0)).isZero();
+        Assertions.assertThat(limiter.tryAcquire(10)).isZero();
+        Assertions.assertThat(limiter.tryAcquire(20)).isEqualTo(RateLimiter.DENIED);
+        Assertions.assertThat(limiter.tryAcquire(30)).isEqualTo(RateLimiter.DENIED);
+        Assertions.assertThat(limiter.tryAcquire(WINDOW)).as("Next window").isEqualTo(2);
+        Assertions.assertThat(limiter.tryAcquire(WINDOW + 1)).isZero();
+        Assertions.assertThat(limiter.tryAcquire(WINDOW + 2)).isEqualTo(RateLimiter.DENIED);
+        Assertions.assertThat(limiter.suppressedMessage(2))
+                .isEqualTo("Site#run: suppressed 2 similar messages");
+    }
+
+    @Test
+    @DisplayName("Should not lose suppressed counts under contention")
+    void shouldCountUnderContention() throws InterruptedException {
+        // Given
+        final int threads = 8;
+        final int calls = 10_000;
+        RateLimiter limiter = new RateLimiter(5, Long.MAX_VALUE / 2, "Site#run", 0);
+        AtomicInteger passed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < calls; i++) {
+                    if (limiter.tryAcquire(1) != RateLimiter.DENIED) {
+                        passed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        Assertions.assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        Assertions.assertThat(passed.get()).as("Passed").isEqualTo(5);
+        Assertions.assertThat(limiter.tryAcquire(Long.MAX_VALUE / 2 + 1))
+                .as("Suppressed").isEqualTo(threads * calls - 5L);
+    }
+
+    @Test
+    @DisplayName("Should hand out suppressed counts only once the window has closed")
+    void shouldTakeExpiredCounts() {
+        // Given
+        RateLimiter limiter = new RateLimiter(1, WINDOW, "Site#run", 0);
+        limiter.tryAcquire(0);
+        limiter.tryAcquire(10);
+        limiter.tryAcquire(20);
+
+        // When / Then
+        Assertions.assertThat(limiter.takeExpired(WINDOW - 1)).as("Window open").isZero();
+        Assertions.assertThat(limiter.takeExpired(WINDOW)).as("Window closed").isEqualTo(2);
+        Assertions.assertThat(limiter.takeExpired(WINDOW + 1)).as("Reported once").isZero();
+        Assertions.assertThat(limiter.tryAcquire(WINDOW + 2)).as("Next window").isZero();
+    }
+
+    @Test
+    @DisplayName("Should account for every event while threads race to open windows")
+    void shouldSwitchWindowAtomically() throws InterruptedException {
+        // Given
+        final int threads = 8;
+        final int limit = 3;
+        RateLimiter limiter = new RateLimiter(limit, WINDOW, "Site#run", 0);
+        AtomicInteger passed = new AtomicInteger();
+        AtomicLong reported = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (long now = 0; now < 100 * WINDOW; now++) {
+                    final long result = limiter.tryAcquire(now);
+                    if (result != RateLimiter.DENIED) {
+                        passed.incrementAndGet();
+                        reported.addAndGet(result);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        Assertions.assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        // Then
+        final long total = threads * 100 * WINDOW;
+        Assertions.assertThat(passed.get()).as("Passed").isBetween(limit, 100 * limit);
+        Assertions.assertThat(reported.get() + limiter.takePending())
+                .as("Suppressed").isEqualTo(total - passed.get());
+    }
+
+    @Test
+    @DisplayName("Should reject invalid limits")
+    void shouldRejectInvalidLimits() {
+        Assertions.assertThatThrownBy(() -> new RateLimiter(0, WINDOW, "Site#run", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> new RateLimiter(1, 0, "Site#run", 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void warnFirst(RecordingLogger logger, Duration window, Object part) {
+        LogEx.warnEvery(logger, window, "first", part);
+    }
+
+    @Test
+    @DisplayName("Should rate limit each call site separately")
+    void shouldLimitPerCallSite() throws InterruptedException {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        Duration window = Duration.ofMillis(200);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            warnFirst(logger, window, i);
+            LogEx.errorAtMost(logger, 3, window, "second", i);
+        }
+        Thread.sleep(window.toMillis() + 50);
+        warnFirst(logger, window, "later");
+        warnFirst(logger, window, "suppressed");
+
+        // Then
+        Assertions.assertThat(logger.messages()).containsExactly(
+                "first: 0", "second: 0", "second: 1", "second: 2",
+                "RateLimiterTest#warnFirst: suppressed 9 similar messages",
+                "first: later");
+    }
+
+    @Test
+    @DisplayName("Should report suppressed messages on flush once the window has closed")
+    void shouldFlushSuppressed() throws InterruptedException {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        Duration window = Duration.ofMillis(100);
+        for (int i = 0; i < 5; i++) {
+            LogEx.errorAtMost(logger, 2, window, "burst", i);
+        }
+
+        // When
+        LogEx.flushSuppressed();
+        final int beforeClose = logger.messages().size();
+        Thread.sleep(window.toMillis() + 50);
+        LogEx.flushSuppressed();
+        LogEx.flushSuppressed();
+
+        // Then
+        Assertions.assertThat(beforeClose).as("Window still open").isEqualTo(2);
+        Assertions.assertThat(logger.messages()).containsExactly("burst: 0", "burst: 1",
+                "RateLimiterTest#shouldFlushSuppressed: suppressed 3 similar messages");
+    }
+}
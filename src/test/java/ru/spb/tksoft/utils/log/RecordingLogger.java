@@ -0,0 +1,118 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.LegacyAbstractLogger;
+
+/**
+ * Thread-safe test logger with all levels enabled that records every event. The logger can be held
+ * to simulate a stalled backend.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+final class RecordingLogger extends LegacyAbstractLogger {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Recorded event. */
+    record Event(Level level, String message, String threadName) {
+    }
+
+    private final transient Queue<Event> events = new ConcurrentLinkedQueue<>();
+
+    /** Closed gate stalls logging calls until released. */
+    private transient volatile CountDownLatch gate = new CountDownLatch(0);
+
+    RecordingLogger() {
+        this.name = "recording";
+    }
+
+    /**
+     * @return The recorded events in emission order.
+     */
+    List<Event> events() {
+        return List.copyOf(events);
+    }
+
+    /**
+     * @return The recorded messages in emission order.
+     */
+    List<String> messages() {
+        return events.stream().map(Event::message).toList();
+    }
+
+    /**
+     * Stall logging calls until {@link #release()}.
+     */
+    void hold() {
+        gate = new CountDownLatch(1);
+    }
+
+    /**
+     * Let stalled logging calls through.
+     */
+    void release() {
+        gate.countDown();
+    }
+
+    @Override
+    public boolean isTraceEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return true;
+    }
+
+    @Override
+    protected String getFullyQualifiedCallerName() {
+        return null;
+    }
+
+    @Override
+    protected void handleNormalizedLoggingCall(Level level, Marker marker, String messagePattern,
+            Object[] arguments, Throwable throwable) {
+        try {
+            gate.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        events.add(new Event(level, messagePattern, Thread.currentThread().getName()));
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * Unit tests for Renderers class and the LogEx renderer registry.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("Renderers Tests")
+class RenderersTest {
+
+    private record Point(int x, int y) {
+    }
+
+    private record Named(String name, Point point) {
+
+        @Override
+        public String toString() {
+            return "custom";
+        }
+    }
+
+    private static final class Tagged extends ArrayList<String> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public String toString() {
+            return "tagged";
+        }
+    }
+
+    private interface Shape {
+    }
+
+    private static class Square implements Shape {
+    }
+
+    private static final class BigSquare extends Square {
+    }
+
+    @AfterEach
+    void resetRenderers() {
+        LogEx.registerRenderer(Shape.class, null);
+        LogEx.registerRenderer(Square.class, null);
+        LogEx.registerRenderer(Point.class, null);
+        LogEx.setMaxRenderedElements(Renderers.DEFAULT_MAX_ELEMENTS);
+        LogEx.setPartBudget(MessageParts.DEFAULT_PART_BUDGET);
+    }
+
+    private static String render(Object part) {
+        return MessageParts.append(new StringBuilder(), part).toString();
+    }
+
+    @Test
+    @DisplayName("Should render arrays like Arrays.toString()")
+    void shouldRenderArrays() {
+        Assertions.assertThat(render(new int[] {1, -2})).isEqualTo("[1, -2]");
+        Assertions.assertThat(render(new long[] {3L})).isEqualTo("[3]");
+        Assertions.assertThat(render(new double[] {1.5})).isEqualTo("[1.5]");
+        Assertions.assertThat(render(new float[] {0.1f})).isEqualTo("[0.1]");
+        Assertions.assertThat(render(new byte[] {-1})).isEqualTo("[-1]");
+        Assertions.assertThat(render(new short[] {7})).isEqualTo("[7]");
+        Assertions.assertThat(render(new char[] {'a', 'b'})).isEqualTo("[a, b]");
+        Assertions.assertThat(render(new boolean[] {true})).isEqualTo("[true]");
+        Assertions.assertThat(render(new int[0])).isEqualTo("[]");
+        Object[] nested = {"s", null, new int[] {1}, new String[] {"x"}};
+        Assertions.assertThat(render(nested)).isEqualTo(Arrays.deepToString(nested));
+    }
+
+    @Test
+    @DisplayName("Should render collections, maps, records and Optionals like toString()")
+    void shouldRenderLikeToString() {
+        // Given
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("a", 1);
+        map.put("b", List.of(2, 3));
+        Point point = new Point(1, 2);
+
+        // Then
+        Assertions.assertThat(render(List.of(1, "two", point)))
+                .isEqualTo("[1, two, Point[x=1, y=2]]");
+        Assertions.assertThat(render(map)).isEqualTo(map.toString());
+        Assertions.assertThat(render(point)).isEqualTo(point.toString());
+        Assertions.assertThat(render(Optional.of(point))).isEqualTo(Optional.of(point).toString());
+        Assertions.assertThat(render(Optional.empty())).isEqualTo("Optional.empty");
+    }
+
+    @Test
+    @DisplayName("Should keep toString() of classes that declare it")
+    void shouldKeepDeclaredToString() {
+        // Given
+        Tagged tagged = new Tagged();
+        tagged.add("x");
+
+        // Then
+        Assertions.assertThat(render(new Named("n", new Point(0, 0)))).isEqualTo("custom");
+        Assertions.assertThat(render(tagged)).isEqualTo("tagged");
+        Assertions.assertThat(Renderers.lookup(Named.class)).isSameAs(Renderers.DEFAULT);
+    }
+
+    @Test
+    @DisplayName("Should render a huge list in bounded size")
+    void shouldBoundHugeList() {
+        // Given
+        List<Integer> huge = IntStream.range(0, 100_000).boxed().toList();
+        LogEx.setMaxRenderedElements(3);
+
+        // When
+        String rendered = render(huge);
+
+        // Then
+        Assertions.assertThat(rendered).isEqualTo("[0, 1, 2, ... 99997 more]");
+        Assertions.assertThat(render(new int[] {1, 2, 3, 4})).isEqualTo("[1, 2, 3, ... 1 more]");
+    }
+
+    @Test
+    @DisplayName("Should stop rendering at the char budget")
+    void shouldStopAtBudget() {
+        // Given
+        LogEx.setPartBudget(20);
+        List<String> words = List.of("alpha", "beta", "gamma", "delta", "epsilon");
+
+        // When
+        String rendered = render(words);
+        String long1 = render(List.of("x".repeat(1000)));
+
+        // Then
+        Assertions.assertThat(rendered).isEqualTo("[alpha, beta, gamma," + MessageParts.TRUNCATED);
+        Assertions.assertThat(long1).isEqualTo("[" + "x".repeat(19) + MessageParts.TRUNCATED);
+    }
+
+    @Test
+    @DisplayName("Should survive cyclic and deep structures")
+    void shouldSurviveCycles() {
+        // Given
+        List<Object> cyclic = new ArrayList<>();
+        cyclic.add(1);
+        cyclic.add(cyclic);
+        Object deep = "leaf";
+        for (int i = 0; i < 100; i++) {
+            deep = List.of(deep);
+        }
+
+        // Then
+        Assertions.assertThat(render(cyclic)).isEqualTo("[1, (this Collection)]");
+        Assertions.assertThat(render(deep)).startsWith("[[[[[[[[[...]]]]]]]]]");
+    }
+
+    @Test
+    @DisplayName("Should prefer registered renderers, nearest type first")
+    void shouldUseRegisteredRenderers() {
+        // Given
+        LogEx.registerRenderer(Shape.class, (builder, shape, budget) -> builder.append("shape"));
+        String before = render(new BigSquare());
+        LogEx.registerRenderer(Square.class, (builder, square, budget) -> builder.append("square"));
+        LogEx.registerRenderer(Point.class, (builder, point, budget) -> {
+            builder.append('(');
+            LogEx.appendPart(builder, point.x(), budget - 2);
+            builder.append(';').append(point.y()).append(')');
+        });
+
+        // Then
+        Assertions.assertThat(before).isEqualTo("shape");
+        Assertions.assertThat(render(new BigSquare())).isEqualTo("square");
+        Assertions.assertThat(render(List.of(new Point(1, 2)))).isEqualTo("[(1;2)]");
+
+        // When
+        LogEx.registerRenderer(Point.class, null);
+
+        // Then
+        Assertions.assertThat(render(new Point(1, 2))).isEqualTo("Point[x=1, y=2]");
+    }
+
+    @Test
+    @DisplayName("Should render parts through LogEx")
+    void shouldRenderThroughLogEx() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+
+        // When
+        LogEx.info(logger, "ids", new int[] {1, 2}, Optional.of("x"));
+
+        // Then
+        Assertions.assertThat(logger.messages()).containsExactly("ids: [1, 2]: Optional[x]");
+        Assertions.assertThatThrownBy(() -> LogEx.setMaxRenderedElements(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
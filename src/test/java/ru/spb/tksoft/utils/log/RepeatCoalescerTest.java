@@ -0,0 +1,143 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.Level;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for RepeatCoalescer class.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("RepeatCoalescer Tests")
+class RepeatCoalescerTest {
+
+    @AfterEach
+    void restoreDefaults() {
+        LogEx.setCoalesceRepeats(false);
+    }
+
+    @Test
+    @DisplayName("Should coalesce identical consecutive messages")
+    void shouldCoalesceRepeats() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        LogEx.setCoalesceRepeats(true);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            LogEx.warn(logger, "upstream timeout");
+        }
+        LogEx.info(logger, "recovered");
+        LogEx.info(logger, "recovered");
+        LogEx.setCoalesceRepeats(false);
+
+        // Then
+        Assertions.assertThat(logger.messages()).containsExactly(
+                "upstream timeout", "previous message repeated 4 times",
+                "recovered", "previous message repeated 1 times");
+        Assertions.assertThat(logger.events())
+                .extracting(RecordingLogger.Event::level)
+                .containsExactly(Level.WARN, Level.WARN, Level.INFO, Level.INFO);
+    }
+
+    @Test
+    @DisplayName("Should treat the same text at another level as a different message")
+    void shouldDistinguishLevels() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        LogEx.setCoalesceRepeats(true);
+
+        // When
+        LogEx.warn(logger, "same");
+        LogEx.error(logger, "same");
+        LogEx.flushRepeats();
+
+        // Then
+        Assertions.assertThat(logger.messages()).containsExactly("same", "same");
+    }
+
+    @Test
+    @DisplayName("Should keep loggers apart")
+    void shouldKeepLoggersApart() {
+        // Given
+        RecordingLogger first = new RecordingLogger();
+        RecordingLogger second = new RecordingLogger();
+        LogEx.setCoalesceRepeats(true);
+
+        // When
+        LogEx.info(first, "tick");
+        LogEx.info(second, "tick");
+        LogEx.info(first, "tick");
+        LogEx.flushRepeats();
+
+        // Then
+        Assertions.assertThat(first.messages())
+                .containsExactly("tick", "previous message repeated 1 times");
+        Assertions.assertThat(second.messages()).containsExactly("tick");
+    }
+
+    @Test
+    @DisplayName("Should write each repeat count right after its message under contention")
+    void shouldKeepRepeatCountsInOrder() throws InterruptedException {
+        // Given
+        final int threads = 4;
+        final int calls = 20_000;
+        RecordingLogger logger = new RecordingLogger();
+        RepeatCoalescer coalescer = new RepeatCoalescer();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < calls; i++) {
+                    coalescer.emit(logger, Level.INFO, i % 8 < 4 ? "a" : "b", null);
+                }
+            });
+        }
+        executor.shutdown();
+        Assertions.assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        coalescer.flush();
+
+        // Then: every event is accounted for by its own line or the count that follows it
+        Map<String, Long> totals = new HashMap<>();
+        String previous = null;
+        for (String message : logger.messages()) {
+            if (message.startsWith("previous message repeated ")) {
+                Assertions.assertThat(previous).as("Count after a message").isNotNull();
+                final long repeats = Long.parseLong(message.split(" ")[3]);
+                totals.merge(previous, repeats, Long::sum);
+                previous = null;
+            } else {
+                totals.merge(message, 1L, Long::sum);
+                previous = message;
+            }
+        }
+        Assertions.assertThat(totals).containsOnly(
+                Map.entry("a", threads * calls / 2L), Map.entry("b", threads * calls / 2L));
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2025 Konstantin Terskikh
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ru.spb.tksoft.utils.log;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+import java.util.stream.IntStream;
+
+/**
+ * Unit tests for Sampler class and the sampled LogEx and LogFx methods.
+ * 
+ * @author Konstantin Terskikh, kostus.online.1974@yandex.ru, 2025
+ */
+@DisplayName("Sampler Tests")
+class SamplerTest {
+
+    @AfterEach
+    void removeOverrides() {
+        LogEx.setLoggerSampler("recording", null);
+    }
+
+    @Test
+    @DisplayName("Should keep one of every N events on one thread")
+    void shouldKeepEveryNth() {
+        // Given
+        Sampler sampler = Sampler.everyNth(10);
+
+        // When
+        long kept = IntStream.range(0, 100).filter(i -> sampler.sample()).count();
+
+        // Then
+        Assertions.assertThat(kept).isEqualTo(10);
+        Assertions.assertThat(sampler.getRate()).isEqualTo(0.1);
+    }
+
+    @Test
+    @DisplayName("Should keep events with the given probability")
+    void shouldKeepWithProbability() {
+        // Given
+        Sampler none = Sampler.ofRate(0);
+        Sampler all = Sampler.ofRate(1);
+        Sampler half = Sampler.ofRate(0.5);
+
+        // When
+        long keptHalf = IntStream.range(0, 10_000).filter(i -> half.sample()).count();
+
+        // Then
+        Assertions.assertThat(IntStream.range(0, 100).noneMatch(i -> none.sample())).isTrue();
+        Assertions.assertThat(IntStream.range(0, 100).allMatch(i -> all.sample())).isTrue();
+        Assertions.assertThat(keptHalf).isBetween(4_000L, 6_000L);
+    }
+
+    @Test
+    @DisplayName("Should switch the mode at runtime")
+    void shouldSwitchMode() {
+        // Given
+        Sampler sampler = LogEx.sampler("orders");
+
+        // When
+        sampler.setEveryNth(4);
+
+        // Then
+        Assertions.assertThat(LogEx.sampler("orders")).isSameAs(sampler);
+        Assertions.assertThat(sampler).hasToString("everyNth(4)");
+        sampler.setRate(0.25);
+        Assertions.assertThat(sampler).hasToString("rate(0.25)");
+        Assertions.assertThatThrownBy(() -> sampler.setRate(1.5))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatThrownBy(() -> sampler.setEveryNth(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Should log sampled events only")
+    void shouldLogSampledEvents() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        Sampler sampler = Sampler.everyNth(3);
+
+        // When
+        for (int i = 0; i < 9; i++) {
+            LogEx.debugSampled(logger, sampler, "kept", i);
+            LogEx.traceSampled(logger, 0.0, "dropped", i);
+        }
+
+        // Then
+        Assertions.assertThat(logger.messages()).containsExactly("kept: 0", "kept: 3", "kept: 6");
+    }
+
+    @Test
+    @DisplayName("Should apply the logger override")
+    void shouldApplyLoggerOverride() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        LogEx.setLoggerSampler("recording", Sampler.ofRate(0));
+
+        // When
+        LogEx.debugSampled(logger, 1.0, "dropped");
+        LogFx.debugEveryNth(logger, 1, "dropped {}", 1);
+        LogEx.setLoggerSampler("recording", null);
+        LogEx.debugSampled(logger, 1.0, "kept");
+
+        // Then
+        Assertions.assertThat(logger.messages()).containsExactly("kept");
+    }
+
+    @Test
+    @DisplayName("Should count LogFx calls per message format")
+    void shouldCountPerFormat() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            LogFx.traceEveryNth(logger, 5, "SamplerTest first {}", i);
+            LogFx.debugEveryNth(logger, 2, "SamplerTest second {}", i);
+        }
+
+        // Then
+        Assertions.assertThat(logger.messages()).filteredOn(m -> m.contains("first")).hasSize(2);
+        Assertions.assertThat(logger.messages()).filteredOn(m -> m.contains("second")).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("Should bound the number of LogFx format counters")
+    void shouldBoundFormatCounters() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+
+        // When
+        for (int i = 0; i < 2 * Sampling.FORMAT_COUNTERS_MAX_SIZE; i++) {
+            LogFx.debugEveryNth(logger, 2, "SamplerTest generated " + i + " {}", i);
+        }
+
+        // Then
+        Assertions.assertThat(Sampling.formatCounterCount())
+                .isLessThanOrEqualTo(Sampling.FORMAT_COUNTERS_MAX_SIZE);
+        Assertions.assertThat(logger.messages()).as("First call of each format")
+                .hasSize(2 * Sampling.FORMAT_COUNTERS_MAX_SIZE);
+    }
+
+    @Test
+    @DisplayName("Should walk the stack only for sampled-in events")
+    void shouldLookUpMethodOnlyWhenKept() {
+        // Given
+        RecordingLogger logger = new RecordingLogger();
+        long before = LogEx.getMetrics().getStackWalks();
+
+        // When
+        LogEx.debugHereSampled(logger, 0.0, "dropped");
+        LogEx.traceHereSampled(logger, Sampler.ofRate(0), "dropped");
+        long afterDropped = LogEx.getMetrics().getStackWalks();
+        LogEx.debugHereSampled(logger, 1.0, "kept", 1);
+        LogEx.traceHereSampled(logger, Sampler.everyNth(1), "kept", 2);
+
+        // Then
+        Assertions.assertThat(afterDropped).as("No walk for dropped events").isEqualTo(before);
+        Assertions.assertThat(logger.messages()).containsExactly(
+                "shouldLookUpMethodOnlyWhenKept: kept: 1",
+                "shouldLookUpMethodOnlyWhenKept: kept: 2");
+    }
+
+    @Test
+    @DisplayName("Should not sample when the level is disabled")
+    void shouldNotSampleWhenDisabled() {
+        // Given
+        Logger logger = Mockito.mock(Logger.class);
+        Sampler sampler = Sampler.everyNth(2);
+
+        // When
+        LogEx.debugSampled(logger, sampler, "dropped");
+
+        // Then
+        Assertions.assertThat(sampler.sample()).as("Counter untouched").isTrue();
+        Mockito.verify(logger).isDebugEnabled();
+        Mockito.verifyNoMoreInteractions(logger);
+    }
+}